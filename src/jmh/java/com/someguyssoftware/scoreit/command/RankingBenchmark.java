@@ -0,0 +1,101 @@
+/*
+ * This file is part of  Score It.
+ * Copyright (c) 2021, Mark Gottschling (gottsch)
+ *
+ * All rights reserved.
+ *
+ * Score It is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Score It is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Protect It.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+package com.someguyssoftware.scoreit.command;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.someguyssoftware.scoreit.scoreboard.BenchmarkData;
+import com.someguyssoftware.scoreit.scoreboard.PlayerScore;
+import com.someguyssoftware.scoreit.scoreboard.Scoreboard;
+
+import net.minecraft.util.Tuple;
+import net.minecraft.util.text.ITextComponent;
+
+/**
+ * Measures the ranking queries behind /scoreit scores: the top 5 and a player's rank from the scoreboard,
+ * and the rendered messages the command sends, which are cached between changes.
+ *
+ * @author Mark Gottschling on Oct 17, 2026
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4G"})
+public class RankingBenchmark {
+
+	@Param({"1000", "100000", "1000000"})
+	public int players;
+
+	private final Scoreboard scoreboard = new Scoreboard("benchmark");
+	private UUID[] uuids;
+	private int cursor;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		uuids = BenchmarkData.populate(scoreboard, players);
+	}
+
+	@Benchmark
+	public List<Tuple<Integer, PlayerScore>> top5() {
+		return scoreboard.getTopScores(Scoreboard.TOP_RANKINGS);
+	}
+
+	@Benchmark
+	public Optional<Integer> rankOfPlayer() {
+		UUID uuid = uuids[cursor++ % uuids.length];
+		return scoreboard.getRank(uuid);
+	}
+
+	@Benchmark
+	public List<ITextComponent> renderTop5() {
+		return ScoreItCommand.renderTopScoresFor(scoreboard, Optional.empty());
+	}
+
+	@Benchmark
+	public List<ITextComponent> renderTop5WithPlayer() {
+		UUID uuid = uuids[cursor++ % uuids.length];
+		return ScoreItCommand.renderTopScoresFor(scoreboard, Optional.of(uuid));
+	}
+
+	@Benchmark
+	public List<Tuple<Integer, PlayerScore>> aroundPlayer() {
+		UUID uuid = uuids[cursor++ % uuids.length];
+		return scoreboard.getScoresAround(uuid, 2);
+	}
+}
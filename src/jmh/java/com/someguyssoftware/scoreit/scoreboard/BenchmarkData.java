@@ -0,0 +1,112 @@
+/*
+ * This file is part of  Score It.
+ * Copyright (c) 2021, Mark Gottschling (gottsch)
+ *
+ * All rights reserved.
+ *
+ * Score It is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Score It is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Protect It.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+package com.someguyssoftware.scoreit.scoreboard;
+
+import java.util.Random;
+import java.util.UUID;
+
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.item.Items;
+import net.minecraft.util.registry.Bootstrap;
+
+/**
+ * Shared fixtures for the benchmarks: a populated Scoreboard with a realistic item count distribution.
+ * A few items (coins, diamonds, ...) are deposited by almost everyone, and most items by only a few players.
+ *
+ * @author Mark Gottschling on Oct 17, 2026
+ *
+ */
+public final class BenchmarkData {
+	public static final long SEED = 20211017L;
+
+	private static final Item[] ITEMS;
+	// cumulative zipf weights over ITEMS
+	private static final double[] CUMULATIVE;
+	private static final int MAX_KINDS_PER_PLAYER = 12;
+
+	static {
+		Bootstrap.bootStrap();
+		ITEMS = new Item[] {
+				Items.DIAMOND, Items.EMERALD, Items.GOLD_INGOT, Items.IRON_INGOT, Items.GOLD_NUGGET,
+				Items.IRON_NUGGET, Items.LAPIS_LAZULI, Items.REDSTONE, Items.COAL, Items.QUARTZ,
+				Items.NETHERITE_SCRAP, Items.ANCIENT_DEBRIS, Items.PRISMARINE_SHARD, Items.PRISMARINE_CRYSTALS, Items.SLIME_BALL,
+				Items.ENDER_PEARL, Items.BLAZE_ROD, Items.GHAST_TEAR, Items.NAUTILUS_SHELL, Items.HEART_OF_THE_SEA
+		};
+		CUMULATIVE = new double[ITEMS.length];
+		double total = 0;
+		for (int i = 0; i < ITEMS.length; i++) {
+			total += 1.0 / (i + 1);
+			CUMULATIVE[i] = total;
+		}
+		for (int i = 0; i < ITEMS.length; i++) {
+			CUMULATIVE[i] /= total;
+		}
+	}
+
+	private BenchmarkData() { }
+
+	/**
+	 * Reset the scoreboard and fill it with players.
+	 * @param scoreboard
+	 * @param players
+	 * @return the uuids of the players, in insertion order
+	 */
+	public static UUID[] populate(Scoreboard scoreboard, int players) {
+		scoreboard.reset();
+		Random random = new Random(SEED);
+		UUID[] uuids = new UUID[players];
+		for (int i = 0; i < players; i++) {
+			UUID uuid = new UUID(random.nextLong(), random.nextLong());
+			uuids[i] = uuid;
+			PlayerScore score = new PlayerScore(uuid, "player" + i);
+			int kinds = random.nextInt(MAX_KINDS_PER_PLAYER + 1);
+			int points = 0;
+			for (int k = 0; k < kinds; k++) {
+				// geometric-ish counts, mostly small with a long tail
+				int count = 1 + (int) (-Math.log(1.0 - random.nextDouble()) * 32);
+				score.addItemCount(randomItem(random), count);
+				points += count;
+			}
+			score.setPoints(points);
+			scoreboard.addPlayer(uuid, score);
+		}
+		return uuids;
+	}
+
+	public static Item randomItem(Random random) {
+		double r = random.nextDouble();
+		for (int i = 0; i < CUMULATIVE.length; i++) {
+			if (r <= CUMULATIVE[i]) {
+				return ITEMS[i];
+			}
+		}
+		return ITEMS[ITEMS.length - 1];
+	}
+
+	public static ItemStack[] stacks(int n) {
+		Random random = new Random(SEED + 1);
+		ItemStack[] stacks = new ItemStack[n];
+		for (int i = 0; i < n; i++) {
+			stacks[i] = new ItemStack(randomItem(random), 1 + random.nextInt(64));
+		}
+		return stacks;
+	}
+}
@@ -0,0 +1,125 @@
+/*
+ * This file is part of  Score It.
+ * Copyright (c) 2021, Mark Gottschling (gottsch)
+ *
+ * All rights reserved.
+ *
+ * Score It is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Score It is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Protect It.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+package com.someguyssoftware.scoreit.scoreboard;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.CompoundNBT;
+
+/**
+ * Measures NBT save and load of a single PlayerScore and of the whole Scoreboard,
+ * and the snapshot a save takes on the server thread before it is written in the background.
+ *
+ * @author Mark Gottschling on Oct 17, 2026
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8G"})
+public class PersistenceBenchmark {
+
+	@Param({"1000", "100000", "1000000"})
+	public int players;
+
+	private final Scoreboard scoreboard = new Scoreboard("benchmark");
+	private UUID[] uuids;
+	private ItemStack[] stacks;
+	private int next;
+	private PlayerScore player;
+	private CompoundNBT playerNbt;
+	// shared by the player saves and loads, as it is across a scoreboard's players
+	private final ItemDictionary dictionary = new ItemDictionary();
+	private CompoundNBT scoreboardNbt;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		uuids = BenchmarkData.populate(scoreboard, players);
+		stacks = BenchmarkData.stacks(1024);
+		// a player from the middle of the rankings has a typical number of items
+		player = scoreboard.getRankedScores(players / 2, 1).get(0).getB();
+		playerNbt = player.save(new CompoundNBT(), dictionary);
+		scoreboardNbt = scoreboard.save(new CompoundNBT());
+	}
+
+	@Benchmark
+	public CompoundNBT savePlayer() {
+		return player.save(new CompoundNBT(), dictionary);
+	}
+
+	@Benchmark
+	public Object loadPlayer() {
+		return PlayerScore.load(playerNbt, dictionary, 0);
+	}
+
+	@Benchmark
+	public CompoundNBT saveScoreboard() {
+		return scoreboard.save(new CompoundNBT());
+	}
+
+	/*
+	 * nothing changes between the snapshots, so after the first one every player's saved record is reused
+	 */
+	@Benchmark
+	public SaveSnapshot snapshotScoreboard() {
+		return scoreboard.snapshotForSave();
+	}
+
+	/*
+	 * 1% of the players score between the snapshots, so only their records are rebuilt and their counts encoded.
+	 * includes the deposits themselves
+	 */
+	@Benchmark
+	public SaveSnapshot snapshotAfterChanges() {
+		for (int i = 0; i < Math.max(1, players / 100); i++) {
+			scoreboard.addPoints(uuids[next], 1, stacks[next & (stacks.length - 1)]);
+			next = (next + 1) % uuids.length;
+		}
+		return scoreboard.snapshotForSave();
+	}
+
+	/*
+	 * includes the reset so that every load starts from an empty scoreboard. The reset is not free, it reallocates
+	 * the registry and drops the rank and team state for the collector, but that is small next to the load itself
+	 */
+	@Benchmark
+	public int loadScoreboard() {
+		scoreboard.reset();
+		scoreboard.load(scoreboardNbt);
+		return scoreboard.size();
+	}
+}
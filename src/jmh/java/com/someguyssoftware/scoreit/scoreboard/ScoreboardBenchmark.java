@@ -0,0 +1,82 @@
+/*
+ * This file is part of  Score It.
+ * Copyright (c) 2021, Mark Gottschling (gottsch)
+ *
+ * All rights reserved.
+ *
+ * Score It is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Score It is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Protect It.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+package com.someguyssoftware.scoreit.scoreboard;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.minecraft.item.ItemStack;
+
+/**
+ * Measures the deposit hot path, Scoreboard.addPoints(), with and without an ItemStack.
+ *
+ * @author Mark Gottschling on Oct 17, 2026
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4G"})
+public class ScoreboardBenchmark {
+	private static final int STACKS = 1024;
+
+	@Param({"1000", "100000", "1000000"})
+	public int players;
+
+	private final Scoreboard scoreboard = new Scoreboard("benchmark");
+	private UUID[] uuids;
+	private ItemStack[] stacks;
+	private int cursor;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		uuids = BenchmarkData.populate(scoreboard, players);
+		stacks = BenchmarkData.stacks(STACKS);
+	}
+
+	@Benchmark
+	public Object addPoints() {
+		UUID uuid = uuids[cursor++ % uuids.length];
+		return scoreboard.addPoints(uuid, 5);
+	}
+
+	@Benchmark
+	public Object addPointsWithStack() {
+		int i = cursor++;
+		UUID uuid = uuids[i % uuids.length];
+		ItemStack stack = stacks[i & (STACKS - 1)];
+		return scoreboard.addPoints(uuid, stack.getCount(), stack);
+	}
+}
@@ -22,14 +22,27 @@ package com.someguyssoftware.scoreit;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import com.someguyssoftware.scoreit.config.ScoreItConfig;
+import com.someguyssoftware.scoreit.export.ScoreExporter;
+import com.someguyssoftware.scoreit.metrics.ScoreItMetrics;
+import com.someguyssoftware.scoreit.persistence.GameStore;
 import com.someguyssoftware.scoreit.persistence.ScoreItSavedData;
+import com.someguyssoftware.scoreit.persistence.WriteAheadLog;
+import com.someguyssoftware.scoreit.scoreboard.Games;
+import com.someguyssoftware.scoreit.scoreboard.Scoreboard;
 
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.world.World;
 import net.minecraft.world.server.ServerWorld;
 import net.minecraftforge.common.MinecraftForge;
 import net.minecraftforge.event.world.WorldEvent;
 import net.minecraftforge.eventbus.api.EventPriority;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.ModLoadingContext;
 import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.config.ModConfig;
+import net.minecraftforge.fml.event.server.FMLServerStartedEvent;
+import net.minecraftforge.fml.event.server.FMLServerStoppedEvent;
 
 @Mod(value = ScoreIt.MODID)
 public class ScoreIt {
@@ -49,6 +62,10 @@ public class ScoreIt {
     public ScoreIt() {
     	ScoreIt.instance = this;
     	
+    	// register the configs
+    	ModLoadingContext.get().registerConfig(ModConfig.Type.SERVER, ScoreItConfig.SERVER_SPEC);
+    	ModLoadingContext.get().registerConfig(ModConfig.Type.CLIENT, ScoreItConfig.CLIENT_SPEC);
+    	
         // Register ourselves for server and other game events we are interested in
         MinecraftForge.EVENT_BUS.register(this);
     }
@@ -63,4 +80,37 @@ public class ScoreIt {
 			ScoreItSavedData.get(world);
 		}
 	}
+
+	@SubscribeEvent
+	public void onWorldSave(WorldEvent.Save event) {
+		/*
+		 * write the changes to each loaded game, once per world save
+		 */
+		if (!event.getWorld().isClientSide() && ((ServerWorld) event.getWorld()).dimension() == World.OVERWORLD) {
+			Games.save();
+		}
+	}
+
+	@SubscribeEvent
+	public void onServerStarted(FMLServerStartedEvent event) {
+		// score histories are timed in overworld game ticks, which persist across restarts
+		MinecraftServer server = event.getServer();
+		Scoreboard.setHistory(ScoreItConfig.SERVER.historySamples.get(), () -> server.overworld().getGameTime());
+		// read the default game now, rather than on the first tick that uses it
+		Games.getDefault();
+	}
+
+	@SubscribeEvent
+	public void onServerStopped(FMLServerStoppedEvent event) {
+		// let any exports started by the final commands finish writing
+		ScoreExporter.flush(30);
+		// the games belong to the stopped server's world
+		Games.clear();
+		// the final saves, then the logs, which are closed once the saves are written
+		GameStore.flush(30);
+		WriteAheadLog.flush(30);
+		Scoreboard.setHistory(0, () -> 0L);
+		// an integrated server can be started again in the same JVM
+		ScoreItMetrics.reset();
+	}
 }
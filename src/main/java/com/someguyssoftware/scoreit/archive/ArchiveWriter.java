@@ -0,0 +1,219 @@
+/*
+ * This file is part of  Score It.
+ * Copyright (c) 2021, Mark Gottschling (gottsch)
+ *
+ * All rights reserved.
+ *
+ * Score It is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Score It is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Protect It.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+package com.someguyssoftware.scoreit.archive;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import com.someguyssoftware.scoreit.scoreboard.PlayerScore;
+import com.someguyssoftware.scoreit.scoreboard.Scoreboard;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntArrays;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import net.minecraft.util.ResourceLocation;
+import net.minecraft.util.Tuple;
+
+/**
+ * Captures a game's final scores into primitive columns on the server thread, so that the scoreboard can be
+ * reset immediately, and writes them (on any thread) as a GameArchive file.
+ * Rows are in rank order, so the rank of a row is its index + 1.
+ *
+ * @author Mark Gottschling on Oct 17, 2026
+ *
+ */
+public final class ArchiveWriter {
+	private final String game;
+	private final long endedAt;
+	private final int size;
+	private final long[] mostBits;
+	private final long[] leastBits;
+	private final int[] points;
+	private final byte[][] names;
+	// item counts in compressed sparse rows: the entries of row r are [itemRows[r], itemRows[r + 1])
+	private final int[] itemRows;
+	private final IntArrayList itemIds = new IntArrayList();
+	private final IntArrayList itemCounts = new IntArrayList();
+	private final List<byte[]> items = new ArrayList<>();
+
+	private ArchiveWriter(String game, long endedAt, int size) {
+		this.game = game;
+		this.endedAt = endedAt;
+		this.size = size;
+		this.mostBits = new long[size];
+		this.leastBits = new long[size];
+		this.points = new int[size];
+		this.names = new byte[size][];
+		this.itemRows = new int[size + 1];
+	}
+
+	/**
+	 * Copy the scores out of the scoreboard. Must be called before the scoreboard is reset.
+	 * @param scoreboard
+	 * @param endedAt
+	 * @return
+	 */
+	public static ArchiveWriter capture(Scoreboard scoreboard, long endedAt) {
+		List<Tuple<Integer, PlayerScore>> scores = scoreboard.getRankedScores(1, scoreboard.size());
+		ArchiveWriter writer = new ArchiveWriter(scoreboard.getName(), endedAt, scores.size());
+		Object2IntOpenHashMap<String> dictionary = new Object2IntOpenHashMap<>();
+		dictionary.defaultReturnValue(-1);
+		for (int row = 0; row < scores.size(); row++) {
+			PlayerScore score = scores.get(row).getB();
+			writer.mostBits[row] = score.getUuid().getMostSignificantBits();
+			writer.leastBits[row] = score.getUuid().getLeastSignificantBits();
+			writer.points[row] = score.getPoints();
+			writer.names[row] = String.valueOf(score.getName()).getBytes(StandardCharsets.UTF_8);
+			for (Map.Entry<ResourceLocation, Integer> entry : score.getItemCounts().entrySet()) {
+				String item = entry.getKey().toString();
+				int id = dictionary.getInt(item);
+				if (id < 0) {
+					id = writer.items.size();
+					dictionary.put(item, id);
+					writer.items.add(item.getBytes(StandardCharsets.UTF_8));
+				}
+				writer.itemIds.add(id);
+				writer.itemCounts.add(entry.getValue().intValue());
+			}
+			writer.itemRows[row + 1] = writer.itemIds.size();
+		}
+		return writer;
+	}
+
+	public String getGame() {
+		return game;
+	}
+
+	/**
+	 * Write the archive to a temporary file and move it into place, so a partial archive is never visible.
+	 * @param file
+	 * @return the file
+	 * @throws IOException
+	 */
+	public Path write(Path file) throws IOException {
+		Files.createDirectories(file.getParent());
+		Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+
+		// rows sorted by uuid, for binary search
+		int[] uuidIndex = new int[size];
+		for (int i = 0; i < size; i++) {
+			uuidIndex[i] = i;
+		}
+		IntArrays.quickSort(uuidIndex, (a, b) -> GameArchive.compare(mostBits[a], leastBits[a], mostBits[b], leastBits[b]));
+
+		byte[] gameName = game.getBytes(StandardCharsets.UTF_8);
+		int nameHeapSize = 0;
+		for (byte[] name : names) {
+			nameHeapSize += name.length;
+		}
+		int itemHeapSize = 0;
+		for (byte[] item : items) {
+			itemHeapSize += item.length;
+		}
+		int m = itemIds.size();
+		int k = items.size();
+
+		// section offsets, in file order
+		int uuids = GameArchive.HEADER_SIZE;
+		int uuidIndexOffset = uuids + size * 16;
+		int pointsOffset = uuidIndexOffset + size * 4;
+		int nameOffsets = pointsOffset + size * 4;
+		int itemRowsOffset = nameOffsets + (size + 1) * 4;
+		int itemIdsOffset = itemRowsOffset + (size + 1) * 4;
+		int itemCountsOffset = itemIdsOffset + m * 4;
+		int itemDictOffsets = itemCountsOffset + m * 4;
+		int nameHeap = itemDictOffsets + (k + 1) * 4;
+		int itemHeap = nameHeap + nameHeapSize;
+		int gameNameOffset = itemHeap + itemHeapSize;
+
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 64 * 1024))) {
+			out.writeInt(GameArchive.MAGIC);
+			out.writeInt(GameArchive.VERSION);
+			out.writeLong(endedAt);
+			out.writeInt(size);
+			out.writeInt(k);
+			out.writeInt(m);
+			out.writeInt(uuids);
+			out.writeInt(uuidIndexOffset);
+			out.writeInt(pointsOffset);
+			out.writeInt(nameOffsets);
+			out.writeInt(itemRowsOffset);
+			out.writeInt(itemIdsOffset);
+			out.writeInt(itemCountsOffset);
+			out.writeInt(itemDictOffsets);
+			out.writeInt(nameHeap);
+			out.writeInt(itemHeap);
+			out.writeInt(gameNameOffset);
+			out.writeInt(gameName.length);
+			while (out.size() < GameArchive.HEADER_SIZE) {
+				out.writeByte(0);
+			}
+
+			for (int row = 0; row < size; row++) {
+				out.writeLong(mostBits[row]);
+				out.writeLong(leastBits[row]);
+			}
+			for (int row : uuidIndex) {
+				out.writeInt(row);
+			}
+			for (int row = 0; row < size; row++) {
+				out.writeInt(points[row]);
+			}
+			int offset = 0;
+			for (byte[] name : names) {
+				out.writeInt(offset);
+				offset += name.length;
+			}
+			out.writeInt(offset);
+			for (int row = 0; row <= size; row++) {
+				out.writeInt(itemRows[row]);
+			}
+			for (int i = 0; i < m; i++) {
+				out.writeInt(itemIds.getInt(i));
+			}
+			for (int i = 0; i < m; i++) {
+				out.writeInt(itemCounts.getInt(i));
+			}
+			offset = 0;
+			for (byte[] item : items) {
+				out.writeInt(offset);
+				offset += item.length;
+			}
+			out.writeInt(offset);
+			for (byte[] name : names) {
+				out.write(name);
+			}
+			for (byte[] item : items) {
+				out.write(item);
+			}
+			out.write(gameName);
+		}
+		Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		return file;
+	}
+}
@@ -0,0 +1,292 @@
+/*
+ * This file is part of  Score It.
+ * Copyright (c) 2021, Mark Gottschling (gottsch)
+ *
+ * All rights reserved.
+ *
+ * Score It is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Score It is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Protect It.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+package com.someguyssoftware.scoreit.archive;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.someguyssoftware.scoreit.ScoreIt;
+import com.someguyssoftware.scoreit.export.ScoreExporter;
+import com.someguyssoftware.scoreit.persistence.ScoreItSavedData;
+import com.someguyssoftware.scoreit.scoreboard.Scoreboard;
+import com.someguyssoftware.scoreit.scoreboard.UuidMap;
+
+import net.minecraft.server.MinecraftServer;
+
+/**
+ * Archives ended games to "scoreit/archive" in the world save folder and answers queries across the archives.
+ * Archives are named by their end time, so the newest games sort first, and are read through GameArchive's
+ * memory-mapped columns.
+ *
+ * @author Mark Gottschling on Oct 17, 2026
+ *
+ */
+public class Archives {
+	public static Logger LOGGER = LogManager.getLogger(ScoreIt.NAME);
+
+	public static final String ARCHIVE_FOLDER = "archive";
+	public static final int DEFAULT_GAMES = 50;
+	private static final String EXTENSION = ".sia";
+	private static final String TIMESTAMP_PATTERN = "yyyyMMdd-HHmmss";
+	private static final int MAX_OPEN = 64;
+
+	// the most recently used mappings, keyed by file
+	private static final Map<Path, GameArchive> OPEN = new LinkedHashMap<Path, GameArchive>(16, 0.75F, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Path, GameArchive> eldest) {
+			return size() > MAX_OPEN;
+		}
+	};
+
+	/**
+	 *
+	 */
+	private Archives() { }
+
+	public static Path getFolder(MinecraftServer server) {
+		return ScoreItSavedData.getSaveFolder(server).resolve(ARCHIVE_FOLDER);
+	}
+
+	/**
+	 * Capture the game's scores now, so the scoreboard can be reset as soon as this returns,
+	 * and write the archive in the background.
+	 * @param server
+	 * @param scoreboard
+	 * @return the path of the archive
+	 */
+	public static CompletableFuture<Path> archive(MinecraftServer server, Scoreboard scoreboard) {
+		long endedAt = System.currentTimeMillis();
+		ArchiveWriter writer = ArchiveWriter.capture(scoreboard, endedAt);
+		Path folder = getFolder(server);
+		String basename = new SimpleDateFormat(TIMESTAMP_PATTERN).format(new Date(endedAt)) + "-" + scoreboard.getName();
+		return ScoreExporter.submit(() -> {
+			try {
+				Path path = folder.resolve(basename + EXTENSION);
+				// never overwrite an earlier archive, ie a game ended twice in the same second
+				for (int attempt = 1; Files.exists(path); attempt++) {
+					path = folder.resolve(basename + "-" + attempt + EXTENSION);
+				}
+				writer.write(path);
+				LOGGER.info("archived game -> {} to -> {}", writer.getGame(), path);
+				return path;
+			}
+			catch(IOException e) {
+				LOGGER.error("Unable to archive game:", e);
+				throw new RuntimeException(e);
+			}
+		});
+	}
+
+	/**
+	 *
+	 * @param folder
+	 * @param games the maximum number of archives
+	 * @return the newest archives first
+	 * @throws IOException
+	 */
+	public static List<GameArchive> list(Path folder, int games) throws IOException {
+		List<Path> paths = new ArrayList<>();
+		if (Files.isDirectory(folder)) {
+			try (DirectoryStream<Path> stream = Files.newDirectoryStream(folder, "*" + EXTENSION)) {
+				stream.forEach(paths::add);
+			}
+		}
+		paths.sort(Comparator.comparing((Path path) -> path.getFileName().toString()).reversed());
+
+		List<GameArchive> archives = new ArrayList<>(Math.min(games, paths.size()));
+		for (Path path : paths) {
+			if (archives.size() >= games) {
+				break;
+			}
+			try {
+				archives.add(open(path));
+			}
+			catch(IOException e) {
+				LOGGER.warn("skipping unreadable game archive -> {}", path, e);
+			}
+		}
+		return archives;
+	}
+
+	private static GameArchive open(Path path) throws IOException {
+		synchronized (OPEN) {
+			GameArchive archive = OPEN.get(path);
+			if (archive == null) {
+				archive = GameArchive.open(path);
+				OPEN.put(path, archive);
+			}
+			return archive;
+		}
+	}
+
+	/**
+	 * Total each player's points across the archives. Only the running totals are held on the heap;
+	 * the names are read from the archives for the winners alone.
+	 * @param archives
+	 * @param count
+	 * @return the top players, highest total first
+	 */
+	public static List<PlayerTotal> getTopPlayers(List<GameArchive> archives, int count) {
+		UuidMap<PlayerTotal> totals = new UuidMap<>();
+		// newest first, so the first appearance of a player has their latest name
+		for (GameArchive archive : archives) {
+			for (int row = 0; row < archive.size(); row++) {
+				long most = archive.getMostBits(row);
+				long least = archive.getLeastBits(row);
+				PlayerTotal total = totals.get(most, least);
+				if (total == null) {
+					total = new PlayerTotal(new UUID(most, least), archive, row);
+					totals.put(total.uuid, total);
+				}
+				total.points += archive.getPoints(row);
+				total.games++;
+			}
+		}
+
+		PriorityQueue<PlayerTotal> top = new PriorityQueue<>(count + 1, PlayerTotal.ORDER);
+		totals.forEachValue(total -> {
+			top.add(total);
+			if (top.size() > count) {
+				top.poll();
+			}
+		});
+		List<PlayerTotal> result = new ArrayList<>(top);
+		result.sort(Collections.reverseOrder(PlayerTotal.ORDER));
+		result.forEach(PlayerTotal::resolveName);
+		return result;
+	}
+
+	/**
+	 *
+	 * @param archives
+	 * @param uuid
+	 * @return the player's result in each archived game they played, newest first
+	 */
+	public static List<GameResult> getHistory(List<GameArchive> archives, UUID uuid) {
+		List<GameResult> history = new ArrayList<>();
+		for (GameArchive archive : archives) {
+			int row = archive.findRow(uuid);
+			if (row >= 0) {
+				history.add(new GameResult(archive.getGame(), archive.getEndedAt(), row + 1, archive.size(), archive.getPoints(row)));
+			}
+		}
+		return history;
+	}
+
+	/**
+	 * A player's points summed over a number of games.
+	 */
+	public static class PlayerTotal {
+		// lowest total first, for the bounded heap
+		static final Comparator<PlayerTotal> ORDER = Comparator.comparingLong((PlayerTotal total) -> total.points)
+				.thenComparing(total -> total.uuid, Comparator.reverseOrder());
+
+		private final UUID uuid;
+		private GameArchive latest;
+		private final int row;
+		private String name;
+		private long points;
+		private int games;
+
+		PlayerTotal(UUID uuid, GameArchive latest, int row) {
+			this.uuid = uuid;
+			this.latest = latest;
+			this.row = row;
+		}
+
+		void resolveName() {
+			name = latest.getName(row);
+			latest = null;
+		}
+
+		public UUID getUuid() {
+			return uuid;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public long getPoints() {
+			return points;
+		}
+
+		public int getGames() {
+			return games;
+		}
+	}
+
+	/**
+	 * A player's result in one archived game.
+	 */
+	public static class GameResult {
+		private final String game;
+		private final long endedAt;
+		private final int rank;
+		private final int players;
+		private final int points;
+
+		GameResult(String game, long endedAt, int rank, int players, int points) {
+			this.game = game;
+			this.endedAt = endedAt;
+			this.rank = rank;
+			this.players = players;
+			this.points = points;
+		}
+
+		public String getGame() {
+			return game;
+		}
+
+		public long getEndedAt() {
+			return endedAt;
+		}
+
+		public int getRank() {
+			return rank;
+		}
+
+		public int getPlayers() {
+			return players;
+		}
+
+		public int getPoints() {
+			return points;
+		}
+	}
+}
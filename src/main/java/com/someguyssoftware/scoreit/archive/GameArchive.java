@@ -0,0 +1,215 @@
+/*
+ * This file is part of  Score It.
+ * Copyright (c) 2021, Mark Gottschling (gottsch)
+ *
+ * All rights reserved.
+ *
+ * Score It is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Score It is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Protect It.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+package com.someguyssoftware.scoreit.archive;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * A read-only view of an archived game, backed by a memory-mapped file.
+ * Nothing is copied onto the heap until a value is read, and then only that value, so queries across many
+ * archives cost page cache rather than heap.
+ * <p>
+ * The file is a header followed by fixed-width columns, rows in rank order:
+ * <pre>
+ * header      magic, version, endedAt, rows, items, item entries, section offsets (HEADER_SIZE bytes)
+ * uuids       rows x (long most, long least)
+ * uuid index  rows x int, the rows sorted by uuid
+ * points      rows x int
+ * names       (rows + 1) x int offsets into the name heap
+ * item rows   (rows + 1) x int offsets into the item entries
+ * item ids    entries x int, indexes into the item dictionary
+ * item counts entries x int
+ * dictionary  (items + 1) x int offsets into the item heap
+ * name heap   UTF-8 player names
+ * item heap   UTF-8 item registry names
+ * game name   UTF-8
+ * </pre>
+ *
+ * @author Mark Gottschling on Oct 17, 2026
+ *
+ */
+public final class GameArchive {
+	static final int MAGIC = 0x53494152; // "SIAR"
+	static final int VERSION = 1;
+	static final int HEADER_SIZE = 80;
+
+	private final Path path;
+	private final ByteBuffer buffer;
+	private final long endedAt;
+	private final int size;
+	private final int uuids;
+	private final int uuidIndex;
+	private final int points;
+	private final int nameOffsets;
+	private final int itemRows;
+	private final int itemIds;
+	private final int itemCounts;
+	private final int itemDictOffsets;
+	private final int nameHeap;
+	private final int itemHeap;
+	private final String game;
+
+	private GameArchive(Path path, ByteBuffer buffer) throws IOException {
+		this.path = path;
+		this.buffer = buffer;
+		if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+			throw new IOException("not a game archive -> " + path);
+		}
+		if (buffer.getInt(4) != VERSION) {
+			throw new IOException("unsupported game archive version -> " + buffer.getInt(4));
+		}
+		this.endedAt = buffer.getLong(8);
+		this.size = buffer.getInt(16);
+		this.uuids = buffer.getInt(28);
+		this.uuidIndex = buffer.getInt(32);
+		this.points = buffer.getInt(36);
+		this.nameOffsets = buffer.getInt(40);
+		this.itemRows = buffer.getInt(44);
+		this.itemIds = buffer.getInt(48);
+		this.itemCounts = buffer.getInt(52);
+		this.itemDictOffsets = buffer.getInt(56);
+		this.nameHeap = buffer.getInt(60);
+		this.itemHeap = buffer.getInt(64);
+		this.game = decode(buffer.getInt(68), buffer.getInt(72));
+	}
+
+	/**
+	 * Map the archive. The mapping stays valid after the channel is closed, and is released when the GameArchive is collected.
+	 * @param path
+	 * @return
+	 * @throws IOException
+	 */
+	public static GameArchive open(Path path) throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			return new GameArchive(path, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+		}
+	}
+
+	public Path getPath() {
+		return path;
+	}
+
+	public String getGame() {
+		return game;
+	}
+
+	public long getEndedAt() {
+		return endedAt;
+	}
+
+	/**
+	 *
+	 * @return the number of players
+	 */
+	public int size() {
+		return size;
+	}
+
+	public long getMostBits(int row) {
+		return buffer.getLong(uuids + row * 16);
+	}
+
+	public long getLeastBits(int row) {
+		return buffer.getLong(uuids + row * 16 + 8);
+	}
+
+	public UUID getUuid(int row) {
+		return new UUID(getMostBits(row), getLeastBits(row));
+	}
+
+	public int getPoints(int row) {
+		return buffer.getInt(points + row * 4);
+	}
+
+	public String getName(int row) {
+		int start = buffer.getInt(nameOffsets + row * 4);
+		int end = buffer.getInt(nameOffsets + (row + 1) * 4);
+		return decode(nameHeap + start, end - start);
+	}
+
+	/**
+	 *
+	 * @param uuid
+	 * @return the row, ie rank - 1, of the player or -1 if they did not play
+	 */
+	public int findRow(UUID uuid) {
+		long most = uuid.getMostSignificantBits();
+		long least = uuid.getLeastSignificantBits();
+		int low = 0;
+		int high = size - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			int row = buffer.getInt(uuidIndex + mid * 4);
+			int compare = compare(getMostBits(row), getLeastBits(row), most, least);
+			if (compare < 0) {
+				low = mid + 1;
+			}
+			else if (compare > 0) {
+				high = mid - 1;
+			}
+			else {
+				return row;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 *
+	 * @param row
+	 * @return the item registry names and counts deposited by the player
+	 */
+	public Map<String, Integer> getItemCounts(int row) {
+		int start = buffer.getInt(itemRows + row * 4);
+		int end = buffer.getInt(itemRows + (row + 1) * 4);
+		Map<String, Integer> counts = new LinkedHashMap<>();
+		for (int entry = start; entry < end; entry++) {
+			int item = buffer.getInt(itemIds + entry * 4);
+			int itemStart = buffer.getInt(itemDictOffsets + item * 4);
+			int itemEnd = buffer.getInt(itemDictOffsets + (item + 1) * 4);
+			counts.put(decode(itemHeap + itemStart, itemEnd - itemStart), buffer.getInt(itemCounts + entry * 4));
+		}
+		return counts;
+	}
+
+	/**
+	 * The uuid order of the uuid index.
+	 */
+	static int compare(long mostA, long leastA, long mostB, long leastB) {
+		int compare = Long.compare(mostA, mostB);
+		return compare != 0 ? compare : Long.compare(leastA, leastB);
+	}
+
+	private String decode(int offset, int length) {
+		byte[] bytes = new byte[length];
+		ByteBuffer view = buffer.duplicate();
+		view.position(offset);
+		view.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+}
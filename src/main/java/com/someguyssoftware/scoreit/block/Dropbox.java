@@ -20,6 +20,18 @@
 package com.someguyssoftware.scoreit.block;
 
 import com.someguyssoftware.gottschcore.block.ModBlock;
+import com.someguyssoftware.scoreit.tileentity.DropboxTileEntity;
+
+import net.minecraft.block.BlockState;
+import net.minecraft.entity.LivingEntity;
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.inventory.InventoryHelper;
+import net.minecraft.item.ItemStack;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.IBlockReader;
+import net.minecraft.world.World;
+import net.minecraftforge.items.IItemHandler;
 
 /**
  * 
@@ -32,4 +44,48 @@ public class Dropbox extends ModBlock {
 		super(modID, name, properties);
 	}
 
+	@Override
+	public boolean hasTileEntity(BlockState state) {
+		return true;
+	}
+
+	@Override
+	public TileEntity createTileEntity(BlockState state, IBlockReader world) {
+		return new DropboxTileEntity();
+	}
+
+	/**
+	 * The player that places the dropbox is credited with everything automation feeds into it.
+	 */
+	@Override
+	public void setPlacedBy(World world, BlockPos pos, BlockState state, LivingEntity placer, ItemStack stack) {
+		super.setPlacedBy(world, pos, state, placer, stack);
+		if (!world.isClientSide() && placer instanceof PlayerEntity) {
+			TileEntity tileEntity = world.getBlockEntity(pos);
+			if (tileEntity instanceof DropboxTileEntity) {
+				((DropboxTileEntity) tileEntity).setOwner(placer.getUUID(), placer.getName().getString());
+			}
+		}
+	}
+
+	/**
+	 * Drop anything still buffered when the dropbox is broken.
+	 */
+	@SuppressWarnings("deprecation")
+	@Override
+	public void onRemove(BlockState state, World world, BlockPos pos, BlockState newState, boolean isMoving) {
+		if (state.getBlock() != newState.getBlock()) {
+			TileEntity tileEntity = world.getBlockEntity(pos);
+			if (tileEntity instanceof DropboxTileEntity) {
+				IItemHandler buffer = ((DropboxTileEntity) tileEntity).getBuffer();
+				for (int slot = 0; slot < buffer.getSlots(); slot++) {
+					ItemStack stack = buffer.getStackInSlot(slot);
+					if (!stack.isEmpty()) {
+						InventoryHelper.dropItemStack(world, pos.getX(), pos.getY(), pos.getZ(), stack.copy());
+					}
+				}
+			}
+		}
+		super.onRemove(state, world, pos, newState, isMoving);
+	}
 }
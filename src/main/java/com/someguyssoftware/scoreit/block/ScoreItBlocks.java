@@ -23,7 +23,6 @@ import java.util.ArrayList;
 import java.util.List;
 
 import com.google.common.base.Preconditions;
-import com.someguyssoftware.gottschcore.block.ModBlock;
 import com.someguyssoftware.scoreit.ScoreIt;
 
 import net.minecraft.block.Block;
@@ -48,7 +47,7 @@ public class ScoreItBlocks {
 
 	@SubscribeEvent
 	public static void registerBlocks(RegistryEvent.Register<Block> event) {
-		DROPBOX = new ModBlock(ScoreIt.MODID, "dropbox", Block.Properties.of(Material.WOOD, MaterialColor.WOOD).strength(2.5F));
+		DROPBOX = new Dropbox(ScoreIt.MODID, "dropbox", Block.Properties.of(Material.WOOD, MaterialColor.WOOD).strength(2.5F));
 		
         /*
          * register blocks
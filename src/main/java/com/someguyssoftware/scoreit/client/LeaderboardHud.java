@@ -0,0 +1,149 @@
+/*
+ * This file is part of  Score It.
+ * Copyright (c) 2021, Mark Gottschling (gottsch)
+ *
+ * All rights reserved.
+ *
+ * Score It is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Score It is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Protect It.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+package com.someguyssoftware.scoreit.client;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import com.someguyssoftware.scoreit.ScoreIt;
+import com.someguyssoftware.scoreit.config.ScoreItConfig;
+import com.someguyssoftware.scoreit.network.LeaderboardUpdateMessage;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.resources.I18n;
+import net.minecraft.util.text.TextFormatting;
+import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.client.event.ClientPlayerNetworkEvent;
+import net.minecraftforge.client.event.RenderGameOverlayEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+/**
+ * The client side leaderboard, built from the server's leaderboard updates and drawn with the HUD text.
+ * Only used on the client thread.
+ *
+ * @author Mark Gottschling on Oct 17, 2026
+ *
+ */
+@Mod.EventBusSubscriber(modid = ScoreIt.MODID, bus = Mod.EventBusSubscriber.Bus.FORGE, value = Dist.CLIENT)
+public class LeaderboardHud {
+	// names are kept after a player leaves the top rankings, the server won't send them again
+	private static final Int2ObjectOpenHashMap<String> NAMES = new Int2ObjectOpenHashMap<>();
+	private static final Int2ObjectOpenHashMap<Line> LINES = new Int2ObjectOpenHashMap<>();
+	private static List<Line> sortedLines = Collections.emptyList();
+	private static long version;
+
+	/*
+	 * One line of the leaderboard.
+	 */
+	private static class Line {
+		final int id;
+		int rank;
+		int points;
+
+		Line(int id, int rank, int points) {
+			this.id = id;
+			this.rank = rank;
+			this.points = points;
+		}
+	}
+
+	/**
+	 *
+	 */
+	private LeaderboardHud() { }
+
+	/**
+	 * Apply an update from the server.
+	 * @param message
+	 */
+	public static void apply(LeaderboardUpdateMessage message) {
+		if (message.isFull()) {
+			NAMES.clear();
+			LINES.clear();
+		}
+		for (LeaderboardUpdateMessage.Op op : message.getOps()) {
+			Line line;
+			switch (op.type) {
+			case LeaderboardUpdateMessage.ENTER:
+				if (op.name != null) {
+					NAMES.put(op.id, op.name);
+				}
+				LINES.put(op.id, new Line(op.id, op.rank, op.points));
+				break;
+			case LeaderboardUpdateMessage.LEAVE:
+				LINES.remove(op.id);
+				break;
+			case LeaderboardUpdateMessage.RANK:
+				line = LINES.get(op.id);
+				if (line != null) {
+					line.rank = op.rank;
+				}
+				break;
+			case LeaderboardUpdateMessage.POINTS:
+				line = LINES.get(op.id);
+				if (line != null) {
+					line.points = op.points;
+				}
+				break;
+			default:
+				break;
+			}
+		}
+		List<Line> lines = new ArrayList<>(LINES.values());
+		lines.sort(Comparator.comparingInt(l -> l.rank));
+		sortedLines = lines;
+		version = message.getVersion();
+	}
+
+	@SubscribeEvent
+	public static void onRenderText(RenderGameOverlayEvent.Text event) {
+		Minecraft minecraft = Minecraft.getInstance();
+		if (sortedLines.isEmpty() || minecraft.options.renderDebug || !ScoreItConfig.CLIENT.hudEnabled.get()) {
+			return;
+		}
+		String self = minecraft.player == null ? null : minecraft.player.getGameProfile().getName();
+		event.getLeft().add(I18n.get("hud.scoreit.title"));
+		for (Line line : sortedLines) {
+			String name = NAMES.getOrDefault(line.id, "?");
+			String text = I18n.get("hud.scoreit.line", line.rank, name, line.points);
+			event.getLeft().add(name.equals(self) ? TextFormatting.GOLD + text : text);
+		}
+	}
+
+	@SubscribeEvent
+	public static void onLoggedOut(ClientPlayerNetworkEvent.LoggedOutEvent event) {
+		NAMES.clear();
+		LINES.clear();
+		sortedLines = Collections.emptyList();
+		version = 0;
+	}
+
+	/**
+	 * 
+	 * @return the scoreboard version of the last update
+	 */
+	public static long getVersion() {
+		return version;
+	}
+}
@@ -20,36 +20,64 @@
 package com.someguyssoftware.scoreit.command;
 
 import java.io.IOException;
-import java.nio.file.Files;
+import java.io.UncheckedIOException;
 import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Collections;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import com.mojang.authlib.GameProfile;
 import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.arguments.IntegerArgumentType;
+import com.mojang.brigadier.arguments.StringArgumentType;
+import com.mojang.brigadier.builder.ArgumentBuilder;
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import com.mojang.brigadier.context.CommandContext;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import com.mojang.brigadier.exceptions.DynamicCommandExceptionType;
+import com.mojang.brigadier.suggestion.Suggestions;
+import com.mojang.brigadier.suggestion.SuggestionsBuilder;
 import com.someguyssoftware.scoreit.ScoreIt;
+import com.someguyssoftware.scoreit.archive.Archives;
+import com.someguyssoftware.scoreit.archive.GameArchive;
+import com.someguyssoftware.scoreit.deposit.DepositQueue;
+import com.someguyssoftware.scoreit.export.ExportFormat;
+import com.someguyssoftware.scoreit.export.ScoreExporter;
+import com.someguyssoftware.scoreit.metrics.ScoreItMetrics;
 import com.someguyssoftware.scoreit.persistence.ScoreItSavedData;
+import com.someguyssoftware.scoreit.scoreboard.Games;
 import com.someguyssoftware.scoreit.scoreboard.PlayerScore;
+import com.someguyssoftware.scoreit.scoreboard.ScoreHistory;
 import com.someguyssoftware.scoreit.scoreboard.Scoreboard;
+import com.someguyssoftware.scoreit.scoreboard.ScoreboardSnapshot;
+import com.someguyssoftware.scoreit.scoreboard.TeamScore;
+import com.someguyssoftware.scoreit.tileentity.DropboxTileEntity;
 
 import net.minecraft.command.CommandSource;
 import net.minecraft.command.Commands;
+import net.minecraft.command.ISuggestionProvider;
+import net.minecraft.command.arguments.BlockPosArgument;
+import net.minecraft.command.arguments.GameProfileArgument;
 import net.minecraft.entity.player.ServerPlayerEntity;
+import net.minecraft.tileentity.TileEntity;
 import net.minecraft.util.Tuple;
 import net.minecraft.util.Util;
+import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.text.ChatType;
 import net.minecraft.util.text.ITextComponent;
 import net.minecraft.util.text.TextFormatting;
 import net.minecraft.util.text.TranslationTextComponent;
-import net.minecraft.world.server.ServerWorld;
 
 /**
  * 
@@ -59,45 +87,301 @@ import net.minecraft.world.server.ServerWorld;
 public class ScoreItCommand {
 	public static Logger LOGGER = LogManager.getLogger(ScoreIt.NAME);
 
+	private static final String PAGE_ARG = "page";
+	private static final String PLAYER_ARG = "player";
+	private static final String GAME_ARG = "game";
+	private static final String TEAM_ARG = "team";
+	private static final String POS_ARG = "pos";
+	private static final String GAMES_ARG = "games";
+	private static final DynamicCommandExceptionType UNKNOWN_GAME = new DynamicCommandExceptionType(name -> {
+		return new TranslationTextComponent("command.scoreit.game.unknown", name);
+	});
+	private static final DynamicCommandExceptionType DAMAGED_GAME = new DynamicCommandExceptionType(name -> {
+		return new TranslationTextComponent("command.scoreit.game.damaged", name);
+	});
+	public static final int PAGE_SIZE = 10;
+	// the number of ranks shown above and below a player
+	public static final int AROUND_RADIUS = 3;
+	// the number of most recent history buckets shown in chat
+	private static final int HISTORY_LINES = 10;
+	private static final String HISTORY_DATE_PATTERN = "yyyy-MM-dd HH:mm";
+
+	// the rendered top scores of each game, keyed by identity. only used on the server thread
+	private static final Map<Scoreboard, RenderedScores> RENDERED = new WeakHashMap<>();
+
 	/**
 	 * 
 	 * @param dispatcher
 	 */
 	public static void register(CommandDispatcher<CommandSource> dispatcher) {
 		dispatcher
-		.register(Commands.literal("scoreit")
-				.requires(source -> {
-					return source.hasPermission(4);
-				})
+		.register(gameCommands(Commands.literal("scoreit"), context -> checkDamaged(Games.getDefault()))
+				.then(Commands.literal("stats")
+						.requires(source -> {
+							return source.hasPermission(4);
+						})
+						.executes(source -> {
+							return stats(source.getSource());
+						})
+						.then(Commands.literal("reset")
+								.executes(source -> {
+									return resetStats(source.getSource());
+								})
+								)
+						)
+				.then(Commands.literal("games")
+						.executes(source -> {
+							return listGames(source.getSource());
+						})
+						.then(Commands.literal("create")
+								.requires(source -> {
+									return source.hasPermission(4);
+								})
+								.then(Commands.argument(GAME_ARG, StringArgumentType.word())
+										.executes(source -> {
+											return createGame(source.getSource(), StringArgumentType.getString(source, GAME_ARG));
+										})
+										)
+								)
+						.then(Commands.literal("delete")
+								.requires(source -> {
+									return source.hasPermission(4);
+								})
+								.then(Commands.argument(GAME_ARG, StringArgumentType.word())
+										.suggests(ScoreItCommand::suggestGames)
+										.executes(source -> {
+											return deleteGame(source.getSource(), StringArgumentType.getString(source, GAME_ARG));
+										})
+										)
+								)
+						)
+				// queries across the archived games, available to every player
+				.then(Commands.literal("archive")
+						.then(Commands.literal("top")
+								.executes(source -> {
+									return archiveTop(source.getSource(), Archives.DEFAULT_GAMES);
+								})
+								.then(Commands.argument(GAMES_ARG, IntegerArgumentType.integer(1))
+										.executes(source -> {
+											return archiveTop(source.getSource(), IntegerArgumentType.getInteger(source, GAMES_ARG));
+										})
+										)
+								)
+						.then(Commands.literal("history")
+								.executes(source -> {
+									return archiveHistory(source.getSource(), source.getSource().getPlayerOrException().getGameProfile());
+								})
+								.then(Commands.argument(PLAYER_ARG, GameProfileArgument.gameProfile())
+										.executes(source -> {
+											for (GameProfile profile : GameProfileArgument.getGameProfiles(source, PLAYER_ARG)) {
+												archiveHistory(source.getSource(), profile);
+											}
+											return 1;
+										})
+										)
+								)
+						)
+				// the same commands as above, for a named game
+				.then(Commands.literal("game")
+						.then(gameCommands(Commands.argument(GAME_ARG, StringArgumentType.word()), ScoreItCommand::getGame)
+								.suggests(ScoreItCommand::suggestGames)
+								.then(Commands.literal("bind")
+										.requires(source -> {
+											return source.hasPermission(4);
+										})
+										.then(Commands.argument(POS_ARG, BlockPosArgument.blockPos())
+												.executes(source -> {
+													return bind(source.getSource(), getGame(source), BlockPosArgument.getLoadedBlockPos(source, POS_ARG));
+												})
+												)
+										)
+								)
+						)
+				);
+	}
+
+	/**
+	 * Add the commands that act on a single game to the parent.
+	 * @param parent
+	 * @param resolver finds the game from the command context
+	 * @return the parent
+	 */
+	private static <T extends ArgumentBuilder<CommandSource, T>> T gameCommands(T parent, GameResolver resolver) {
+		return parent
 				.then(Commands.literal("start")
+						.requires(source -> {
+							return source.hasPermission(4);
+						})
 						.executes(source -> {
-							return start(source.getSource());
+							return start(source.getSource(), resolver.resolve(source));
 						})
 						)
 				.then(Commands.literal("stop")
+						.requires(source -> {
+							return source.hasPermission(4);
+						})
 						.executes(source -> {
-							return stop(source.getSource());
+							return stop(source.getSource(), resolver.resolve(source));
 						})
 						)
 				.then(Commands.literal("end")
+						.requires(source -> {
+							return source.hasPermission(4);
+						})
 						.executes(source -> {
-							return end(source.getSource());
+							return end(source.getSource(), resolver.resolve(source));
 						})	
 						)
 				.then(Commands.literal("reset")
+						.requires(source -> {
+							return source.hasPermission(4);
+						})
 						.executes(source -> {
-							return reset(source.getSource());
+							return reset(source.getSource(), resolver.resolve(source));
 						})	
 						)		
-				.then(Commands.literal("scores")
+				.then(exportCommand(resolver)
 						.requires(source -> {
 							return source.hasPermission(4);
 						})
+						)
+				// the score queries are read-only and available to every player
+				.then(Commands.literal("scores")
 						.executes(source -> {
-							return scores(source.getSource());
-						})	
-						)						
-				);
+							return scores(source.getSource(), resolver.resolve(source));
+						})
+						.then(Commands.literal("page")
+								.then(Commands.argument(PAGE_ARG, IntegerArgumentType.integer(1))
+										.executes(source -> {
+											return page(source.getSource(), resolver.resolve(source), IntegerArgumentType.getInteger(source, PAGE_ARG));
+										})
+										)
+								)
+						.then(Commands.literal("team")
+								.executes(source -> {
+									return teamScores(source.getSource(), resolver.resolve(source));
+								})
+								)
+						.then(Commands.literal("around")
+								.executes(source -> {
+									return around(source.getSource(), resolver.resolve(source), source.getSource().getPlayerOrException().getGameProfile());
+								})
+								.then(Commands.argument(PLAYER_ARG, GameProfileArgument.gameProfile())
+										.executes(source -> {
+											Scoreboard scoreboard = resolver.resolve(source);
+											for (GameProfile profile : GameProfileArgument.getGameProfiles(source, PLAYER_ARG)) {
+												around(source.getSource(), scoreboard, profile);
+											}
+											return 1;
+										})
+										)
+								)
+						)
+				.then(Commands.literal("history")
+						.then(Commands.argument(PLAYER_ARG, GameProfileArgument.gameProfile())
+								.executes(source -> {
+									Scoreboard scoreboard = resolver.resolve(source);
+									int found = 0;
+									for (GameProfile profile : GameProfileArgument.getGameProfiles(source, PLAYER_ARG)) {
+										found += history(source.getSource(), scoreboard, profile);
+									}
+									return found;
+								})
+								.then(Commands.literal("export")
+										.requires(source -> {
+											return source.hasPermission(4);
+										})
+										.executes(source -> {
+											Scoreboard scoreboard = resolver.resolve(source);
+											for (GameProfile profile : GameProfileArgument.getGameProfiles(source, PLAYER_ARG)) {
+												exportHistory(source.getSource(), scoreboard, profile);
+											}
+											return 1;
+										})
+										)
+								)
+						)
+				.then(Commands.literal("rank")
+						.then(Commands.argument(PLAYER_ARG, GameProfileArgument.gameProfile())
+								.executes(source -> {
+									return rank(source.getSource(), resolver.resolve(source), GameProfileArgument.getGameProfiles(source, PLAYER_ARG));
+								})
+								)
+						)
+				.then(Commands.literal("team")
+						.requires(source -> {
+							return source.hasPermission(4);
+						})
+						.then(Commands.literal("join")
+								.then(Commands.argument(TEAM_ARG, StringArgumentType.word())
+										.then(Commands.argument(PLAYER_ARG, GameProfileArgument.gameProfile())
+												.executes(source -> {
+													return setTeam(source.getSource(), resolver.resolve(source), Optional.of(StringArgumentType.getString(source, TEAM_ARG)),
+															GameProfileArgument.getGameProfiles(source, PLAYER_ARG));
+												})
+												)
+										)
+								)
+						.then(Commands.literal("leave")
+								.then(Commands.argument(PLAYER_ARG, GameProfileArgument.gameProfile())
+										.executes(source -> {
+											return setTeam(source.getSource(), resolver.resolve(source), Optional.empty(),
+													GameProfileArgument.getGameProfiles(source, PLAYER_ARG));
+										})
+										)
+								)
+						);
+	}
+
+	/*
+	 * Finds the game a command acts on.
+	 */
+	@FunctionalInterface
+	private interface GameResolver {
+		Scoreboard resolve(CommandContext<CommandSource> context) throws CommandSyntaxException;
+	}
+
+	private static Scoreboard getGame(CommandContext<CommandSource> context) throws CommandSyntaxException {
+		String name = StringArgumentType.getString(context, GAME_ARG);
+		Optional<Scoreboard> scoreboard = Games.get(name);
+		if (!scoreboard.isPresent()) {
+			throw UNKNOWN_GAME.create(name);
+		}
+		return checkDamaged(scoreboard.get());
+	}
+
+	/*
+	 * A damaged game is empty and never saved, so none of its commands may run until the operator restores it.
+	 */
+	private static Scoreboard checkDamaged(Scoreboard scoreboard) throws CommandSyntaxException {
+		if (Games.isDamaged(scoreboard.getName())) {
+			throw DAMAGED_GAME.create(scoreboard.getName());
+		}
+		return scoreboard;
+	}
+
+	private static CompletableFuture<Suggestions> suggestGames(CommandContext<CommandSource> context, SuggestionsBuilder builder) {
+		return ISuggestionProvider.suggest(Games.getNames(), builder);
+	}
+
+	/**
+	 * "export" defaults to the text layout, "export csv|text|jsonl" selects a format.
+	 * @param resolver
+	 * @return
+	 */
+	private static LiteralArgumentBuilder<CommandSource> exportCommand(GameResolver resolver) {
+		LiteralArgumentBuilder<CommandSource> export = Commands.literal("export")
+				.executes(source -> {
+					return export(source.getSource(), resolver.resolve(source), ExportFormat.TEXT);
+				});
+		for (ExportFormat format : ExportFormat.values()) {
+			export.then(Commands.literal(format.name().toLowerCase(Locale.ROOT))
+					.executes(source -> {
+						return export(source.getSource(), resolver.resolve(source), format);
+					})
+					);
+		}
+		return export;
 	}
 
 	/**
@@ -105,34 +389,37 @@ public class ScoreItCommand {
 	 * @param source
 	 * @return
 	 */
-	private static int start(CommandSource source) {
-		if (Scoreboard.start()) {
+	private static int start(CommandSource source, Scoreboard scoreboard) {
+		if (scoreboard.start()) {
 			// message player that state has changed
 			source.sendSuccess(new TranslationTextComponent("command.scoreit.start.success"), true);
-			saveData(source);
+			saveData(scoreboard);
 		} else {
-			source.sendSuccess(new TranslationTextComponent("command.scoreit.start.failure", Scoreboard.getGameState().toString()), true);
+			source.sendSuccess(new TranslationTextComponent("command.scoreit.start.failure", scoreboard.getGameState().toString()), true);
 		}
 
 		return 1;
 	}
 
-	private static int stop(CommandSource source) {
-		if (Scoreboard.stop()) {
+	private static int stop(CommandSource source, Scoreboard scoreboard) {
+		// credit the deposits made before the game stopped
+		DepositQueue.flush();
+		if (scoreboard.stop()) {
 			source.sendSuccess(new TranslationTextComponent("command.scoreit.stop.success"), true);
-			saveData(source);
+			saveData(scoreboard);
 		}
 		else {
-			source.sendSuccess(new TranslationTextComponent("command.scoreit.stop.failure", Scoreboard.getGameState().toString()), true);
+			source.sendSuccess(new TranslationTextComponent("command.scoreit.stop.failure", scoreboard.getGameState().toString()), true);
 		}
 		return 1;
 	}
 
-	private static int end(CommandSource source) {
-		if (Scoreboard.end()) {
+	private static int end(CommandSource source, Scoreboard scoreboard) {
+		// credit the deposits made before the game ended
+		DepositQueue.flush();
+		if (scoreboard.end()) {
 			try {
-				List<Tuple<Integer, PlayerScore>> scores = getRankedTopScores(Optional.of(Scoreboard.TOP_RANKINGS), Optional.empty());
-				List<ITextComponent> scoreMessages = formatScores(scores, Optional.empty());
+				List<ITextComponent> scoreMessages = renderTopScoresFor(scoreboard, Optional.empty());
 				broadcastScores(source, scoreMessages, Optional.empty());
 				source.sendSuccess(new TranslationTextComponent("command.scoreit.end.success"), true);
 			}
@@ -140,27 +427,37 @@ public class ScoreItCommand {
 				LOGGER.error("Unable to rank and broadcast scores -> ", e);
 			}
 
-			// dump the score to a file
+			// dump the score to a file. the snapshot is immutable, so the scoreboard can be reset while it is written
+			try {
+				export(source, scoreboard, scoreboard.snapshot(), ExportFormat.TEXT);
+			}
+			catch(Exception e) {
+				LOGGER.error("Unable to export scores -> ", e);
+			}
+
+			// archive the structured scores. the columns are copied before this returns
 			try {
-				dump(getRankedTopScores(Optional.empty(), Optional.empty()));
+				archive(source, scoreboard);
 			}
 			catch(Exception e) {
-				LOGGER.error("Unable to dump() scores -> ", e);
+				LOGGER.error("Unable to archive game -> ", e);
 			}
 			finally {
-				Scoreboard.reset();
-				saveData(source);
+				scoreboard.reset();
+				saveData(scoreboard);
 			}
 		} else {
-			source.sendSuccess(new TranslationTextComponent("command.scoreit.end.failure", Scoreboard.getGameState().toString()), true);
+			source.sendSuccess(new TranslationTextComponent("command.scoreit.end.failure", scoreboard.getGameState().toString()), true);
 		}
 		return 1;
 	}
 
-	private static int reset(CommandSource source) {
-		Scoreboard.reset();
+	private static int reset(CommandSource source, Scoreboard scoreboard) {
+		// so that no deposit made before the reset is credited after it
+		DepositQueue.flush();
+		scoreboard.reset();
 		source.sendSuccess(new TranslationTextComponent("command.scoreit.reset"), true);
-		saveData(source);
+		saveData(scoreboard);
 		return 1;
 	}
 
@@ -169,10 +466,9 @@ public class ScoreItCommand {
 	 * @param source
 	 * @return
 	 */
-	private static int scores(CommandSource source) {
+	private static int scores(CommandSource source, Scoreboard scoreboard) {
 		try {
-			List<Tuple<Integer, PlayerScore>> tuple = getRankedTopScores(Optional.of(Scoreboard.TOP_RANKINGS), Optional.ofNullable(source.getPlayerOrException()));
-			List<ITextComponent> scoreMessages = formatScores(tuple, Optional.ofNullable(source.getPlayerOrException()));
+			List<ITextComponent> scoreMessages = renderTopScoresFor(scoreboard, Optional.of(source.getPlayerOrException().getUUID()));
 			broadcastScores(source, scoreMessages, Optional.ofNullable(source.getPlayerOrException()));
 		}
 		catch(Exception e) {
@@ -182,75 +478,238 @@ public class ScoreItCommand {
 	}
 
 	/**
-	 * 
-	 * @param numRankings
-	 * @param player
+	 * Show a page of PAGE_SIZE scores. The page is read directly from the rank index,
+	 * so any page costs the same as the first.
+	 * @param source
+	 * @param page 1-based, clamped to the last page
 	 * @return
 	 */
-	private static List<Tuple<Integer, PlayerScore>> getRankedTopScores(final Optional<Integer> numRankings,
-			final Optional<ServerPlayerEntity> player) {
+	private static int page(CommandSource source, Scoreboard scoreboard, int page) {
+		long start = System.nanoTime();
+		int size = scoreboard.size();
+		int pages = Math.max(1, (size + PAGE_SIZE - 1) / PAGE_SIZE);
+		// past the last page shows the last page, and keeps the first rank of the page from overflowing
+		page = Math.min(page, pages);
+		List<Tuple<Integer, PlayerScore>> scores = scoreboard.getRankedScores((page - 1) * PAGE_SIZE + 1, PAGE_SIZE);
+		ScoreItMetrics.RANKING_TIME.recordSince(start);
+
+		source.sendSuccess(new TranslationTextComponent("command.scoreit.scores.page", page, pages), false);
+		formatScores(scores, getUuid(source)).forEach(message -> {
+			source.sendSuccess(message, false);
+		});
+		return scores.size();
+	}
 
-		List<Tuple<Integer, PlayerScore>> rankedScores = new ArrayList<>();
+	/**
+	 * Show the scores ranked immediately above and below the player.
+	 * @param source
+	 * @param profile
+	 * @return
+	 */
+	private static int around(CommandSource source, Scoreboard scoreboard, GameProfile profile) {
+		long start = System.nanoTime();
+		List<Tuple<Integer, PlayerScore>> scores = scoreboard.getScoresAround(profile.getId(), AROUND_RADIUS);
+		ScoreItMetrics.RANKING_TIME.recordSince(start);
 
-		List<PlayerScore> scores = Scoreboard.getScores();		
-		if (!scores.isEmpty()) {
-			Collections.sort(scores, Scoreboard.sortByPoints);
-			int maxRanks = numRankings.isPresent() ? Math.min(numRankings.get(), scores.size()) : scores.size(); 
-			boolean playerIsTopRanked = false;
+		if (scores.isEmpty()) {
+			source.sendFailure(new TranslationTextComponent("command.scoreit.rank.none", profile.getName()));
+			return 0;
+		}
+		formatScores(scores, Optional.of(profile.getId())).forEach(message -> {
+			source.sendSuccess(message, false);
+		});
+		return scores.size();
+	}
 
-			if (player.isPresent()) {
-				int currentRank = 1;
-				// process all scores until player is found and number of top scores are met
-				for (PlayerScore score : scores) {
-					LOGGER.info("player score -> {}", score);
-					if (currentRank <= maxRanks) {
-						LOGGER.info("current rank -> {}", currentRank);
-						// add the rank and score to the tuple
-						rankedScores.add(new Tuple<Integer, PlayerScore>(Integer.valueOf(currentRank++), score));
-						// set a flag to indicate the player is part of the top ranked scores
-						if (!playerIsTopRanked && player.isPresent() && score.getUuid().equals(player.get().getStringUUID())) {
-							playerIsTopRanked = true;
-						}
-					}
-					else if (!playerIsTopRanked) {
-						if (score.getUuid().equals(player.get().getStringUUID())) {
-							rankedScores.add(new Tuple<Integer, PlayerScore>(Integer.valueOf(currentRank), score));
-							break;
-						}
-					}
-					else {
-						break;
-					}
+	/**
+	 * Report the rank of each of the players.
+	 * @param source
+	 * @param profiles
+	 * @return
+	 */
+	private static int rank(CommandSource source, Scoreboard scoreboard, Collection<GameProfile> profiles) {
+		int size = scoreboard.size();
+		int found = 0;
+		for (GameProfile profile : profiles) {
+			Optional<Integer> rank = scoreboard.getRank(profile.getId());
+			Optional<PlayerScore> score = scoreboard.getPlayer(profile.getId());
+			if (rank.isPresent() && score.isPresent()) {
+				source.sendSuccess(new TranslationTextComponent("command.scoreit.rank", score.get().getName(), rank.get(), size, String.valueOf(score.get().getPoints())), false);
+				found++;
+			}
+			else {
+				source.sendFailure(new TranslationTextComponent("command.scoreit.rank.none", profile.getName()));
+			}
+		}
+		return found;
+	}
+
+	/**
+	 * Show when the player earned their points, the most recent HISTORY_LINES buckets.
+	 * @param source
+	 * @param scoreboard
+	 * @param profile
+	 * @return
+	 */
+	private static int history(CommandSource source, Scoreboard scoreboard, GameProfile profile) {
+		Optional<ScoreHistory> history = scoreboard.getHistory(profile.getId());
+		if (!history.isPresent() || history.get().size() == 0) {
+			source.sendFailure(new TranslationTextComponent("command.scoreit.history.none", profile.getName()));
+			return 0;
+		}
+		ScoreHistory buckets = history.get();
+		source.sendSuccess(new TranslationTextComponent("command.scoreit.history.header", profile.getName(), buckets.size(), buckets.getWidth()), false);
+		for (int i = Math.max(0, buckets.size() - HISTORY_LINES); i < buckets.size(); i++) {
+			source.sendSuccess(new TranslationTextComponent("command.scoreit.history", String.valueOf(buckets.getTick(i)), String.valueOf(buckets.getPoints(i))), false);
+		}
+		return 1;
+	}
+
+	/**
+	 * Export the player's whole history as csv, to the dumps folder.
+	 * @param source
+	 * @param scoreboard
+	 * @param profile
+	 */
+	private static void exportHistory(CommandSource source, Scoreboard scoreboard, GameProfile profile) {
+		Optional<ScoreHistory> history = scoreboard.getHistory(profile.getId());
+		if (!history.isPresent()) {
+			source.sendFailure(new TranslationTextComponent("command.scoreit.history.none", profile.getName()));
+			return;
+		}
+		ScoreExporter.exportHistory(profile.getName(), history.get(), getDumpsFolder(source, scoreboard)).whenComplete((path, error) -> {
+			source.getServer().execute(() -> {
+				if (error == null) {
+					source.sendSuccess(new TranslationTextComponent("command.scoreit.export.success", path.getFileName().toString()), true);
 				}
+				else {
+					source.sendFailure(new TranslationTextComponent("command.scoreit.export.failure"));
+				}
+			});
+		});
+	}
+
+	/**
+	 * Rank the teams. The totals are maintained by the scoreboard, so this never scans the player scores.
+	 * @param source
+	 * @param scoreboard
+	 * @return
+	 */
+	private static int teamScores(CommandSource source, Scoreboard scoreboard) {
+		long start = System.nanoTime();
+		List<Tuple<Integer, TeamScore>> teams = scoreboard.getTeamScores();
+		ScoreItMetrics.RANKING_TIME.recordSince(start);
+
+		if (teams.isEmpty()) {
+			source.sendSuccess(new TranslationTextComponent("command.scoreit.team.none"), false);
+			return 0;
+		}
+		teams.forEach(team -> {
+			source.sendSuccess(new TranslationTextComponent("command.scoreit.team.score", team.getA(), team.getB().getName(),
+					String.valueOf(team.getB().getPoints()), team.getB().getMembers()), false);
+		});
+		return teams.size();
+	}
+
+	/**
+	 * Move the players to a team, or out of their team.
+	 * @param source
+	 * @param scoreboard
+	 * @param team empty to leave their team
+	 * @param profiles
+	 * @return
+	 */
+	private static int setTeam(CommandSource source, Scoreboard scoreboard, Optional<String> team, Collection<GameProfile> profiles) {
+		int changed = 0;
+		for (GameProfile profile : profiles) {
+			// players can be put on a team before they have scored
+			scoreboard.addPlayer(profile.getId(), profile.getName());
+			if (scoreboard.setTeam(profile.getId(), team.orElse(null))) {
+				changed++;
+			}
+			if (team.isPresent()) {
+				source.sendSuccess(new TranslationTextComponent("command.scoreit.team.join", profile.getName(), team.get()), true);
+			}
+			else {
+				source.sendSuccess(new TranslationTextComponent("command.scoreit.team.leave", profile.getName()), true);
+			}
+		}
+		if (changed > 0) {
+			saveData(scoreboard);
+		}
+		return changed;
+	}
+
+	/**
+	 * 
+	 * @param source
+	 * @return the uuid of the player issuing the command, if it was issued by a player
+	 */
+	private static Optional<UUID> getUuid(CommandSource source) {
+		return source.getEntity() instanceof ServerPlayerEntity ? Optional.of(source.getEntity().getUUID()) : Optional.empty();
+	}
+
+	/**
+	 * Render the top scores, and the player's own score if they are not part of them.
+	 * The top scores are rendered once per scoreboard version and shared,
+	 * so only the player's highlighted line is built per call between changes.
+	 * Package-private for the benchmarks.
+	 * @param scoreboard
+	 * @param highlight the player whose score is emphasized
+	 * @return a new list of the messages
+	 */
+	static List<ITextComponent> renderTopScoresFor(Scoreboard scoreboard, Optional<UUID> highlight) {
+		long start = System.nanoTime();
+		// read the version first, so a change made while rendering leaves the cache stale rather than wrong
+		long version = scoreboard.getVersion();
+		RenderedScores rendered = RENDERED.get(scoreboard);
+		if (rendered == null || rendered.version != version) {
+			rendered = new RenderedScores(version, scoreboard.getTopScores(Scoreboard.TOP_RANKINGS));
+			RENDERED.put(scoreboard, rendered);
+		}
+
+		List<ITextComponent> messages = new ArrayList<>(rendered.messages);
+		if (highlight.isPresent()) {
+			int index = rendered.indexOf(highlight.get());
+			if (index >= 0) {
+				messages.set(index, formatScore(rendered.scores.get(index), true));
 			}
 			else {
-				for (int rank = 0; rank < maxRanks; rank++) {
-					rankedScores.add(new Tuple<Integer, PlayerScore>(Integer.valueOf(rank + 1), scores.get(rank)));
+				// append the player if they are not part of the top ranked scores
+				Optional<Integer> rank = scoreboard.getRank(highlight.get());
+				Optional<PlayerScore> score = scoreboard.getPlayer(highlight.get());
+				if (rank.isPresent() && score.isPresent()) {
+					messages.add(formatScore(new Tuple<Integer, PlayerScore>(rank.get(), score.get()), true));
 				}
 			}
 		}
-		return rankedScores;
+		ScoreItMetrics.RANKING_TIME.recordSince(start);
+		return messages;
 	}
 
 	/**
 	 * 
 	 * @param scores
-	 * @param player
+	 * @param highlight the player whose score is emphasized
 	 * @return
 	 */
-	private static List<ITextComponent> formatScores(List<Tuple<Integer, PlayerScore>> scores, Optional<ServerPlayerEntity> player) {
+	private static List<ITextComponent> formatScores(List<Tuple<Integer, PlayerScore>> scores, Optional<UUID> highlight) {
 
 		List<ITextComponent> formattedScores = new ArrayList<>();
 		scores.forEach(score -> {
-			TranslationTextComponent text = new TranslationTextComponent("command.scoreit.score", score.getA(), score.getB().getName(), String.valueOf(score.getB().getPoints()));
-			if (player.isPresent() && score.getB().getUuid().equals(player.get().getStringUUID())) {
-				text.withStyle(TextFormatting.BOLD, TextFormatting.GOLD);
-			}
-			formattedScores.add(text);
+			formattedScores.add(formatScore(score, highlight.isPresent() && score.getB().getUuid().equals(highlight.get())));
 		});
 		return formattedScores;
 	}
 
+	private static ITextComponent formatScore(Tuple<Integer, PlayerScore> score, boolean highlight) {
+		TranslationTextComponent text = new TranslationTextComponent("command.scoreit.score", score.getA(), score.getB().getName(), String.valueOf(score.getB().getPoints()));
+		if (highlight) {
+			text.withStyle(TextFormatting.BOLD, TextFormatting.GOLD);
+		}
+		return text;
+	}
+
 	/**
 	 * 
 	 * @param source
@@ -262,14 +721,15 @@ public class ScoreItCommand {
 		 *  this condition shouldn't happen unless the Scoring is reset while players are on the server
 		 *  or the Scoring was ended before anyone scored.
 		 *  also note, do not want to broadcast to all players if empty
+		 *  a player's own query is a reply to them only, so it is not echoed to the other ops or the log
 		 */
 		if (messages.isEmpty() && player.isPresent()) {
-			source.sendSuccess(new TranslationTextComponent("command.scoreit.score", "0", source.getTextName(), "0"), true);
+			source.sendSuccess(new TranslationTextComponent("command.scoreit.score", "0", source.getTextName(), "0"), false);
 		}
 
 		messages.forEach(message -> {
 			if (player.isPresent()) {
-				source.sendSuccess(message, true);
+				source.sendSuccess(message, false);
 			}
 			else {
 				source.getServer().getPlayerList().broadcastMessage(message, ChatType.SYSTEM, Util.NIL_UUID);
@@ -281,52 +741,221 @@ public class ScoreItCommand {
 	 * 
 	 * @param source
 	 */
-	private static void saveData(CommandSource source) {
-		// save world data
-		ServerWorld world = source.getLevel();
-		ScoreItSavedData savedData = ScoreItSavedData.get(world);
-		if (savedData != null) {
-			LOGGER.info("saving ScoreIt data after issuing command...");
-			savedData.setDirty();
+	private static void saveData(Scoreboard scoreboard) {
+		LOGGER.info("saving ScoreIt game -> {} after issuing command...", scoreboard.getName());
+		Games.save(scoreboard);
+	}
+
+	private static int listGames(CommandSource source) {
+		source.sendSuccess(new TranslationTextComponent("command.scoreit.games", String.join(", ", Games.getNames())), false);
+		return Games.getNames().size();
+	}
+
+	private static int createGame(CommandSource source, String name) {
+		if (Games.create(name)) {
+			source.sendSuccess(new TranslationTextComponent("command.scoreit.games.create.success", name), true);
+			return 1;
+		}
+		source.sendFailure(new TranslationTextComponent("command.scoreit.games.create.failure", name));
+		return 0;
+	}
+
+	private static int deleteGame(CommandSource source, String name) {
+		// the queued deposits hold the game's scoreboard, credit them before it goes
+		DepositQueue.flush();
+		if (Games.delete(name)) {
+			source.sendSuccess(new TranslationTextComponent("command.scoreit.games.delete.success", name), true);
+			return 1;
 		}
+		source.sendFailure(new TranslationTextComponent("command.scoreit.games.delete.failure", name));
+		return 0;
 	}
 
 	/**
-	 * 
+	 * Credit the deposits made in a dropbox to the game.
+	 * @param source
+	 * @param scoreboard
+	 * @param pos
+	 * @return
 	 */
-	private static void dump(List<Tuple<Integer, PlayerScore>> scores) {
-		SimpleDateFormat formatter = new SimpleDateFormat("yyyymmdd");
+	private static int bind(CommandSource source, Scoreboard scoreboard, BlockPos pos) {
+		TileEntity tileEntity = source.getLevel().getBlockEntity(pos);
+		if (!(tileEntity instanceof DropboxTileEntity)) {
+			source.sendFailure(new TranslationTextComponent("command.scoreit.bind.failure"));
+			return 0;
+		}
+		((DropboxTileEntity) tileEntity).setGame(scoreboard.getName());
+		source.sendSuccess(new TranslationTextComponent("command.scoreit.bind.success", scoreboard.getName()), true);
+		return 1;
+	}
 
-		String filename = String.format("scoreit-scores-%s.txt", formatter.format(new Date()));
+	/**
+	 * Report the engine metrics to the caller.
+	 * @param source
+	 * @return
+	 */
+	private static int stats(CommandSource source) {
+		ScoreItMetrics.summary().forEach(line -> {
+			source.sendSuccess(new TranslationTextComponent("command.scoreit.stats", line), false);
+		});
+		return 1;
+	}
 
-		// TODO this should be in the world save folder
-		Path path = Paths.get("config", ScoreIt.MODID, "dumps").toAbsolutePath();
-		try {
-			Files.createDirectories(path);
-		} catch (IOException e) {
-			ScoreIt.LOGGER.error("Couldn't create directories for dump files:", e);
-			return;
+	private static int resetStats(CommandSource source) {
+		ScoreItMetrics.reset();
+		source.sendSuccess(new TranslationTextComponent("command.scoreit.stats.reset"), true);
+		return 1;
+	}
+
+	/**
+	 * Export a snapshot of the scores in the background, to the dumps folder in the world save folder.
+	 * @param source
+	 * @param format
+	 * @return
+	 */
+	private static int export(CommandSource source, Scoreboard scoreboard, ExportFormat format) {
+		export(source, scoreboard, scoreboard.snapshot(), format);
+		return 1;
+	}
+
+	private static Path getDumpsFolder(CommandSource source, Scoreboard scoreboard) {
+		Path folder = ScoreItSavedData.getSaveFolder(source.getServer()).resolve(ScoreExporter.DUMPS_FOLDER);
+		// the default game's exports stay where they always were
+		if (!Games.DEFAULT_GAME.equals(scoreboard.getName())) {
+			folder = folder.resolve(scoreboard.getName());
 		}
+		return folder;
+	}
+
+	private static void export(CommandSource source, Scoreboard scoreboard, ScoreboardSnapshot snapshot, ExportFormat format) {
+		ScoreExporter.export(snapshot, getDumpsFolder(source, scoreboard), format).whenComplete((path, error) -> {
+			// report back on the server thread
+			source.getServer().execute(() -> {
+				if (error == null) {
+					source.sendSuccess(new TranslationTextComponent("command.scoreit.export.success", path.getFileName().toString()), true);
+				}
+				else {
+					source.sendFailure(new TranslationTextComponent("command.scoreit.export.failure"));
+				}
+			});
+		});
+	}
 
-		// setup a divider line
-		char[] chars = new char[75];
-		Arrays.fill(chars, '*');
-		String div = new String(chars) + "\n";
-		String heading = "**  %1$-67s  **\n";
-		String format3 = "**  %1$-2s) %2$-25s - %3$-30s Points  **\n";
+	private static void archive(CommandSource source, Scoreboard scoreboard) {
+		Archives.archive(source.getServer(), scoreboard).whenComplete((path, error) -> {
+			source.getServer().execute(() -> {
+				if (error == null) {
+					source.sendSuccess(new TranslationTextComponent("command.scoreit.archive.success", scoreboard.getName(), path.getFileName().toString()), true);
+				}
+				else {
+					source.sendFailure(new TranslationTextComponent("command.scoreit.archive.failure"));
+				}
+			});
+		});
+	}
 
-		StringBuilder sb = new StringBuilder();
-		sb.append(div).append(String.format(heading, "SCORES")).append(div);
+	/**
+	 * Rank the players by their total points over the last number of archived games.
+	 * The archives are scanned on the export thread.
+	 * @param source
+	 * @param games
+	 * @return
+	 */
+	private static int archiveTop(CommandSource source, int games) {
+		Path folder = Archives.getFolder(source.getServer());
+		ScoreExporter.submit(() -> {
+			try {
+				List<GameArchive> archives = Archives.list(folder, games);
+				return new Tuple<>(archives.size(), Archives.getTopPlayers(archives, PAGE_SIZE));
+			}
+			catch(IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}).whenComplete((result, error) -> {
+			source.getServer().execute(() -> {
+				if (error != null) {
+					LOGGER.error("Unable to read the game archives -> ", error);
+					source.sendFailure(new TranslationTextComponent("command.scoreit.archive.failure"));
+				}
+				else if (result.getB().isEmpty()) {
+					source.sendSuccess(new TranslationTextComponent("command.scoreit.archive.none"), false);
+				}
+				else {
+					source.sendSuccess(new TranslationTextComponent("command.scoreit.archive.top.header", result.getA()), false);
+					Optional<UUID> uuid = getUuid(source);
+					int rank = 1;
+					for (Archives.PlayerTotal total : result.getB()) {
+						TranslationTextComponent text = new TranslationTextComponent("command.scoreit.archive.top", rank++, total.getName(),
+								String.valueOf(total.getPoints()), total.getGames());
+						if (uuid.isPresent() && uuid.get().equals(total.getUuid())) {
+							text.withStyle(TextFormatting.BOLD, TextFormatting.GOLD);
+						}
+						source.sendSuccess(text, false);
+					}
+				}
+			});
+		});
+		return 1;
+	}
 
-		scores.forEach(tuple -> {
-			sb.append(String.format(format3, tuple.getA(), tuple.getB().getName(), tuple.getB().getPoints()));
+	/**
+	 * Show the player's result in each of the archived games they played.
+	 * @param source
+	 * @param profile
+	 * @return
+	 */
+	private static int archiveHistory(CommandSource source, GameProfile profile) {
+		Path folder = Archives.getFolder(source.getServer());
+		ScoreExporter.submit(() -> {
+			try {
+				return Archives.getHistory(Archives.list(folder, Archives.DEFAULT_GAMES), profile.getId());
+			}
+			catch(IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}).whenComplete((history, error) -> {
+			source.getServer().execute(() -> {
+				if (error != null) {
+					LOGGER.error("Unable to read the game archives -> ", error);
+					source.sendFailure(new TranslationTextComponent("command.scoreit.archive.failure"));
+				}
+				else if (history.isEmpty()) {
+					source.sendSuccess(new TranslationTextComponent("command.scoreit.archive.history.none", profile.getName()), false);
+				}
+				else {
+					SimpleDateFormat format = new SimpleDateFormat(HISTORY_DATE_PATTERN);
+					history.forEach(result -> {
+						source.sendSuccess(new TranslationTextComponent("command.scoreit.archive.history", format.format(new Date(result.getEndedAt())),
+								result.getGame(), profile.getName(), result.getRank(), result.getPlayers(), String.valueOf(result.getPoints())), false);
+					});
+				}
+			});
 		});
+		return 1;
+	}
 
-		try {
-			Files.write(Paths.get(path.toString(), filename), sb.toString().getBytes());
-		} catch (IOException e) {
-			ScoreIt.LOGGER.error("Error writing ScoreItTemplateManager to dump file", e);
+	/*
+	 * The top scores of one version of a scoreboard and their unhighlighted messages.
+	 * The messages are shared between callers, so they must never be modified.
+	 */
+	private static final class RenderedScores {
+		final long version;
+		final List<Tuple<Integer, PlayerScore>> scores;
+		final List<ITextComponent> messages;
+
+		RenderedScores(long version, List<Tuple<Integer, PlayerScore>> scores) {
+			this.version = version;
+			this.scores = scores;
+			this.messages = formatScores(scores, Optional.empty());
 		}
-	}
 
+		int indexOf(UUID uuid) {
+			for (int i = 0; i < scores.size(); i++) {
+				if (scores.get(i).getB().getUuid().equals(uuid)) {
+					return i;
+				}
+			}
+			return -1;
+		}
+	}
 }
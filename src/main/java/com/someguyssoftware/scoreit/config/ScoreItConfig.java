@@ -0,0 +1,143 @@
+/*
+ * This file is part of  Score It.
+ * Copyright (c) 2021, Mark Gottschling (gottsch)
+ *
+ * All rights reserved.
+ *
+ * Score It is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Score It is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Protect It.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+package com.someguyssoftware.scoreit.config;
+
+import org.apache.commons.lang3.tuple.Pair;
+
+import net.minecraftforge.common.ForgeConfigSpec;
+
+/**
+ * Server side configuration, stored per world in serverconfig/scoreit-server.toml,
+ * and client side configuration, stored in config/scoreit-client.toml.
+ * 
+ * @author Mark Gottschling on Oct 17, 2026
+ *
+ */
+public class ScoreItConfig {
+	public static final ForgeConfigSpec SERVER_SPEC;
+	public static final Server SERVER;
+	public static final ForgeConfigSpec CLIENT_SPEC;
+	public static final Client CLIENT;
+
+	static {
+		final Pair<Server, ForgeConfigSpec> specPair = new ForgeConfigSpec.Builder().configure(Server::new);
+		SERVER_SPEC = specPair.getRight();
+		SERVER = specPair.getLeft();
+
+		final Pair<Client, ForgeConfigSpec> clientSpecPair = new ForgeConfigSpec.Builder().configure(Client::new);
+		CLIENT_SPEC = clientSpecPair.getRight();
+		CLIENT = clientSpecPair.getLeft();
+	}
+
+	/**
+	 * 
+	 */
+	public static class Server {
+		public final ForgeConfigSpec.IntValue metricsLogInterval;
+		public final ForgeConfigSpec.IntValue dropboxDrainInterval;
+		public final ForgeConfigSpec.IntValue depositBudget;
+		public final ForgeConfigSpec.IntValue depositTimeBudget;
+		public final ForgeConfigSpec.IntValue depositMaxLag;
+		public final ForgeConfigSpec.BooleanValue sidebarEnabled;
+		public final ForgeConfigSpec.IntValue sidebarSize;
+		public final ForgeConfigSpec.IntValue sidebarUpdateInterval;
+		public final ForgeConfigSpec.IntValue hudSize;
+		public final ForgeConfigSpec.IntValue hudUpdateInterval;
+		public final ForgeConfigSpec.BooleanValue useVanillaTeams;
+		public final ForgeConfigSpec.IntValue historySamples;
+
+		Server(ForgeConfigSpec.Builder builder) {
+			builder.comment("Metrics and instrumentation").push("metrics");
+			metricsLogInterval = builder
+					.comment("The number of minutes between metrics summaries written to the log. 0 disables the summary.")
+					.defineInRange("metricsLogInterval", 0, 0, 1440);
+			builder.pop();
+
+			builder.comment("Dropbox automation").push("dropbox");
+			dropboxDrainInterval = builder
+					.comment("The number of ticks between scoring the items that hoppers have fed into a dropbox.")
+					.defineInRange("dropboxDrainInterval", 20, 1, 1200);
+			builder.pop();
+
+			builder.comment("Deposit crediting").push("deposits");
+			depositBudget = builder
+					.comment("The maximum number of player deposits credited per tick. Items are taken immediately, and the rest are credited on later ticks.")
+					.defineInRange("depositBudget", 32, 1, 10000);
+			depositTimeBudget = builder
+					.comment("The maximum number of microseconds spent crediting player deposits per tick.")
+					.defineInRange("depositTimeBudget", 1000, 50, 50000);
+			depositMaxLag = builder
+					.comment("The number of ticks after which a deposit is credited regardless of the budgets.")
+					.defineInRange("depositMaxLag", 10, 0, 200);
+			builder.pop();
+
+			builder.comment("Sidebar scoreboard").push("sidebar");
+			sidebarEnabled = builder
+					.comment("Show the top scores in the vanilla scoreboard sidebar.")
+					.define("sidebarEnabled", true);
+			sidebarSize = builder
+					.comment("The number of top scores shown in the sidebar.")
+					.defineInRange("sidebarSize", 10, 1, 15);
+			sidebarUpdateInterval = builder
+					.comment("The number of ticks between sidebar updates. Changes made in between are sent together.")
+					.defineInRange("sidebarUpdateInterval", 20, 1, 1200);
+			builder.pop();
+
+			builder.comment("Client leaderboard HUD").push("hud");
+			hudSize = builder
+					.comment("The number of top scores sent to the client leaderboard HUD. 0 disables the HUD updates.")
+					.defineInRange("hudSize", 10, 0, 20);
+			hudUpdateInterval = builder
+					.comment("The number of ticks between leaderboard HUD updates. Changes made in between are sent together.")
+					.defineInRange("hudUpdateInterval", 10, 1, 1200);
+			builder.pop();
+
+			builder.comment("Team scoring").push("teams");
+			useVanillaTeams = builder
+					.comment("Score players for their vanilla team. A player's team is updated when they log in and when they deposit,",
+							"and replaces any team set with /scoreit team join.")
+					.define("useVanillaTeams", false);
+			builder.pop();
+
+			builder.comment("Score history").push("history");
+			historySamples = builder
+					.comment("The number of time buckets of points kept per player. As a player's history fills, the buckets are merged",
+							"into coarser ones, so memory per player stays fixed. 0 disables the history, which is the default, as each",
+							"bucket costs 12 bytes per player. Takes effect on the next server start.")
+					.defineInRange("historySamples", 0, 0, 4096);
+			builder.pop();
+		}
+	}
+
+	/**
+	 * 
+	 */
+	public static class Client {
+		public final ForgeConfigSpec.BooleanValue hudEnabled;
+
+		Client(ForgeConfigSpec.Builder builder) {
+			builder.comment("Client leaderboard HUD").push("hud");
+			hudEnabled = builder
+					.comment("Show the leaderboard HUD.")
+					.define("hudEnabled", true);
+			builder.pop();
+		}
+	}
+}
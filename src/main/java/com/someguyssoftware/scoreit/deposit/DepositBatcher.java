@@ -0,0 +1,121 @@
+/*
+ * This file is part of  Score It.
+ * Copyright (c) 2021, Mark Gottschling (gottsch)
+ *
+ * All rights reserved.
+ *
+ * Score It is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Score It is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Protect It.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+package com.someguyssoftware.scoreit.deposit;
+
+import java.util.UUID;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.someguyssoftware.scoreit.ScoreIt;
+import com.someguyssoftware.scoreit.metrics.ScoreItMetrics;
+import com.someguyssoftware.scoreit.scoreboard.Scoreboard;
+import com.someguyssoftware.scoreit.scoreboard.UuidMap;
+
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import net.minecraft.item.Item;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+/**
+ * Coalesces automated deposits per game and owner. Any number of dropboxes can add to an owner's pending batch
+ * during a tick, and each owner's batch is credited with a single scoreboard update at the end of the tick.
+ * Only used on the server thread.
+ * 
+ * @author Mark Gottschling on Oct 17, 2026
+ *
+ */
+@Mod.EventBusSubscriber(modid = ScoreIt.MODID, bus = Mod.EventBusSubscriber.Bus.FORGE)
+public class DepositBatcher {
+	public static Logger LOGGER = LogManager.getLogger(ScoreIt.NAME);
+
+	// pending batches by game, then by owner
+	private static final Reference2ObjectOpenHashMap<Scoreboard, UuidMap<Batch>> PENDING = new Reference2ObjectOpenHashMap<>();
+
+	/*
+	 * The points and item counts pending for one owner.
+	 */
+	private static class Batch {
+		final UUID owner;
+		final String name;
+		int points;
+		int stacks;
+		final Reference2IntOpenHashMap<Item> itemCounts = new Reference2IntOpenHashMap<>();
+
+		Batch(UUID owner, String name) {
+			this.owner = owner;
+			this.name = name;
+		}
+	}
+
+	private DepositBatcher() { }
+
+	/**
+	 * 
+	 * @param scoreboard the game to credit
+	 * @param owner
+	 * @param name the owner's name, used if they are not yet on the scoreboard
+	 * @param item
+	 * @param count
+	 * @param points the total points of the items
+	 */
+	public static void add(Scoreboard scoreboard, UUID owner, String name, Item item, int count, int points) {
+		UuidMap<Batch> batches = PENDING.get(scoreboard);
+		if (batches == null) {
+			batches = new UuidMap<>();
+			PENDING.put(scoreboard, batches);
+		}
+		Batch batch = batches.get(owner);
+		if (batch == null) {
+			batch = new Batch(owner, name);
+			batches.put(owner, batch);
+		}
+		// clamped, like a single deposit's points
+		batch.points = (int) Math.min((long) batch.points + points, Integer.MAX_VALUE);
+		batch.stacks++;
+		batch.itemCounts.addTo(item, count);
+	}
+
+	@SubscribeEvent
+	public static void onServerTick(TickEvent.ServerTickEvent event) {
+		if (event.phase == TickEvent.Phase.END && !PENDING.isEmpty()) {
+			flush();
+		}
+	}
+
+	/**
+	 * Credit every pending batch, one scoreboard update per owner.
+	 */
+	public static void flush() {
+		PENDING.forEach((scoreboard, batches) -> {
+			batches.forEachValue(batch -> {
+				if (!scoreboard.hasPlayer(batch.owner)) {
+					scoreboard.addPlayer(batch.owner, batch.name);
+				}
+				scoreboard.addPoints(batch.owner, batch.points, batch.itemCounts);
+				ScoreItMetrics.DEPOSITS_HANDLED.add(batch.stacks);
+				LOGGER.debug("credited automated deposit of # of stacks -> {} to -> {} in game -> {}", batch.stacks, batch.name, scoreboard.getName());
+			});
+		});
+		PENDING.clear();
+	}
+}
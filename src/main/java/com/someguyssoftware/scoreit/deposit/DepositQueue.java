@@ -0,0 +1,236 @@
+/*
+ * This file is part of  Score It.
+ * Copyright (c) 2021, Mark Gottschling (gottsch)
+ *
+ * All rights reserved.
+ *
+ * Score It is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Score It is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Protect It.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+package com.someguyssoftware.scoreit.deposit;
+
+import java.util.ArrayDeque;
+import java.util.UUID;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.someguyssoftware.scoreit.ScoreIt;
+import com.someguyssoftware.scoreit.config.ScoreItConfig;
+import com.someguyssoftware.scoreit.metrics.ScoreItMetrics;
+import com.someguyssoftware.scoreit.scoreboard.Scoreboard;
+import com.someguyssoftware.scoreit.sound.ScoreItSounds;
+
+import it.unimi.dsi.fastutil.objects.Reference2IntMap;
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.scoreboard.Team;
+import net.minecraft.util.SoundCategory;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.event.server.FMLServerStoppingEvent;
+
+/**
+ * Credits player deposits at the end of the tick within a per-tick budget.
+ * The dropbox takes the items as soon as they are deposited, and the scoring, sound and dirty marking are queued here,
+ * so a rush of deposits is spread over several ticks instead of all landing in one.
+ * Deposits are credited first in, first out, so each player's deposits are credited in order,
+ * and any deposit that has waited depositMaxLag ticks is credited regardless of the budget.
+ * The queue must be flushed before a game changes state (end, stop, reset) or is deleted, so that every deposit is
+ * credited to the game as it was when the items were taken.
+ * Only used on the server thread.
+ * 
+ * @author Mark Gottschling on Oct 17, 2026
+ *
+ */
+@Mod.EventBusSubscriber(modid = ScoreIt.MODID, bus = Mod.EventBusSubscriber.Bus.FORGE)
+public class DepositQueue {
+	public static Logger LOGGER = LogManager.getLogger(ScoreIt.NAME);
+
+	private static final ArrayDeque<Deposit> QUEUE = new ArrayDeque<>();
+	// server ticks counted by this queue, for the lag bound
+	private static long tick;
+
+	/*
+	 * An accepted deposit: everything needed to credit it, resolved when the items were taken.
+	 */
+	static class Deposit {
+		final Scoreboard scoreboard;
+		final UUID uuid;
+		final String name;
+		final boolean syncTeam;
+		final String team;
+		final int points;
+		// a single stack, or the item counts of a bulk deposit
+		final ItemStack stack;
+		final Reference2IntMap<Item> itemCounts;
+		final int stacks;
+		// plays the deposit sound at the dropbox
+		final Runnable sound;
+		final long acceptedTick;
+		final long acceptedNanos;
+
+		Deposit(Scoreboard scoreboard, UUID uuid, String name, boolean syncTeam, String team, int points, ItemStack stack,
+				Reference2IntMap<Item> itemCounts, int stacks, Runnable sound) {
+			this.scoreboard = scoreboard;
+			this.uuid = uuid;
+			this.name = name;
+			this.syncTeam = syncTeam;
+			this.team = team;
+			this.points = points;
+			this.stack = stack;
+			this.itemCounts = itemCounts;
+			this.stacks = stacks;
+			this.sound = sound;
+			this.acceptedTick = tick;
+			this.acceptedNanos = System.nanoTime();
+		}
+	}
+
+	private DepositQueue() { }
+
+	/**
+	 * Queue a single stack deposit.
+	 * @param scoreboard the game to credit
+	 * @param player
+	 * @param points the total points of the stack, with the multipliers applied
+	 * @param stack a copy of the deposited stack, the player's stack is emptied by the caller
+	 * @param world
+	 * @param pos the dropbox, where the deposit sound is played
+	 */
+	public static void add(Scoreboard scoreboard, PlayerEntity player, int points, ItemStack stack, World world, BlockPos pos) {
+		add(scoreboard, player, points, stack, null, 1, world, pos);
+	}
+
+	/**
+	 * Queue a bulk deposit.
+	 * @param scoreboard the game to credit
+	 * @param player
+	 * @param points the total points of the items, with the multipliers applied
+	 * @param itemCounts the number of each item deposited
+	 * @param stacks the number of stacks deposited
+	 * @param world
+	 * @param pos the dropbox, where the deposit sound is played
+	 */
+	public static void add(Scoreboard scoreboard, PlayerEntity player, int points, Reference2IntMap<Item> itemCounts, int stacks, World world, BlockPos pos) {
+		add(scoreboard, player, points, ItemStack.EMPTY, itemCounts, stacks, world, pos);
+	}
+
+	private static void add(Scoreboard scoreboard, PlayerEntity player, int points, ItemStack stack, Reference2IntMap<Item> itemCounts, int stacks, World world, BlockPos pos) {
+		// the team is the one the player is on when they deposit, not when the deposit is credited
+		boolean syncTeam = ScoreItConfig.SERVER.useVanillaTeams.get();
+		Team team = syncTeam ? player.getTeam() : null;
+		add(new Deposit(scoreboard, player.getUUID(), player.getName().getString(), syncTeam, team == null ? null : team.getName(),
+				points, stack, itemCounts, stacks,
+				() -> world.playSound(null, pos, ScoreItSounds.DEPOSIT_ITEM, SoundCategory.BLOCKS, 1F, world.getRandom().nextFloat() * 0.1F + 0.9F)));
+	}
+
+	/**
+	 * Queue a deposit whose player details are already resolved.
+	 * @param deposit
+	 */
+	static void add(Deposit deposit) {
+		QUEUE.add(deposit);
+	}
+
+	public static int size() {
+		return QUEUE.size();
+	}
+
+	@SubscribeEvent
+	public static void onServerTick(TickEvent.ServerTickEvent event) {
+		if (event.phase != TickEvent.Phase.END) {
+			return;
+		}
+		tick(ScoreItConfig.SERVER.depositBudget.get(), ScoreItConfig.SERVER.depositTimeBudget.get() * 1000L, ScoreItConfig.SERVER.depositMaxLag.get());
+	}
+
+	/**
+	 * Count a server tick and credit the queued deposits within the budgets.
+	 * @param budget the maximum number of deposits to credit
+	 * @param budgetNanos the time to spend crediting
+	 * @param maxLag the number of ticks after which a deposit is credited regardless of the budgets
+	 * @return the number of deposits credited
+	 */
+	static int tick(int budget, long budgetNanos, int maxLag) {
+		tick++;
+		return QUEUE.isEmpty() ? 0 : drain(budget, budgetNanos, maxLag);
+	}
+
+	@SubscribeEvent
+	public static void onServerStopping(FMLServerStoppingEvent event) {
+		// before the final save
+		flush();
+	}
+
+	/**
+	 * Credit every queued deposit now, ie before a game ends, stops, is reset or is deleted.
+	 */
+	public static void flush() {
+		Deposit deposit;
+		while ((deposit = QUEUE.poll()) != null) {
+			credit(deposit);
+		}
+	}
+
+	/*
+	 * Credit deposits until either budget is used up, but always credit the ones that have waited maxLag ticks.
+	 * The time budget is checked after each deposit, so at least one is credited per tick.
+	 */
+	private static int drain(int budget, long budgetNanos, int maxLag) {
+		long start = System.nanoTime();
+		int credited = 0;
+		Deposit deposit;
+		while ((deposit = QUEUE.peek()) != null) {
+			boolean overdue = tick - deposit.acceptedTick >= maxLag;
+			if (!overdue && (credited >= budget || System.nanoTime() - start >= budgetNanos)) {
+				break;
+			}
+			QUEUE.poll();
+			credit(deposit);
+			credited++;
+		}
+		if (!QUEUE.isEmpty()) {
+			LOGGER.debug("credited # of deposits -> {}, still queued -> {}", credited, QUEUE.size());
+		}
+		return credited;
+	}
+
+	private static void credit(Deposit deposit) {
+		Scoreboard scoreboard = deposit.scoreboard;
+		try {
+			if (!scoreboard.hasPlayer(deposit.uuid)) {
+				scoreboard.addPlayer(deposit.uuid, deposit.name);
+			}
+			if (deposit.syncTeam) {
+				scoreboard.setTeam(deposit.uuid, deposit.team);
+			}
+			if (deposit.itemCounts == null) {
+				scoreboard.addPoints(deposit.uuid, deposit.points, deposit.stack);
+			}
+			else {
+				scoreboard.addPoints(deposit.uuid, deposit.points, deposit.itemCounts);
+			}
+			deposit.sound.run();
+			ScoreItMetrics.DEPOSITS_HANDLED.add(deposit.stacks);
+			ScoreItMetrics.DEPOSIT_WAIT.recordSince(deposit.acceptedNanos);
+		}
+		catch(Exception e) {
+			LOGGER.warn("unable to credit deposit of # of points -> {} to player -> {} in game -> {}", deposit.points, deposit.name, scoreboard.getName(), e);
+		}
+	}
+}
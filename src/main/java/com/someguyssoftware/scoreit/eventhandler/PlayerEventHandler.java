@@ -1,10 +1,6 @@
 package com.someguyssoftware.scoreit.eventhandler;
 
-import java.util.List;
 import java.util.Optional;
-import java.util.Random;
-import java.util.Set;
-import java.util.stream.Collectors;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -12,18 +8,28 @@ import org.apache.logging.log4j.Logger;
 import com.someguyssoftware.gottschcore.world.WorldInfo;
 import com.someguyssoftware.scoreit.ScoreIt;
 import com.someguyssoftware.scoreit.block.ScoreItBlocks;
-import com.someguyssoftware.scoreit.persistence.ScoreItSavedData;
+import com.someguyssoftware.scoreit.config.ScoreItConfig;
+import com.someguyssoftware.scoreit.deposit.DepositQueue;
+import com.someguyssoftware.scoreit.item.PointValueRegistry;
+import com.someguyssoftware.scoreit.metrics.ScoreItMetrics;
+import com.someguyssoftware.scoreit.scoreboard.Games;
 import com.someguyssoftware.scoreit.scoreboard.PlayerScore;
 import com.someguyssoftware.scoreit.scoreboard.Scoreboard;
 import com.someguyssoftware.scoreit.scoreboard.Scoreboard.GameState;
-import com.someguyssoftware.scoreit.sound.ScoreItSounds;
+import com.someguyssoftware.scoreit.tileentity.DropboxTileEntity;
 
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
 import net.minecraft.block.Block;
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
 import net.minecraft.item.Items;
+import net.minecraft.scoreboard.Team;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.ActionResultType;
 import net.minecraft.util.Hand;
-import net.minecraft.util.ResourceLocation;
-import net.minecraft.util.SoundCategory;
+import net.minecraft.util.NonNullList;
 import net.minecraft.util.text.TextFormatting;
 import net.minecraft.util.text.TranslationTextComponent;
 import net.minecraftforge.event.entity.player.PlayerEvent;
@@ -47,11 +53,13 @@ public class PlayerEventHandler {
 			return;
 		}
 		
-		// add player to scoreboard registry
-		Optional<PlayerScore> score = Scoreboard.getPlayer(event.getPlayer().getStringUUID());
+		// add player to the default game's registry
+		Scoreboard scoreboard = Games.getDefault();
+		Optional<PlayerScore> score = scoreboard.getPlayer(event.getPlayer().getUUID());
 		if (!score.isPresent()) {
-			Scoreboard.addPlayer(event.getPlayer().getStringUUID(), event.getPlayer().getName().getString());
+			scoreboard.addPlayer(event.getPlayer().getUUID(), event.getPlayer().getName().getString());
 		}
+		syncTeam(scoreboard, event.getPlayer());
 	}
 	
 	@SubscribeEvent
@@ -64,7 +72,12 @@ public class PlayerEventHandler {
 		 * why is this event being called for both hands, when only one is interacting?
 		 */
 		ScoreIt.LOGGER.debug("using hand -> {}", event.getHand());
-		if (event.getItemStack() == ItemStack.EMPTY || event.getItemStack().getItem() == Items.AIR || event.getHand() != Hand.MAIN_HAND) {
+		if (event.getHand() != Hand.MAIN_HAND) {
+			return;
+		}
+		// sneak + right-click deposits every eligible stack in the inventory, not just the held stack
+		boolean bulk = event.getPlayer().isShiftKeyDown() && hasEligibleStack(event.getPlayer());
+		if (!bulk && (event.getItemStack() == ItemStack.EMPTY || event.getItemStack().getItem() == Items.AIR)) {
 			return;
 		}
 		
@@ -73,67 +86,136 @@ public class PlayerEventHandler {
 		ItemStack stack = event.getItemStack();
 		// test against the dropbox
 		if (ScoreItBlocks.DROPBOX == block) {
+			long start = System.nanoTime();
+			// deposits are credited to the dropbox's game
+			String game = getGame(event);
+			if (!Games.exists(game)) {
+				ScoreItMetrics.DEPOSITS_REJECTED.increment();
+				event.getPlayer().sendMessage((new TranslationTextComponent("message.scoreit.game_not_found", game)).withStyle(new TextFormatting[]{TextFormatting.GRAY, TextFormatting.ITALIC}),event.getPlayer().getUUID());
+				return;
+			}
+			// never read a game from disk on the tick. a game that isn't loaded isn't running either
+			Optional<Scoreboard> found = Games.getOrLoadLater(game);
+			if (!found.isPresent()) {
+				ScoreItMetrics.DEPOSITS_REJECTED.increment();
+				event.getPlayer().sendMessage((new TranslationTextComponent("message.scoreit.game_loading", game)).withStyle(new TextFormatting[]{TextFormatting.GRAY, TextFormatting.ITALIC}),event.getPlayer().getUUID());
+				return;
+			}
+			Scoreboard scoreboard = found.get();
 			// perform checks on the scoreboard game state
-			if (Scoreboard.getGameState() == GameState.STOPPED) {
-            			event.getPlayer().sendMessage((new TranslationTextComponent("message.scoreit.game_paused", Scoreboard.getGameState().toString())).withStyle(new TextFormatting[]{TextFormatting.GRAY, TextFormatting.ITALIC}),event.getPlayer().getUUID());
+			if (scoreboard.getGameState() == GameState.STOPPED) {
+				ScoreItMetrics.DEPOSITS_REJECTED.increment();
+            			event.getPlayer().sendMessage((new TranslationTextComponent("message.scoreit.game_paused", scoreboard.getGameState().toString())).withStyle(new TextFormatting[]{TextFormatting.GRAY, TextFormatting.ITALIC}),event.getPlayer().getUUID());
             			return;
 			}
-			else if (Scoreboard.getGameState() != GameState.STARTED) {
-            			event.getPlayer().sendMessage((new TranslationTextComponent("message.scoreit.game_not_started", Scoreboard.getGameState().toString())).withStyle(new TextFormatting[]{TextFormatting.GRAY, TextFormatting.ITALIC}),event.getPlayer().getUUID());
+			else if (scoreboard.getGameState() != GameState.STARTED) {
+				ScoreItMetrics.DEPOSITS_REJECTED.increment();
+            			event.getPlayer().sendMessage((new TranslationTextComponent("message.scoreit.game_not_started", scoreboard.getGameState().toString())).withStyle(new TextFormatting[]{TextFormatting.GRAY, TextFormatting.ITALIC}),event.getPlayer().getUUID());
             			return;
 			}
 			
-			LOGGER.debug("using {} on a dropbox", stack.getDisplayName().getString());
-			// get all the tags for the itemstack that have the ScoreIt namespace
-			Set<String> tags = stack.getItem()
-					.getTags().stream()
-					.filter(tag -> tag.getNamespace().equals(ScoreIt.MODID))
-					.map(ResourceLocation::getPath)
-					.collect(Collectors.toSet());
-
-			LOGGER.debug("belongs to # of tags -> {}", tags.size());
-			// TODO future check for registered tags
-
-			// default get "*_point" tags (should only belong to one ex. 1_point)
-			List<String> pointTags = tags.stream()
-					.filter(tag -> tag.endsWith("_point"))
-					.collect(Collectors.toList());
-			LOGGER.debug("belongs to # of point tags -> {}", pointTags.size());
+			if (bulk) {
+				// don't let the sneak-click fall through to placing the held item
+				event.setCanceled(true);
+				event.setCancellationResult(ActionResultType.SUCCESS);
+				depositInventory(event, scoreboard, start);
+				return;
+			}
 			
-			// get the first item
-			if (pointTags.size() > 0) {
-				String tag = pointTags.get(0);
-				// extract the prefix ie before "_"
-				String pointPrefix = tag.replaceAll("_point", "").trim();
-				LOGGER.debug("point prefix -> {}", pointPrefix);
-				try {
-					// convert prefix into Integer
-					int pointsValue = Integer.valueOf(pointPrefix) * stack.getCount();
+			if (LOGGER.isDebugEnabled()) {
+				LOGGER.debug("using {} on a dropbox", stack.getDisplayName().getString());
+			}
+			// get the point value of the item from the compiled point rules
+			int pointValue = PointValueRegistry.getPoints(stack);
+			if (pointValue > 0) {
+				int pointsValue = PointValueRegistry.applyMultipliers(scoreboard.getName(), (long) pointValue * stack.getCount());
+				// take the stack now, it is credited by the deposit queue at the end of the tick
+				DepositQueue.add(scoreboard, event.getPlayer(), pointsValue, stack.copy(), event.getWorld(), event.getPos());
+				stack.shrink(stack.getCount());
+				ScoreItMetrics.DEPOSIT_TIME.recordSince(start);
+			}
+			else {
+				ScoreItMetrics.DEPOSITS_REJECTED.increment();
+			}
+		}
+	}
+	
+	/**
+	 * Take every eligible stack in the player's main inventory and queue them as one batch:
+	 * one scoreboard update, one sound and one dirty mark, regardless of the number of stacks.
+	 * @param event
+	 * @param scoreboard
+	 * @param start
+	 */
+	private static void depositInventory(PlayerInteractEvent.RightClickBlock event, Scoreboard scoreboard, long start) {
+		PlayerEntity player = event.getPlayer();
+		NonNullList<ItemStack> items = player.inventory.items;
+		Reference2IntOpenHashMap<Item> itemCounts = new Reference2IntOpenHashMap<>();
+		// the eligible slots, so the point rules are only applied once per stack
+		IntArrayList slots = new IntArrayList();
+		// a full inventory of high value stacks can exceed an int
+		long points = 0;
+		for (int slot = 0; slot < items.size(); slot++) {
+			ItemStack stack = items.get(slot);
+			if (stack.isEmpty()) {
+				continue;
+			}
+			int pointValue = PointValueRegistry.getPoints(stack);
+			if (pointValue > 0) {
+				points += (long) pointValue * stack.getCount();
+				itemCounts.addTo(stack.getItem(), stack.getCount());
+				slots.add(slot);
+			}
+		}
+		if (slots.isEmpty()) {
+			// nothing was deposited, so nothing was rejected either
+			return;
+		}
 
-					// add points to players score
-					Optional<PlayerScore> score = Scoreboard.getPlayer(event.getPlayer().getStringUUID());
-					if (!score.isPresent()) {
-						Scoreboard.addPlayer(event.getPlayer().getStringUUID(), event.getPlayer().getName().getString());
-					}
-					Optional<Integer> playerPoints = Scoreboard.addPoints(event.getPlayer().getStringUUID(), pointsValue, stack);
-					if (playerPoints.isPresent()) {
-						// play sound
-						Random random = new Random();
-						event.getWorld().playSound(null, event.getPos(), ScoreItSounds.DEPOSIT_ITEM, SoundCategory.BLOCKS, 1F, random.nextFloat() * 0.1F + 0.9F);
-						LOGGER.debug("player now has points -> {}", playerPoints.get());
-						// remove stack from hand
-						stack.shrink(stack.getCount());
-					}
-					
-					ScoreItSavedData savedData = ScoreItSavedData.get(event.getPlayer().level);
-					if (savedData != null) {
-						savedData.setDirty();
-					}
-				}
-				catch(Exception e) {
-					ScoreIt.LOGGER.warn("unable to award points for tag -> {} to player -> {}", tag, event.getPlayer().getName().getString());
-				}
+		int pointsValue = PointValueRegistry.applyMultipliers(scoreboard.getName(), points);
+		// take the stacks now, they are credited by the deposit queue at the end of the tick
+		for (int i = 0; i < slots.size(); i++) {
+			items.set(slots.getInt(i), ItemStack.EMPTY);
+		}
+		int stacks = slots.size();
+		DepositQueue.add(scoreboard, player, pointsValue, itemCounts, stacks, event.getWorld(), event.getPos());
+		LOGGER.debug("player deposited # of stacks -> {}", stacks);
+		ScoreItMetrics.DEPOSIT_TIME.recordSince(start);
+	}
+	
+	/**
+	 * 
+	 * @param player
+	 * @return whether any stack in the player's main inventory is worth points
+	 */
+	private static boolean hasEligibleStack(PlayerEntity player) {
+		for (ItemStack stack : player.inventory.items) {
+			if (!stack.isEmpty() && PointValueRegistry.getPoints(stack) > 0) {
+				return true;
 			}
 		}
+		return false;
+	}
+
+	/**
+	 * Score the player for their vanilla team, if configured.
+	 * @param scoreboard
+	 * @param player
+	 */
+	private static void syncTeam(Scoreboard scoreboard, PlayerEntity player) {
+		if (ScoreItConfig.SERVER.useVanillaTeams.get()) {
+			Team team = player.getTeam();
+			scoreboard.setTeam(player.getUUID(), team == null ? null : team.getName());
+		}
+	}
+	
+	/**
+	 * 
+	 * @param event
+	 * @return the name of the game the clicked dropbox is bound to
+	 */
+	private static String getGame(PlayerInteractEvent.RightClickBlock event) {
+		TileEntity tileEntity = event.getWorld().getBlockEntity(event.getPos());
+		return tileEntity instanceof DropboxTileEntity ? ((DropboxTileEntity) tileEntity).getGame() : Games.DEFAULT_GAME;
 	}
 }
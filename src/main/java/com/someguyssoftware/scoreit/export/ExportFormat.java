@@ -0,0 +1,158 @@
+/*
+ * This file is part of  Score It.
+ * Copyright (c) 2021, Mark Gottschling (gottsch)
+ *
+ * All rights reserved.
+ *
+ * Score It is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Score It is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Protect It.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+package com.someguyssoftware.scoreit.export;
+
+import java.io.IOException;
+import java.io.Writer;
+
+import com.someguyssoftware.scoreit.scoreboard.ScoreEntry;
+
+/**
+ * The supported score export formats. Each writes one row at a time directly to the writer,
+ * so memory use is constant regardless of the number of players.
+ *
+ * @author Mark Gottschling on Oct 17, 2026
+ *
+ */
+public enum ExportFormat {
+	/*
+	 * the original fixed-width dump layout
+	 */
+	TEXT("txt") {
+		private static final int WIDTH = 75;
+
+		@Override
+		public void writeHeader(Writer writer) throws IOException {
+			divider(writer);
+			writer.write("**  ");
+			pad(writer, "SCORES", 67);
+			writer.write("  **\n");
+			divider(writer);
+		}
+
+		@Override
+		public void writeRow(Writer writer, ScoreEntry entry) throws IOException {
+			writer.write("**  ");
+			pad(writer, String.valueOf(entry.getRank()), 2);
+			writer.write(") ");
+			pad(writer, String.valueOf(entry.getName()), 25);
+			writer.write(" - ");
+			pad(writer, String.valueOf(entry.getPoints()), 30);
+			writer.write(" Points  **\n");
+		}
+
+		private void divider(Writer writer) throws IOException {
+			for (int i = 0; i < WIDTH; i++) {
+				writer.write('*');
+			}
+			writer.write('\n');
+		}
+	},
+
+	CSV("csv") {
+		@Override
+		public void writeHeader(Writer writer) throws IOException {
+			writer.write("rank,uuid,name,points\n");
+		}
+
+		@Override
+		public void writeRow(Writer writer, ScoreEntry entry) throws IOException {
+			writer.write(String.valueOf(entry.getRank()));
+			writer.write(',');
+			writer.write(entry.getUuid().toString());
+			writer.write(',');
+			String name = String.valueOf(entry.getName());
+			if (name.indexOf(',') >= 0 || name.indexOf('"') >= 0 || name.indexOf('\n') >= 0) {
+				writer.write('"');
+				writer.write(name.replace("\"", "\"\""));
+				writer.write('"');
+			}
+			else {
+				writer.write(name);
+			}
+			writer.write(',');
+			writer.write(String.valueOf(entry.getPoints()));
+			writer.write('\n');
+		}
+	},
+
+	/*
+	 * one JSON object per line
+	 */
+	JSONL("jsonl") {
+		@Override
+		public void writeHeader(Writer writer) throws IOException {
+			// no header
+		}
+
+		@Override
+		public void writeRow(Writer writer, ScoreEntry entry) throws IOException {
+			writer.write("{\"rank\":");
+			writer.write(String.valueOf(entry.getRank()));
+			writer.write(",\"uuid\":\"");
+			writer.write(entry.getUuid().toString());
+			writer.write("\",\"name\":\"");
+			escapeJson(writer, String.valueOf(entry.getName()));
+			writer.write("\",\"points\":");
+			writer.write(String.valueOf(entry.getPoints()));
+			writer.write("}\n");
+		}
+	};
+
+	private final String extension;
+
+	ExportFormat(String extension) {
+		this.extension = extension;
+	}
+
+	public String getExtension() {
+		return extension;
+	}
+
+	public abstract void writeHeader(Writer writer) throws IOException;
+
+	public abstract void writeRow(Writer writer, ScoreEntry entry) throws IOException;
+
+	/**
+	 * Write the value left-justified and padded with spaces to width, same as "%-{width}s".
+	 */
+	static void pad(Writer writer, String value, int width) throws IOException {
+		writer.write(value);
+		for (int i = value.length(); i < width; i++) {
+			writer.write(' ');
+		}
+	}
+
+	static void escapeJson(Writer writer, String value) throws IOException {
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c == '"' || c == '\\') {
+				writer.write('\\');
+				writer.write(c);
+			}
+			else if (c < 0x20) {
+				writer.write(String.format("\\u%04x", (int) c));
+			}
+			else {
+				writer.write(c);
+			}
+		}
+	}
+}
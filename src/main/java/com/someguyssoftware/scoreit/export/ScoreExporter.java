@@ -0,0 +1,175 @@
+/*
+ * This file is part of  Score It.
+ * Copyright (c) 2021, Mark Gottschling (gottsch)
+ *
+ * All rights reserved.
+ *
+ * Score It is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Score It is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Protect It.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+package com.someguyssoftware.scoreit.export;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.someguyssoftware.scoreit.ScoreIt;
+import com.someguyssoftware.scoreit.scoreboard.ScoreEntry;
+import com.someguyssoftware.scoreit.scoreboard.ScoreHistory;
+import com.someguyssoftware.scoreit.scoreboard.ScoreboardSnapshot;
+
+/**
+ * Writes scoreboard snapshots to files on a background thread, so exports never stall the server thread.
+ *
+ * @author Mark Gottschling on Oct 17, 2026
+ *
+ */
+public class ScoreExporter {
+	public static Logger LOGGER = LogManager.getLogger(ScoreIt.NAME);
+
+	public static final String DUMPS_FOLDER = "dumps";
+	private static final String FILENAME_PREFIX = "scoreit-scores-";
+	private static final String HISTORY_PREFIX = "scoreit-history-";
+	private static final String TIMESTAMP_PATTERN = "yyyyMMdd-HHmmss";
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	private static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "ScoreIt-Export");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	/**
+	 *
+	 */
+	private ScoreExporter() { }
+
+	/**
+	 * Export the snapshot in the background.
+	 * @param snapshot
+	 * @param folder
+	 * @param format
+	 * @return the path of the written file
+	 */
+	public static CompletableFuture<Path> export(ScoreboardSnapshot snapshot, Path folder, ExportFormat format) {
+		// the timestamp is taken now, not when the export runs
+		String timestamp = new SimpleDateFormat(TIMESTAMP_PATTERN).format(new Date());
+		return CompletableFuture.supplyAsync(() -> {
+			try {
+				return write(snapshot, folder, FILENAME_PREFIX + timestamp, format);
+			}
+			catch(IOException e) {
+				LOGGER.error("Unable to export scores:", e);
+				throw new RuntimeException(e);
+			}
+		}, EXECUTOR);
+	}
+
+	/**
+	 * Export a player's score history in the background, as csv rows of
+	 * the bucket's first tick, its width in ticks, the points earned in it and the running total, ie for graphing.
+	 * @param name the player name
+	 * @param history a copy of the history
+	 * @param folder
+	 * @return the path of the written file
+	 */
+	public static CompletableFuture<Path> exportHistory(String name, ScoreHistory history, Path folder) {
+		String timestamp = new SimpleDateFormat(TIMESTAMP_PATTERN).format(new Date());
+		return CompletableFuture.supplyAsync(() -> {
+			try {
+				Files.createDirectories(folder);
+				Path path = folder.resolve(HISTORY_PREFIX + name + "-" + timestamp + ".csv");
+				try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+					writer.write("tick,ticks,points,total\n");
+					long total = 0;
+					for (int i = 0; i < history.size(); i++) {
+						total += history.getPoints(i);
+						writer.write(history.getTick(i) + "," + history.getWidth() + "," + history.getPoints(i) + "," + total + "\n");
+					}
+				}
+				LOGGER.info("exported # of history buckets -> {} to -> {}", history.size(), path);
+				return path;
+			}
+			catch(IOException e) {
+				LOGGER.error("Unable to export score history:", e);
+				throw new RuntimeException(e);
+			}
+		}, EXECUTOR);
+	}
+
+	/**
+	 * Run other file work, ie archiving and archive queries, on the export thread.
+	 * @param task
+	 * @return
+	 */
+	public static <T> CompletableFuture<T> submit(Supplier<T> task) {
+		return CompletableFuture.supplyAsync(task, EXECUTOR);
+	}
+
+	/**
+	 * Wait for any queued exports to finish, ie when the server is stopping.
+	 * @param timeoutSeconds
+	 */
+	public static void flush(long timeoutSeconds) {
+		try {
+			CompletableFuture.runAsync(() -> {}, EXECUTOR).get(timeoutSeconds, TimeUnit.SECONDS);
+		}
+		catch(Exception e) {
+			LOGGER.warn("Timed out waiting for score exports to complete");
+		}
+	}
+
+	/**
+	 * Stream the snapshot, a row at a time, into a new file.
+	 */
+	private static Path write(ScoreboardSnapshot snapshot, Path folder, String basename, ExportFormat format) throws IOException {
+		Files.createDirectories(folder);
+		FileChannel channel = null;
+		Path path = null;
+		// never overwrite an earlier export, ie two exports in the same second
+		for (int attempt = 0; channel == null; attempt++) {
+			path = folder.resolve(basename + (attempt == 0 ? "" : "-" + attempt) + "." + format.getExtension());
+			try {
+				channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+			}
+			catch(FileAlreadyExistsException e) {
+				// try the next suffix
+			}
+		}
+
+		try (Writer writer = Channels.newWriter(channel, StandardCharsets.UTF_8.newEncoder(), BUFFER_SIZE)) {
+			format.writeHeader(writer);
+			for (ScoreEntry entry : snapshot.getEntries()) {
+				format.writeRow(writer, entry);
+			}
+		}
+		LOGGER.info("exported # of scores -> {} to -> {}", snapshot.size(), path);
+		return path;
+	}
+}
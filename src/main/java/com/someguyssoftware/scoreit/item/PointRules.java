@@ -0,0 +1,196 @@
+/*
+ * This file is part of  Score It.
+ * Copyright (c) 2021, Mark Gottschling (gottsch)
+ *
+ * All rights reserved.
+ *
+ * Score It is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Score It is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Protect It.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+package com.someguyssoftware.scoreit.item;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import com.someguyssoftware.scoreit.ScoreIt;
+
+import net.minecraft.client.resources.JsonReloadListener;
+import net.minecraft.nbt.CompoundNBT;
+import net.minecraft.nbt.JsonToNBT;
+import net.minecraft.profiler.IProfiler;
+import net.minecraft.resources.IResourceManager;
+import net.minecraft.util.JSONUtils;
+import net.minecraft.util.ResourceLocation;
+import net.minecraft.util.ResourceLocationException;
+import net.minecraftforge.event.AddReloadListenerEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+/**
+ * Loads the point rules from "data/&lt;namespace&gt;/scoreit_rules/*.json" in the datapacks. For example:
+ * <pre>
+ * {
+ *   "values": [
+ *     { "item": "minecraft:diamond", "points": 10 },
+ *     { "tag": "forge:ingots/gold", "points": 3 },
+ *     { "item": "minecraft:player_head", "nbt": "{SkullOwner:{Name:\"gottsch\"}}", "points": 500 }
+ *   ],
+ *   "multipliers": [
+ *     { "game": "finals", "multiplier": 2.0 },
+ *     { "multiplier": 1.5, "from": "2026-10-31T18:00:00Z", "to": "2026-10-31T20:00:00Z" }
+ *   ]
+ * }
+ * </pre>
+ * An item rule overrides the tag rules for that item, even with 0 points, and a matching nbt rule overrides both.
+ * Otherwise the highest value wins. Multipliers without a game apply to every game, multipliers with "from" and "to"
+ * only within that window, and all the multipliers that apply are multiplied together.
+ * The rules are compiled into lookup tables by PointValueRegistry once the tags are loaded.
+ *
+ * @author Mark Gottschling on Oct 17, 2026
+ *
+ */
+@Mod.EventBusSubscriber(modid = ScoreIt.MODID, bus = Mod.EventBusSubscriber.Bus.FORGE)
+public class PointRules extends JsonReloadListener {
+	public static Logger LOGGER = LogManager.getLogger(ScoreIt.NAME);
+
+	private static final String FOLDER = "scoreit_rules";
+	private static final Gson GSON = new GsonBuilder().create();
+
+	public PointRules() {
+		super(GSON, FOLDER);
+	}
+
+	@SubscribeEvent
+	public static void onAddReloadListener(AddReloadListenerEvent event) {
+		event.addListener(new PointRules());
+	}
+
+	@Override
+	protected void apply(Map<ResourceLocation, JsonElement> files, IResourceManager resourceManager, IProfiler profiler) {
+		List<ValueRule> values = new ArrayList<>();
+		List<Multiplier> multipliers = new ArrayList<>();
+		files.forEach((name, json) -> {
+			try {
+				JsonObject object = JSONUtils.convertToJsonObject(json, "point rules");
+				for (JsonElement element : JSONUtils.getAsJsonArray(object, "values", new JsonArray())) {
+					values.add(ValueRule.parse(JSONUtils.convertToJsonObject(element, "value")));
+				}
+				for (JsonElement element : JSONUtils.getAsJsonArray(object, "multipliers", new JsonArray())) {
+					multipliers.add(Multiplier.parse(JSONUtils.convertToJsonObject(element, "multiplier")));
+				}
+			}
+			catch(JsonParseException | ResourceLocationException e) {
+				LOGGER.error("ignoring invalid point rules -> {}: {}", name, e.getMessage());
+			}
+		});
+		LOGGER.info("loaded # of point rules -> {}, # of multipliers -> {}", values.size(), multipliers.size());
+		PointValueRegistry.setRules(Collections.unmodifiableList(values), Collections.unmodifiableList(multipliers));
+	}
+
+	/**
+	 * The points of a single item, matched by item or tag and optionally its nbt.
+	 */
+	public static final class ValueRule {
+		// exactly one of item or tag
+		final ResourceLocation item;
+		final ResourceLocation tag;
+		// partial match, or null
+		final CompoundNBT nbt;
+		final int points;
+
+		private ValueRule(ResourceLocation item, ResourceLocation tag, CompoundNBT nbt, int points) {
+			this.item = item;
+			this.tag = tag;
+			this.nbt = nbt;
+			this.points = points;
+		}
+
+		static ValueRule parse(JsonObject json) {
+			ResourceLocation item = json.has("item") ? new ResourceLocation(JSONUtils.getAsString(json, "item")) : null;
+			ResourceLocation tag = json.has("tag") ? new ResourceLocation(JSONUtils.getAsString(json, "tag")) : null;
+			if ((item == null) == (tag == null)) {
+				throw new JsonParseException("a value needs either an item or a tag");
+			}
+			CompoundNBT nbt = null;
+			if (json.has("nbt")) {
+				if (item == null) {
+					throw new JsonParseException("nbt is only supported for an item");
+				}
+				try {
+					nbt = JsonToNBT.parseTag(JSONUtils.getAsString(json, "nbt"));
+				}
+				catch(CommandSyntaxException e) {
+					throw new JsonParseException("invalid nbt -> " + e.getMessage());
+				}
+			}
+			int points = JSONUtils.getAsInt(json, "points");
+			if (points < 0) {
+				throw new JsonParseException("points must not be negative");
+			}
+			return new ValueRule(item, tag, nbt, points);
+		}
+	}
+
+	/**
+	 * Multiplies the points of a deposit, for a game and/or a time window.
+	 */
+	public static final class Multiplier {
+		// null for every game
+		final String game;
+		// epoch millis, the window is [from, to)
+		final long from;
+		final long to;
+		final double multiplier;
+
+		private Multiplier(String game, long from, long to, double multiplier) {
+			this.game = game;
+			this.from = from;
+			this.to = to;
+			this.multiplier = multiplier;
+		}
+
+		boolean isTimed() {
+			return from != Long.MIN_VALUE || to != Long.MAX_VALUE;
+		}
+
+		static Multiplier parse(JsonObject json) {
+			String game = json.has("game") ? JSONUtils.getAsString(json, "game") : null;
+			double multiplier = JSONUtils.getAsFloat(json, "multiplier");
+			if (multiplier < 0) {
+				throw new JsonParseException("multiplier must not be negative");
+			}
+			try {
+				long from = json.has("from") ? Instant.parse(JSONUtils.getAsString(json, "from")).toEpochMilli() : Long.MIN_VALUE;
+				long to = json.has("to") ? Instant.parse(JSONUtils.getAsString(json, "to")).toEpochMilli() : Long.MAX_VALUE;
+				return new Multiplier(game, from, to, multiplier);
+			}
+			catch(DateTimeParseException e) {
+				throw new JsonParseException("invalid time, expected an ISO-8601 instant ie 2026-10-31T18:00:00Z -> " + e.getParsedString());
+			}
+		}
+	}
+}
@@ -0,0 +1,247 @@
+/*
+ * This file is part of  Score It.
+ * Copyright (c) 2021, Mark Gottschling (gottsch)
+ *
+ * All rights reserved.
+ *
+ * Score It is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Score It is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Protect It.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+package com.someguyssoftware.scoreit.item;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.someguyssoftware.scoreit.ScoreIt;
+import com.someguyssoftware.scoreit.item.PointRules.Multiplier;
+import com.someguyssoftware.scoreit.item.PointRules.ValueRule;
+
+import it.unimi.dsi.fastutil.objects.Object2DoubleOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2IntMap;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.NBTUtil;
+import net.minecraft.tags.ITag;
+import net.minecraft.tags.ITagCollection;
+import net.minecraft.util.ResourceLocation;
+import net.minecraft.util.registry.Registry;
+import net.minecraftforge.event.TagsUpdatedEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+/**
+ * Compiles the point rules (see PointRules) and the legacy "scoreit:&lt;n&gt;_point" item tags into an Item -> points
+ * table once per tag (re)load, so that scoring a deposit is a single identity lookup however many rules there are.
+ * Only the items that have nbt rules check them, highest value first.
+ *
+ * @author Mark Gottschling on Oct 17, 2026
+ *
+ */
+@Mod.EventBusSubscriber(modid = ScoreIt.MODID, bus = Mod.EventBusSubscriber.Bus.FORGE)
+public class PointValueRegistry {
+	public static Logger LOGGER = LogManager.getLogger(ScoreIt.NAME);
+
+	private static final String POINT_SUFFIX = "_point";
+
+	// the rules as last loaded from the datapacks
+	private static volatile List<ValueRule> valueRules = Collections.emptyList();
+	// replaced wholesale on reload, never mutated after publishing
+	private static volatile Table table = new Table(newTable(0), new Reference2ObjectOpenHashMap<>());
+	private static volatile Multipliers multipliers = new Multipliers(Collections.emptyList());
+
+	/**
+	 *
+	 */
+	private PointValueRegistry() { }
+
+	@SubscribeEvent
+	public static void onTagsUpdated(TagsUpdatedEvent event) {
+		rebuild(event.getTagManager().getItems());
+	}
+
+	/**
+	 * Replace the rules, ie on a datapack (re)load. The values are compiled when the tags are updated.
+	 * @param values
+	 * @param multiplierRules
+	 */
+	static void setRules(List<ValueRule> values, List<Multiplier> multiplierRules) {
+		valueRules = values;
+		multipliers = new Multipliers(multiplierRules);
+	}
+
+	/**
+	 * Build a new point value table from the rules and the item tag collection.
+	 * @param tags
+	 */
+	public static void rebuild(ITagCollection<Item> tags) {
+		Reference2IntMap<Item> values = newTable(256);
+		Reference2IntOpenHashMap<Item> itemValues = new Reference2IntOpenHashMap<>();
+		itemValues.defaultReturnValue(-1);
+		Reference2ObjectOpenHashMap<Item, List<ValueRule>> nbtRules = new Reference2ObjectOpenHashMap<>();
+
+		// legacy tags, the value is the tag name
+		for (Map.Entry<ResourceLocation, ITag<Item>> entry : tags.getAllTags().entrySet()) {
+			ResourceLocation name = entry.getKey();
+			if (!name.getNamespace().equals(ScoreIt.MODID) || !name.getPath().endsWith(POINT_SUFFIX)) {
+				continue;
+			}
+			try {
+				putMax(values, entry.getValue(), Integer.parseInt(name.getPath().substring(0, name.getPath().length() - POINT_SUFFIX.length()).trim()));
+			}
+			catch(NumberFormatException e) {
+				LOGGER.warn("ignoring point tag with a non-numeric value -> {}", name);
+			}
+		}
+
+		for (ValueRule rule : valueRules) {
+			if (rule.tag != null) {
+				ITag<Item> tag = tags.getTag(rule.tag);
+				if (tag == null) {
+					LOGGER.warn("ignoring point rule for an unknown tag -> {}", rule.tag);
+					continue;
+				}
+				putMax(values, tag, rule.points);
+				continue;
+			}
+			Item item = Registry.ITEM.getOptional(rule.item).orElse(null);
+			if (item == null) {
+				LOGGER.warn("ignoring point rule for an unknown item -> {}", rule.item);
+			}
+			else if (rule.nbt != null) {
+				nbtRules.computeIfAbsent(item, key -> new ArrayList<>()).add(rule);
+			}
+			else if (rule.points > itemValues.getInt(item)) {
+				itemValues.put(item, rule.points);
+			}
+		}
+		// an item rule replaces the tag rules for the item
+		values.putAll(itemValues);
+
+		Reference2ObjectOpenHashMap<Item, ValueRule[]> nbtValues = new Reference2ObjectOpenHashMap<>();
+		nbtRules.forEach((item, rules) -> {
+			rules.sort(Comparator.comparingInt((ValueRule rule) -> rule.points).reversed());
+			nbtValues.put(item, rules.toArray(new ValueRule[0]));
+		});
+		table = new Table(values, nbtValues);
+		LOGGER.debug("resolved point values for # of items -> {}, with nbt rules -> {}", values.size(), nbtValues.size());
+	}
+
+	private static void putMax(Reference2IntMap<Item> values, ITag<Item> tag, int points) {
+		for (Item item : tag.getValues()) {
+			if (points > values.getInt(item)) {
+				values.put(item, points);
+			}
+		}
+	}
+
+	/**
+	 *
+	 * @param stack
+	 * @return the point value of a single item of the stack, or 0 if it is not worth any points
+	 */
+	public static int getPoints(ItemStack stack) {
+		return table.getPoints(stack);
+	}
+
+	/**
+	 * Apply the multipliers of the game, including any time window that is open now.
+	 * @param game
+	 * @param points the points before the multipliers, ie a stack's value times its count
+	 * @return the points, clamped to the int range
+	 */
+	public static int applyMultipliers(String game, long points) {
+		double multiplier = multipliers.get(game, System.currentTimeMillis());
+		long result = multiplier == 1.0 ? points : Math.round(points * multiplier);
+		return (int) Math.max(Math.min(result, Integer.MAX_VALUE), Integer.MIN_VALUE);
+	}
+
+	private static Reference2IntMap<Item> newTable(int expected) {
+		Reference2IntOpenHashMap<Item> values = new Reference2IntOpenHashMap<>(expected);
+		values.defaultReturnValue(0);
+		return values;
+	}
+
+	/*
+	 * The compiled values.
+	 */
+	private static final class Table {
+		final Reference2IntMap<Item> values;
+		// item -> its nbt rules, highest points first
+		final Reference2ObjectOpenHashMap<Item, ValueRule[]> nbtValues;
+
+		Table(Reference2IntMap<Item> values, Reference2ObjectOpenHashMap<Item, ValueRule[]> nbtValues) {
+			this.values = values;
+			this.nbtValues = nbtValues;
+		}
+
+		int getPoints(ItemStack stack) {
+			Item item = stack.getItem();
+			if (stack.hasTag()) {
+				ValueRule[] rules = nbtValues.get(item);
+				if (rules != null) {
+					for (ValueRule rule : rules) {
+						if (NBTUtil.compareNbt(rule.nbt, stack.getTag(), true)) {
+							return rule.points;
+						}
+					}
+				}
+			}
+			return values.getInt(item);
+		}
+	}
+
+	/*
+	 * The compiled multipliers. The fixed ones are multiplied out per game, only the timed ones are checked per deposit.
+	 */
+	private static final class Multipliers {
+		final double all;
+		final Object2DoubleOpenHashMap<String> games = new Object2DoubleOpenHashMap<>();
+		final List<Multiplier> timed = new ArrayList<>();
+
+		Multipliers(List<Multiplier> rules) {
+			games.defaultReturnValue(1.0);
+			double multiplier = 1.0;
+			for (Multiplier rule : rules) {
+				if (rule.isTimed()) {
+					timed.add(rule);
+				}
+				else if (rule.game == null) {
+					multiplier *= rule.multiplier;
+				}
+				else {
+					games.put(rule.game, games.getDouble(rule.game) * rule.multiplier);
+				}
+			}
+			all = multiplier;
+		}
+
+		double get(String game, long now) {
+			double multiplier = all * games.getDouble(game);
+			for (int i = 0; i < timed.size(); i++) {
+				Multiplier rule = timed.get(i);
+				if (now >= rule.from && now < rule.to && (rule.game == null || rule.game.equals(game))) {
+					multiplier *= rule.multiplier;
+				}
+			}
+			return multiplier;
+		}
+	}
+}
@@ -0,0 +1,124 @@
+/*
+ * This file is part of  Score It.
+ * Copyright (c) 2021, Mark Gottschling (gottsch)
+ *
+ * All rights reserved.
+ *
+ * Score It is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Score It is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Protect It.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+package com.someguyssoftware.scoreit.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free latency histogram with power-of-two nanosecond buckets.
+ * Recording is a few atomic adds, with no allocation. Percentiles are approximate,
+ * reported as the upper bound of the bucket that contains them.
+ *
+ * @author Mark Gottschling on Oct 17, 2026
+ *
+ */
+public class LatencyHistogram {
+	private static final int BUCKETS = 64;
+
+	private final String name;
+	private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+	private final LongAdder count = new LongAdder();
+	private final LongAdder total = new LongAdder();
+	private final AtomicLong max = new AtomicLong();
+
+	public LatencyHistogram(String name) {
+		this.name = name;
+	}
+
+	/**
+	 * 
+	 * @param startNanos the value of System.nanoTime() when the operation started
+	 */
+	public void recordSince(long startNanos) {
+		record(System.nanoTime() - startNanos);
+	}
+
+	public void record(long nanos) {
+		long value = Math.max(nanos, 0L);
+		buckets.incrementAndGet(BUCKETS - 1 - Long.numberOfLeadingZeros(value | 1L));
+		count.increment();
+		total.add(value);
+		long current = max.get();
+		while (value > current && !max.compareAndSet(current, value)) {
+			current = max.get();
+		}
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public long getCount() {
+		return count.sum();
+	}
+
+	public long getMeanNanos() {
+		long n = count.sum();
+		return n == 0 ? 0L : total.sum() / n;
+	}
+
+	public long getMaxNanos() {
+		return max.get();
+	}
+
+	/**
+	 * 
+	 * @param percentile 0 - 100
+	 * @return the approximate latency at the percentile, in nanoseconds
+	 */
+	public long getPercentileNanos(double percentile) {
+		long n = 0;
+		long[] snapshot = new long[BUCKETS];
+		for (int i = 0; i < BUCKETS; i++) {
+			snapshot[i] = buckets.get(i);
+			n += snapshot[i];
+		}
+		if (n == 0) {
+			return 0L;
+		}
+		long target = (long) Math.ceil(n * percentile / 100.0);
+		long seen = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			seen += snapshot[i];
+			if (seen >= target) {
+				// upper bound of the bucket, capped by the observed maximum
+				return Math.min(i >= 62 ? Long.MAX_VALUE : (1L << (i + 1)) - 1, getMaxNanos());
+			}
+		}
+		return getMaxNanos();
+	}
+
+	public void reset() {
+		for (int i = 0; i < BUCKETS; i++) {
+			buckets.set(i, 0L);
+		}
+		count.reset();
+		total.reset();
+		max.set(0L);
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s n=%d mean=%.1fus p50=%.1fus p99=%.1fus max=%.1fus", name, getCount(),
+				getMeanNanos() / 1000.0, getPercentileNanos(50) / 1000.0, getPercentileNanos(99) / 1000.0, getMaxNanos() / 1000.0);
+	}
+}
@@ -0,0 +1,149 @@
+/*
+ * This file is part of  Score It.
+ * Copyright (c) 2021, Mark Gottschling (gottsch)
+ *
+ * All rights reserved.
+ *
+ * Score It is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Score It is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Protect It.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+package com.someguyssoftware.scoreit.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.someguyssoftware.scoreit.ScoreIt;
+import com.someguyssoftware.scoreit.config.ScoreItConfig;
+import com.someguyssoftware.scoreit.deposit.DepositQueue;
+import com.someguyssoftware.scoreit.scoreboard.Games;
+import com.someguyssoftware.scoreit.scoreboard.Scoreboard;
+
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+/**
+ * Low overhead counters and latency histograms for the scoring engine.
+ * Everything is lock-free and allocation-free to record, so it is always on.
+ * A summary is available through /scoreit stats and, optionally, periodically in the log.
+ * The metrics are reset by /scoreit stats reset and when the server stops, so they never span two servers.
+ * 
+ * @author Mark Gottschling on Oct 17, 2026
+ *
+ */
+@Mod.EventBusSubscriber(modid = ScoreIt.MODID, bus = Mod.EventBusSubscriber.Bus.FORGE)
+public class ScoreItMetrics {
+	public static Logger LOGGER = LogManager.getLogger(ScoreIt.NAME);
+
+	private static final int TICKS_PER_MINUTE = 20 * 60;
+
+	public static final LongAdder DEPOSITS_HANDLED = new LongAdder();
+	public static final LongAdder DEPOSITS_REJECTED = new LongAdder();
+	public static final LatencyHistogram DEPOSIT_TIME = new LatencyHistogram("deposit");
+	public static final LatencyHistogram DEPOSIT_WAIT = new LatencyHistogram("deposit wait");
+	public static final LatencyHistogram RANKING_TIME = new LatencyHistogram("ranking query");
+	public static final LatencyHistogram SAVE_TIME = new LatencyHistogram("save");
+	// the part of a save on the server thread
+	public static final LatencyHistogram SAVE_SNAPSHOT_TIME = new LatencyHistogram("save snapshot");
+	public static final LatencyHistogram LOAD_TIME = new LatencyHistogram("load");
+
+	// number of player entries in the last save / load, and bytes of the last delta segment
+	private static final AtomicLong LAST_SAVE_ENTRIES = new AtomicLong();
+	private static final AtomicLong LAST_LOAD_ENTRIES = new AtomicLong();
+	private static final AtomicLong LAST_DELTA_BYTES = new AtomicLong();
+
+	private static int ticks;
+
+	private ScoreItMetrics() { }
+
+	/**
+	 * 
+	 * @param startNanos
+	 * @param entries the number of player entries written
+	 */
+	public static void recordSave(long startNanos, int entries) {
+		SAVE_TIME.recordSince(startNanos);
+		LAST_SAVE_ENTRIES.set(entries);
+	}
+
+	/**
+	 * 
+	 * @param startNanos
+	 * @param entries the number of player entries read
+	 */
+	public static void recordLoad(long startNanos, int entries) {
+		LOAD_TIME.recordSince(startNanos);
+		LAST_LOAD_ENTRIES.set(entries);
+	}
+
+	public static void recordDeltaBytes(long bytes) {
+		LAST_DELTA_BYTES.set(bytes);
+	}
+
+	/**
+	 * 
+	 * @return a human readable summary, one line per metric
+	 */
+	public static List<String> summary() {
+		List<String> lines = new ArrayList<>();
+		lines.add(String.format("deposits handled=%d rejected=%d", DEPOSITS_HANDLED.sum(), DEPOSITS_REJECTED.sum()));
+		lines.add(DEPOSIT_TIME.toString());
+		lines.add(DEPOSIT_WAIT.toString() + " queued=" + DepositQueue.size());
+		lines.add(RANKING_TIME.toString());
+		lines.add(SAVE_TIME.toString() + " lastEntries=" + LAST_SAVE_ENTRIES.get() + " lastDeltaBytes=" + LAST_DELTA_BYTES.get());
+		lines.add(SAVE_SNAPSHOT_TIME.toString());
+		lines.add(LOAD_TIME.toString() + " lastEntries=" + LAST_LOAD_ENTRIES.get());
+		for (Scoreboard scoreboard : Games.getLoaded()) {
+			lines.add(String.format("game=%s players=%d estimatedHeap=%dKB", scoreboard.getName(), scoreboard.size(), scoreboard.estimateHeapBytes() / 1024));
+		}
+		return lines;
+	}
+
+	/**
+	 * Clear every counter and histogram, ie when the server stops.
+	 */
+	public static void reset() {
+		DEPOSITS_HANDLED.reset();
+		DEPOSITS_REJECTED.reset();
+		DEPOSIT_TIME.reset();
+		DEPOSIT_WAIT.reset();
+		RANKING_TIME.reset();
+		SAVE_TIME.reset();
+		SAVE_SNAPSHOT_TIME.reset();
+		LOAD_TIME.reset();
+		LAST_SAVE_ENTRIES.set(0);
+		LAST_LOAD_ENTRIES.set(0);
+		LAST_DELTA_BYTES.set(0);
+		ticks = 0;
+	}
+
+	@SubscribeEvent
+	public static void onServerTick(TickEvent.ServerTickEvent event) {
+		if (event.phase != TickEvent.Phase.END) {
+			return;
+		}
+		int interval = ScoreItConfig.SERVER.metricsLogInterval.get();
+		if (interval <= 0) {
+			return;
+		}
+		if (++ticks >= interval * TICKS_PER_MINUTE) {
+			ticks = 0;
+			summary().forEach(line -> LOGGER.info("[metrics] {}", line));
+		}
+	}
+}
@@ -0,0 +1,175 @@
+/*
+ * This file is part of  Score It.
+ * Copyright (c) 2021, Mark Gottschling (gottsch)
+ *
+ * All rights reserved.
+ *
+ * Score It is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Score It is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Protect It.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+package com.someguyssoftware.scoreit.network;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.someguyssoftware.scoreit.ScoreIt;
+import com.someguyssoftware.scoreit.config.ScoreItConfig;
+import com.someguyssoftware.scoreit.scoreboard.Games;
+import com.someguyssoftware.scoreit.scoreboard.ScoreEntry;
+import com.someguyssoftware.scoreit.scoreboard.Scoreboard;
+import com.someguyssoftware.scoreit.scoreboard.TopRankTracker;
+import com.someguyssoftware.scoreit.scoreboard.UuidMap;
+
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import net.minecraft.entity.player.ServerPlayerEntity;
+import net.minecraft.server.MinecraftServer;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.entity.player.PlayerEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.event.server.FMLServerStoppedEvent;
+import net.minecraftforge.fml.server.ServerLifecycleHooks;
+
+/**
+ * Keeps the client leaderboard HUDs up to date with the default game. A client is sent a full leaderboard once, when they join,
+ * and from then on only the changes to the top rankings, at most once per update interval.
+ * Only used on the server thread.
+ *
+ * @author Mark Gottschling on Oct 17, 2026
+ *
+ */
+@Mod.EventBusSubscriber(modid = ScoreIt.MODID, bus = Mod.EventBusSubscriber.Bus.FORGE)
+public class LeaderboardSync {
+	public static Logger LOGGER = LogManager.getLogger(ScoreIt.NAME);
+
+	private static final TopRankTracker TRACKER = new TopRankTracker();
+	// index ids are assigned on first appearance in the top rankings and are stable for the life of the server
+	private static final UuidMap<Integer> IDS = new UuidMap<>();
+	private static final UuidMap<Session> SESSIONS = new UuidMap<>();
+	private static int nextId;
+	private static int ticks;
+
+	/*
+	 * The ids whose names a client has been sent.
+	 */
+	private static class Session {
+		final IntOpenHashSet knownIds = new IntOpenHashSet();
+	}
+
+	/**
+	 *
+	 */
+	private LeaderboardSync() { }
+
+	@SubscribeEvent
+	public static void onPlayerLoggedOut(PlayerEvent.PlayerLoggedOutEvent event) {
+		SESSIONS.remove(event.getPlayer().getUUID());
+	}
+
+	@SubscribeEvent
+	public static void onServerStopped(FMLServerStoppedEvent event) {
+		TRACKER.clear();
+		IDS.clear();
+		SESSIONS.clear();
+		nextId = 0;
+	}
+
+	@SubscribeEvent
+	public static void onServerTick(TickEvent.ServerTickEvent event) {
+		if (event.phase != TickEvent.Phase.END) {
+			return;
+		}
+		if (++ticks < ScoreItConfig.SERVER.hudUpdateInterval.get()) {
+			return;
+		}
+		ticks = 0;
+		MinecraftServer server = ServerLifecycleHooks.getCurrentServer();
+		if (server != null && ScoreItConfig.SERVER.hudSize.get() > 0) {
+			update(server);
+		}
+	}
+
+	/**
+	 * Send the changes since the last update to every client, and a full leaderboard to any new client.
+	 * @param server
+	 */
+	public static void update(MinecraftServer server) {
+		Scoreboard scoreboard = Games.getDefault();
+		Optional<TopRankTracker.Changes> changes = TRACKER.poll(scoreboard, ScoreItConfig.SERVER.hudSize.get());
+		long version = scoreboard.getVersion();
+		for (ServerPlayerEntity player : server.getPlayerList().getPlayers()) {
+			Session session = SESSIONS.get(player.getUUID());
+			LeaderboardUpdateMessage message;
+			if (session == null) {
+				session = new Session();
+				SESSIONS.put(player.getUUID(), session);
+				message = full(session, version);
+			}
+			else if (changes.isPresent()) {
+				message = delta(session, version, changes.get());
+			}
+			else {
+				continue;
+			}
+			ScoreItNetwork.sendTo(player, message);
+		}
+	}
+
+	private static LeaderboardUpdateMessage full(Session session, long version) {
+		LeaderboardUpdateMessage message = new LeaderboardUpdateMessage(version, true);
+		for (ScoreEntry entry : TRACKER.getTop()) {
+			enter(message, session, entry);
+		}
+		return message;
+	}
+
+	private static LeaderboardUpdateMessage delta(Session session, long version, TopRankTracker.Changes changes) {
+		LeaderboardUpdateMessage message = new LeaderboardUpdateMessage(version, false);
+		for (ScoreEntry entry : changes.getLeft()) {
+			message.leave(getId(entry.getUuid()));
+		}
+		for (ScoreEntry entry : changes.getEntered()) {
+			enter(message, session, entry);
+		}
+		for (ScoreEntry entry : changes.getChanged()) {
+			int id = getId(entry.getUuid());
+			Optional<ScoreEntry> previous = changes.getPrevious(entry.getUuid());
+			if (!previous.isPresent() || previous.get().getRank() != entry.getRank()) {
+				message.rank(id, entry.getRank());
+			}
+			if (!previous.isPresent() || previous.get().getPoints() != entry.getPoints()) {
+				message.points(id, entry.getPoints());
+			}
+		}
+		return message;
+	}
+
+	private static void enter(LeaderboardUpdateMessage message, Session session, ScoreEntry entry) {
+		int id = getId(entry.getUuid());
+		// only send the name the first time this client sees the id
+		String name = session.knownIds.add(id) ? (entry.getName() == null ? "" : entry.getName()) : null;
+		message.enter(id, entry.getRank(), entry.getPoints(), name);
+	}
+
+	private static int getId(UUID uuid) {
+		Integer id = IDS.get(uuid);
+		if (id == null) {
+			id = nextId++;
+			IDS.put(uuid, id);
+		}
+		return id;
+	}
+}
@@ -0,0 +1,195 @@
+/*
+ * This file is part of  Score It.
+ * Copyright (c) 2021, Mark Gottschling (gottsch)
+ *
+ * All rights reserved.
+ *
+ * Score It is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Score It is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Protect It.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+package com.someguyssoftware.scoreit.network;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import com.someguyssoftware.scoreit.client.LeaderboardHud;
+
+import net.minecraft.network.PacketBuffer;
+import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.fml.DistExecutor;
+import net.minecraftforge.fml.network.NetworkEvent;
+
+/**
+ * A leaderboard update for the client HUD. A full update replaces the client's leaderboard,
+ * otherwise the operations are applied to what the client already has.
+ * Players are identified by a small index id, and a player's name is only sent the first time
+ * the client sees their id, so an update costs a few bytes per changed line.
+ *
+ * @author Mark Gottschling on Oct 17, 2026
+ *
+ */
+public class LeaderboardUpdateMessage {
+	public static final byte ENTER = 0;
+	public static final byte LEAVE = 1;
+	public static final byte RANK = 2;
+	public static final byte POINTS = 3;
+
+	private static final int MAX_NAME_LENGTH = 16;
+
+	private final long version;
+	private final boolean full;
+	private final List<Op> ops;
+
+	/**
+	 * 
+	 * @param version the scoreboard version the update brings the client up to
+	 * @param full
+	 */
+	public LeaderboardUpdateMessage(long version, boolean full) {
+		this(version, full, new ArrayList<>());
+	}
+
+	private LeaderboardUpdateMessage(long version, boolean full, List<Op> ops) {
+		this.version = version;
+		this.full = full;
+		this.ops = ops;
+	}
+
+	/**
+	 * 
+	 * @param id
+	 * @param rank
+	 * @param points
+	 * @param name null if the client already knows the id
+	 * @return
+	 */
+	public LeaderboardUpdateMessage enter(int id, int rank, int points, String name) {
+		ops.add(new Op(ENTER, id, rank, points, name));
+		return this;
+	}
+
+	public LeaderboardUpdateMessage leave(int id) {
+		ops.add(new Op(LEAVE, id, 0, 0, null));
+		return this;
+	}
+
+	public LeaderboardUpdateMessage rank(int id, int rank) {
+		ops.add(new Op(RANK, id, rank, 0, null));
+		return this;
+	}
+
+	public LeaderboardUpdateMessage points(int id, int points) {
+		ops.add(new Op(POINTS, id, 0, points, null));
+		return this;
+	}
+
+	public void encode(PacketBuffer buffer) {
+		buffer.writeVarLong(version);
+		buffer.writeBoolean(full);
+		buffer.writeVarInt(ops.size());
+		for (Op op : ops) {
+			buffer.writeByte(op.type);
+			buffer.writeVarInt(op.id);
+			switch (op.type) {
+			case ENTER:
+				buffer.writeVarInt(op.rank);
+				buffer.writeVarInt(op.points);
+				buffer.writeBoolean(op.name != null);
+				if (op.name != null) {
+					buffer.writeUtf(op.name, MAX_NAME_LENGTH);
+				}
+				break;
+			case RANK:
+				buffer.writeVarInt(op.rank);
+				break;
+			case POINTS:
+				buffer.writeVarInt(op.points);
+				break;
+			default:
+				break;
+			}
+		}
+	}
+
+	public static LeaderboardUpdateMessage decode(PacketBuffer buffer) {
+		long version = buffer.readVarLong();
+		boolean full = buffer.readBoolean();
+		int size = buffer.readVarInt();
+		List<Op> ops = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			byte type = buffer.readByte();
+			int id = buffer.readVarInt();
+			switch (type) {
+			case ENTER:
+				int rank = buffer.readVarInt();
+				int points = buffer.readVarInt();
+				String name = buffer.readBoolean() ? buffer.readUtf(MAX_NAME_LENGTH) : null;
+				ops.add(new Op(type, id, rank, points, name));
+				break;
+			case RANK:
+				ops.add(new Op(type, id, buffer.readVarInt(), 0, null));
+				break;
+			case POINTS:
+				ops.add(new Op(type, id, 0, buffer.readVarInt(), null));
+				break;
+			default:
+				ops.add(new Op(type, id, 0, 0, null));
+				break;
+			}
+		}
+		return new LeaderboardUpdateMessage(version, full, ops);
+	}
+
+	public static void handle(LeaderboardUpdateMessage message, Supplier<NetworkEvent.Context> context) {
+		context.get().enqueueWork(() -> {
+			DistExecutor.unsafeRunWhenOn(Dist.CLIENT, () -> () -> LeaderboardHud.apply(message));
+		});
+		context.get().setPacketHandled(true);
+	}
+
+	public boolean isEmpty() {
+		return !full && ops.isEmpty();
+	}
+
+	public long getVersion() {
+		return version;
+	}
+
+	public boolean isFull() {
+		return full;
+	}
+
+	public List<Op> getOps() {
+		return ops;
+	}
+
+	/**
+	 * A single leaderboard operation. Only the fields used by the type are meaningful.
+	 */
+	public static class Op {
+		public final byte type;
+		public final int id;
+		public final int rank;
+		public final int points;
+		public final String name;
+
+		Op(byte type, int id, int rank, int points, String name) {
+			this.type = type;
+			this.id = id;
+			this.rank = rank;
+			this.points = points;
+			this.name = name;
+		}
+	}
+}
@@ -0,0 +1,472 @@
+/*
+ * This file is part of  Score It.
+ * Copyright (c) 2021, Mark Gottschling (gottsch)
+ *
+ * All rights reserved.
+ *
+ * Score It is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Score It is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Protect It.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+package com.someguyssoftware.scoreit.persistence;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.someguyssoftware.scoreit.ScoreIt;
+import com.someguyssoftware.scoreit.metrics.ScoreItMetrics;
+import com.someguyssoftware.scoreit.scoreboard.SaveSnapshot;
+import com.someguyssoftware.scoreit.scoreboard.Scoreboard;
+
+import net.minecraft.nbt.CompoundNBT;
+import net.minecraft.nbt.CompressedStreamTools;
+
+/**
+ * The files of a single game, in its own folder, so that each game is loaded and saved independently.
+ * A game is persisted as a base snapshot plus numbered delta segments that contain only the players
+ * that changed between saves. When enough segments accumulate, the next save writes a new base instead.
+ * The base records the last segment it includes, so leftover segments are ignored on load.
+ * The changes made since the last save are kept in a write-ahead log, which is replayed after the segments.
+ * <p>
+ * Only a snapshot of the changes is taken on the server thread (see SaveSnapshot). Encoding and writing the files run
+ * on a single background thread in the order the saves were made. A save is never written over a newer one, and after
+ * a failed write no deltas are written until a base succeeds, so the files on disk are always a consistent, if older, save.
+ * The write-ahead logs are kept until the save that replaces them is on disk.
+ * A base that exists but can't be read is moved aside and the game is marked damaged: nothing is loaded on top of it,
+ * and nothing is saved, compacted or deleted until an operator restores the base.
+ * Loading runs on the same background thread, so it always follows the saves of an earlier store of the game.
+ * The public methods are only called on the server thread.
+ * 
+ * @author Mark Gottschling on Oct 17, 2026
+ *
+ */
+public class GameStore {
+	public static Logger LOGGER = LogManager.getLogger(ScoreIt.NAME);
+
+	private static final String BASE_FILE = "base.dat";
+	// a base that could not be read is renamed to base.dat.corrupt-<time>
+	private static final String CORRUPT_SUFFIX = ".corrupt-";
+	private static final String SCOREBOARD_KEY = "scoreboard";
+	private static final String SEGMENT_KEY = "segment";
+	static final String DELTAS_FOLDER = "deltas";
+	static final String DELTA_PREFIX = "delta-";
+	static final String DELTA_SUFFIX = ".dat";
+	// number of delta segments to accumulate before rewriting the base
+	private static final int COMPACT_SEGMENTS = 20;
+
+	private static final ExecutorService WRITER = Executors.newSingleThreadExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "ScoreIt-Save");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private final Path folder;
+	// the last delta segment written or loaded
+	private int segment;
+	// the last delta segment included in the base
+	private int baseSegment;
+	private boolean hasBase;
+	// the base could not be read, so the game must not be saved
+	private volatile boolean damaged;
+	// null until loaded, or if the log could not be opened
+	private WriteAheadLog journal;
+	// the last save submitted
+	private CompletableFuture<Void> pending = CompletableFuture.completedFuture(null);
+
+	// only used by the writer thread
+	// the last segment on disk
+	private int written;
+	// a write failed, so the deltas are incomplete until the next base
+	private boolean failed;
+
+	/**
+	 * 
+	 * @param folder the game's folder
+	 */
+	public GameStore(Path folder) {
+		this.folder = folder;
+	}
+
+	/**
+	 * 
+	 * @return whether the game has been saved before
+	 */
+	public boolean exists() {
+		return Files.exists(folder.resolve(BASE_FILE));
+	}
+
+	/**
+	 * 
+	 * @return whether the game's base could not be read, in which case it is not saved
+	 */
+	public boolean isDamaged() {
+		return damaged;
+	}
+
+	/**
+	 * Load the base and then apply the newer delta segments in order, in the background.
+	 * An earlier store of the game, ie before it was unloaded, may still be writing, so this runs after its saves.
+	 * @param scoreboard an empty scoreboard, that must not be used until the load completes
+	 * @return completes when the game is loaded
+	 */
+	public CompletableFuture<Void> load(Scoreboard scoreboard) {
+		return CompletableFuture.runAsync(() -> read(scoreboard), WRITER);
+	}
+
+	/*
+	 * On the writer thread.
+	 */
+	private void read(Scoreboard scoreboard) {
+		long start = System.nanoTime();
+		// the base may have been restored since an earlier load
+		damaged = false;
+		Path base = folder.resolve(BASE_FILE);
+		if (Files.exists(base)) {
+			try {
+				CompoundNBT nbt = CompressedStreamTools.readCompressed(base.toFile());
+				scoreboard.load(nbt.getCompound(SCOREBOARD_KEY));
+				segment = nbt.getInt(SEGMENT_KEY);
+				baseSegment = segment;
+				hasBase = true;
+			}
+			catch(IOException | RuntimeException e) {
+				LOGGER.error("Unable to read ScoreIt game -> {}, it will not be saved until its base is restored", scoreboard.getName(), e);
+				quarantine(base);
+				damaged = true;
+			}
+		}
+		else if (hasCorruptBase()) {
+			LOGGER.error("ScoreIt game -> {} has a base that could not be read, it will not be saved until its base is restored", scoreboard.getName());
+			damaged = true;
+		}
+		if (damaged) {
+			// the deltas only apply on top of the base, and the segments and logs are kept for the operator
+			scoreboard.reset();
+			return;
+		}
+		segment = loadDeltas(scoreboard, folder.resolve(DELTAS_FOLDER), segment);
+		written = segment;
+		// segments after a missing one were not applied. number the next save after them and replace them with a base
+		int newest = listSegments(folder.resolve(DELTAS_FOLDER)).stream().reduce(segment, Math::max);
+		try {
+			journal = WriteAheadLog.open(folder, segment, scoreboard);
+			// the log is newer than the segments if its saves were never written, the next save must be numbered after it
+			newest = Math.max(newest, journal.getSegment());
+			scoreboard.setJournal(journal);
+		}
+		catch(IOException e) {
+			LOGGER.error("Unable to open the write-ahead log of ScoreIt game -> {}, changes are only saved with the world", scoreboard.getName(), e);
+		}
+		if (newest > segment) {
+			// a delta would leave a gap in the numbering
+			segment = newest;
+			scoreboard.requireFullSave();
+		}
+		ScoreItMetrics.recordLoad(start, scoreboard.size());
+	}
+
+	/**
+	 * Save the changes since the last save, as a delta segment if possible. The changes are snapshot now
+	 * and written in the background.
+	 * @param scoreboard
+	 */
+	public void save(Scoreboard scoreboard) {
+		if (damaged) {
+			LOGGER.warn("not saving ScoreIt game -> {}, its base could not be read", scoreboard.getName());
+			return;
+		}
+		if (!hasBase || scoreboard.isFullSaveRequired() || segment - baseSegment >= COMPACT_SEGMENTS) {
+			saveBase(scoreboard);
+			return;
+		}
+
+		long start = System.nanoTime();
+		Optional<SaveSnapshot> delta = scoreboard.snapshotDelta();
+		if (!delta.isPresent()) {
+			return;
+		}
+		int next = ++segment;
+		rotateJournal();
+		ScoreItMetrics.SAVE_SNAPSHOT_TIME.recordSince(start);
+		WriteAheadLog log = journal;
+		submit(() -> writeDelta(scoreboard, delta.get(), next, log, start));
+	}
+
+	/**
+	 * Save the whole scoreboard as a new base, and remove the segments it replaces. The scoreboard is snapshot now
+	 * and written in the background.
+	 * @param scoreboard
+	 * @return completes when the base has been written or has failed
+	 */
+	public CompletableFuture<Void> saveBase(Scoreboard scoreboard) {
+		if (damaged) {
+			LOGGER.warn("not saving ScoreIt game -> {}, its base could not be read", scoreboard.getName());
+			return CompletableFuture.completedFuture(null);
+		}
+		long start = System.nanoTime();
+		SaveSnapshot snapshot = scoreboard.snapshotForSave();
+		// a base is numbered like a segment, so the write-ahead log can tell which save it follows
+		int next = ++segment;
+		hasBase = true;
+		baseSegment = next;
+		rotateJournal();
+		ScoreItMetrics.SAVE_SNAPSHOT_TIME.recordSince(start);
+		WriteAheadLog log = journal;
+		return submit(() -> writeBase(scoreboard, snapshot, next, log, start));
+	}
+
+	private CompletableFuture<Void> submit(Runnable task) {
+		pending = CompletableFuture.runAsync(task, WRITER);
+		return pending;
+	}
+
+	/*
+	 * On the writer thread.
+	 */
+	private void writeDelta(Scoreboard scoreboard, SaveSnapshot delta, int next, WriteAheadLog log, long start) {
+		// a delta only applies on top of every earlier save
+		if (failed || next <= written) {
+			LOGGER.debug("skipped ScoreIt game -> {} delta segment -> {}, a base is pending", scoreboard.getName(), next);
+			return;
+		}
+		try {
+			Path file = folder.resolve(DELTAS_FOLDER).resolve(DELTA_PREFIX + next + DELTA_SUFFIX);
+			write(delta.write(new CompoundNBT()), file);
+			written = next;
+			retireJournal(log, next);
+			ScoreItMetrics.recordSave(start, delta.size());
+			ScoreItMetrics.recordDeltaBytes(Files.size(file));
+			LOGGER.debug("saved ScoreIt game -> {} delta segment -> {}", scoreboard.getName(), next);
+		}
+		catch(IOException | RuntimeException e) {
+			// the changes are no longer tracked, so fall back to a full save
+			LOGGER.error("Unable to write ScoreIt delta segment, falling back to a full save:", e);
+			failed = true;
+			scoreboard.requireFullSave();
+		}
+	}
+
+	/*
+	 * On the writer thread.
+	 */
+	private void writeBase(Scoreboard scoreboard, SaveSnapshot snapshot, int next, WriteAheadLog log, long start) {
+		// never replace a newer save
+		if (next <= written) {
+			return;
+		}
+		try {
+			CompoundNBT nbt = new CompoundNBT();
+			nbt.put(SCOREBOARD_KEY, snapshot.write(new CompoundNBT()));
+			nbt.putInt(SEGMENT_KEY, next);
+			write(nbt, folder.resolve(BASE_FILE));
+			written = next;
+			failed = false;
+			retireJournal(log, next);
+			ScoreItMetrics.recordSave(start, snapshot.size());
+			LOGGER.debug("saved ScoreIt game -> {} base at segment -> {}", scoreboard.getName(), next);
+		}
+		catch(IOException | RuntimeException e) {
+			LOGGER.error("Unable to write ScoreIt game -> {}", scoreboard.getName(), e);
+			// nothing was written, so the next save must try again
+			failed = true;
+			scoreboard.requireFullSave();
+			return;
+		}
+		deleteSegments(folder.resolve(DELTAS_FOLDER), next);
+	}
+
+	/*
+	 * Move an unreadable base aside, so that it is kept for the operator and never mistaken for a readable one.
+	 */
+	private void quarantine(Path base) {
+		Path corrupt = folder.resolve(BASE_FILE + CORRUPT_SUFFIX + System.currentTimeMillis());
+		try {
+			Files.move(base, corrupt);
+			LOGGER.error("Moved the unreadable ScoreIt base -> {} to -> {}", base, corrupt);
+		}
+		catch(IOException e) {
+			LOGGER.error("Unable to move the unreadable ScoreIt base -> {}", base, e);
+		}
+	}
+
+	private boolean hasCorruptBase() {
+		if (!Files.isDirectory(folder)) {
+			return false;
+		}
+		try (Stream<Path> files = Files.list(folder)) {
+			return files.anyMatch(path -> path.getFileName().toString().startsWith(BASE_FILE + CORRUPT_SUFFIX));
+		}
+		catch(IOException e) {
+			LOGGER.error("Unable to list ScoreIt game folder -> {}", folder, e);
+			// can't tell, so don't risk saving over it
+			return true;
+		}
+	}
+
+	private void rotateJournal() {
+		if (journal != null) {
+			journal.rotate(segment);
+		}
+	}
+
+	private static void retireJournal(WriteAheadLog log, int segment) {
+		if (log != null) {
+			log.retire(segment);
+		}
+	}
+
+	/**
+	 * Wait for the saves to be written, ie when the server is stopping.
+	 * @param timeoutSeconds
+	 */
+	public static void flush(long timeoutSeconds) {
+		try {
+			CompletableFuture.runAsync(() -> {}, WRITER).get(timeoutSeconds, TimeUnit.SECONDS);
+		}
+		catch(Exception e) {
+			LOGGER.warn("Timed out waiting for the ScoreIt games to be saved");
+		}
+	}
+
+	/**
+	 * Write and close the write-ahead log once the pending saves are written, ie when the game is unloaded.
+	 * @return completes when the log is closed
+	 */
+	public CompletableFuture<Void> close() {
+		WriteAheadLog log = journal;
+		journal = null;
+		if (log == null) {
+			return pending;
+		}
+		// after the pending saves, which retire the older logs
+		return pending.thenCompose(saved -> log.close());
+	}
+
+	/**
+	 * Delete all of the game's files.
+	 */
+	public void delete() {
+		if (!Files.exists(folder)) {
+			return;
+		}
+		try (Stream<Path> files = Files.walk(folder)) {
+			files.sorted(Comparator.reverseOrder()).forEach(path -> {
+				try {
+					Files.delete(path);
+				}
+				catch(IOException e) {
+					LOGGER.warn("Unable to delete -> {}", path, e);
+				}
+			});
+		}
+		catch(IOException e) {
+			LOGGER.error("Unable to delete ScoreIt game folder -> {}", folder, e);
+		}
+	}
+
+	/*
+	 * Write to a temporary file first, so that a crash mid-write never leaves a truncated file in place.
+	 */
+	private static void write(CompoundNBT nbt, Path file) throws IOException {
+		Files.createDirectories(file.getParent());
+		Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+		CompressedStreamTools.writeCompressed(nbt, temp.toFile());
+		Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	/**
+	 * Apply the delta segments in the folder that are newer than the given segment, in order.
+	 * Each segment only applies on top of the one before it, so the segments after a missing one are not applied.
+	 * @param scoreboard
+	 * @param deltas
+	 * @param after
+	 * @return the last segment applied
+	 */
+	static int loadDeltas(Scoreboard scoreboard, Path deltas, int after) {
+		int last = after;
+		for (int index : listSegments(deltas)) {
+			if (index <= after) {
+				continue;
+			}
+			if (index != last + 1) {
+				LOGGER.error("ScoreIt delta segment -> {} is missing, ignoring the segments from -> {}", last + 1, index);
+				break;
+			}
+			try {
+				scoreboard.loadDelta(CompressedStreamTools.readCompressed(deltas.resolve(DELTA_PREFIX + index + DELTA_SUFFIX).toFile()));
+				last = index;
+			}
+			catch(IOException e) {
+				LOGGER.error("Unable to read ScoreIt delta segment -> {}", index, e);
+				break;
+			}
+		}
+		return last;
+	}
+
+	static void deleteSegments(Path deltas, int upTo) {
+		for (int index : listSegments(deltas)) {
+			if (index <= upTo) {
+				try {
+					Files.deleteIfExists(deltas.resolve(DELTA_PREFIX + index + DELTA_SUFFIX));
+				}
+				catch(IOException e) {
+					LOGGER.warn("Unable to delete ScoreIt delta segment -> {}", index, e);
+				}
+			}
+		}
+	}
+
+	/**
+	 * 
+	 * @param deltas
+	 * @return the segment indexes in ascending order
+	 */
+	private static List<Integer> listSegments(Path deltas) {
+		List<Integer> indexes = new ArrayList<>();
+		if (!Files.isDirectory(deltas)) {
+			return indexes;
+		}
+		try (Stream<Path> files = Files.list(deltas)) {
+			files.map(file -> file.getFileName().toString())
+			.filter(name -> name.startsWith(DELTA_PREFIX) && name.endsWith(DELTA_SUFFIX))
+			.forEach(name -> {
+				try {
+					indexes.add(Integer.parseInt(name.substring(DELTA_PREFIX.length(), name.length() - DELTA_SUFFIX.length())));
+				}
+				catch(NumberFormatException e) {
+					LOGGER.warn("ignoring unknown file in ScoreIt deltas folder -> {}", name);
+				}
+			});
+		}
+		catch(IOException e) {
+			LOGGER.error("Unable to list ScoreIt delta segments:", e);
+		}
+		Collections.sort(indexes);
+		return indexes;
+	}
+}
@@ -19,19 +19,32 @@
  */
 package com.someguyssoftware.scoreit.persistence;
 
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import com.someguyssoftware.scoreit.ScoreIt;
+import com.someguyssoftware.scoreit.scoreboard.Games;
 import com.someguyssoftware.scoreit.scoreboard.Scoreboard;
 
 import net.minecraft.nbt.CompoundNBT;
+import net.minecraft.nbt.ListNBT;
+import net.minecraft.nbt.StringNBT;
+import net.minecraft.server.MinecraftServer;
 import net.minecraft.world.IWorld;
 import net.minecraft.world.server.ServerWorld;
 import net.minecraft.world.storage.DimensionSavedDataManager;
+import net.minecraft.world.storage.FolderName;
 import net.minecraft.world.storage.WorldSavedData;
+import net.minecraftforge.fml.server.ServerLifecycleHooks;
 
 /**
+ * The catalog of named games. Each game's scores are kept in its own folder (see GameStore),
+ * so that games are only read when first used and only written while loaded.
  * 
  * @author Mark Gottschling on Sep 21, 2021
  *
@@ -41,7 +54,13 @@ public class ScoreItSavedData extends WorldSavedData {
 	
 	public static final String GEN_DATA_KEY = ScoreIt.MODID + ":generationData";
 	private static final String SCORE_IT = ScoreIt.MODID;
-	private static final String SCOREBOARD = "scoreboard";
+	private static final String GAMES_KEY = "games";
+	private static final String GAMES_FOLDER = "games";
+	// the single scoreboard and its segment, as saved before named games
+	private static final String LEGACY_SCOREBOARD = "scoreboard";
+	private static final String LEGACY_SEGMENT_KEY = "segment";
+	
+	private final Set<String> games = new LinkedHashSet<>();
 	
 	public ScoreItSavedData() {
 		super(GEN_DATA_KEY);
@@ -55,34 +74,101 @@ public class ScoreItSavedData extends WorldSavedData {
 	public void load(CompoundNBT nbt) {
 		LOGGER.info("loading ScoreIt data ...");
 		CompoundNBT scoreIt = nbt.getCompound(SCORE_IT);
-		if (scoreIt.contains(SCOREBOARD)) {
-			LOGGER.info("has scoreboard, loading...");
-			Scoreboard.load(scoreIt.getCompound(SCOREBOARD));
+		games.clear();
+		scoreIt.getList(GAMES_KEY, 8).forEach(entry -> games.add(entry.getAsString()));
+		if (scoreIt.contains(LEGACY_SCOREBOARD)) {
+			migrate(scoreIt.getCompound(LEGACY_SCOREBOARD), scoreIt.getInt(LEGACY_SEGMENT_KEY));
 		}
 	}
 
 	@Override
 	public CompoundNBT save(CompoundNBT nbt) {
 		LOGGER.info("saving ScoreIt data...");
-		// create a treasure compound			
 		CompoundNBT scoreIt = new CompoundNBT();
 		nbt.put(SCORE_IT, scoreIt);
-		scoreIt.put(SCOREBOARD, Scoreboard.save(new CompoundNBT()));
+		ListNBT list = new ListNBT();
+		games.forEach(name -> list.add(StringNBT.valueOf(name)));
+		scoreIt.put(GAMES_KEY, list);
 		return nbt;
 	}
 	
+	/*
+	 * Move the single scoreboard (and any delta segments written on top of it) into the default game.
+	 */
+	private void migrate(CompoundNBT legacy, int legacySegment) {
+		MinecraftServer server = ServerLifecycleHooks.getCurrentServer();
+		if (server == null) {
+			return;
+		}
+		GameStore store = getGameStore(server, Games.DEFAULT_GAME);
+		// an earlier migration already wrote the default game, it is newer than the legacy data
+		if (!store.exists()) {
+			LOGGER.info("migrating the ScoreIt scoreboard to the default game...");
+			Scoreboard scoreboard = new Scoreboard(Games.DEFAULT_GAME);
+			scoreboard.load(legacy);
+			Path legacyDeltas = getSaveFolder(server).resolve(GameStore.DELTAS_FOLDER);
+			int last = GameStore.loadDeltas(scoreboard, legacyDeltas, legacySegment);
+			// the check below needs the base on disk
+			store.saveBase(scoreboard).join();
+			if (store.exists()) {
+				GameStore.deleteSegments(legacyDeltas, last);
+			}
+		}
+		games.add(Games.DEFAULT_GAME);
+		// rewrite without the legacy scoreboard
+		setDirty();
+	}
+	
+	/**
+	 * 
+	 * @return the names of all the games, loaded or not
+	 */
+	public Set<String> getGames() {
+		return Collections.unmodifiableSet(games);
+	}
+	
+	public boolean hasGame(String name) {
+		return games.contains(name);
+	}
+	
+	public void addGame(String name) {
+		if (games.add(name)) {
+			setDirty();
+		}
+	}
+	
+	public void removeGame(String name) {
+		if (games.remove(name)) {
+			setDirty();
+		}
+	}
+	
+	/**
+	 * 
+	 * @param server
+	 * @param name
+	 * @return the store for the game's folder
+	 */
+	public static GameStore getGameStore(MinecraftServer server, String name) {
+		return new GameStore(getSaveFolder(server).resolve(GAMES_FOLDER).resolve(name));
+	}
+	
 	/**
+	 * 
+	 * @param server
+	 * @return the ScoreIt folder in the world save folder
+	 */
+	public static Path getSaveFolder(MinecraftServer server) {
+		return server.getWorldPath(FolderName.ROOT).resolve(ScoreIt.MODID).normalize();
+	}
+	
+	/**
+	 * The data is always kept with the overworld, regardless of which world is passed in.
 	 * @param world
 	 * @return
 	 */
 	public static ScoreItSavedData get(IWorld world) {
-		DimensionSavedDataManager storage = ((ServerWorld)world).getDataStorage();
-		ScoreItSavedData data = (ScoreItSavedData) storage.computeIfAbsent(ScoreItSavedData::new, GEN_DATA_KEY);
-		
-		if (data == null) {
-			data = new ScoreItSavedData();
-			storage.set(data);
-		}
-		return data;
+		DimensionSavedDataManager storage = ((ServerWorld)world).getServer().overworld().getDataStorage();
+		return storage.computeIfAbsent(ScoreItSavedData::new, GEN_DATA_KEY);
 	}
 }
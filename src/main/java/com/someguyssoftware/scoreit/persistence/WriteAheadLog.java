@@ -0,0 +1,571 @@
+/*
+ * This file is part of  Score It.
+ * Copyright (c) 2021, Mark Gottschling (gottsch)
+ *
+ * All rights reserved.
+ *
+ * Score It is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Score It is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Protect It.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+package com.someguyssoftware.scoreit.persistence;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.someguyssoftware.scoreit.ScoreIt;
+import com.someguyssoftware.scoreit.scoreboard.ScoreJournal;
+import com.someguyssoftware.scoreit.scoreboard.Scoreboard;
+import com.someguyssoftware.scoreit.scoreboard.Scoreboard.GameState;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.objects.Reference2IntMap;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import net.minecraft.item.Item;
+import net.minecraft.util.ResourceLocation;
+import net.minecraft.util.registry.Registry;
+
+/**
+ * An append-only log of the changes made to a game since its last save, so that a crash loses at most
+ * COMMIT_INTERVAL milliseconds of scoring instead of everything since the last world save.
+ * <p>
+ * Changes are encoded into an in-memory buffer on the server thread. A background thread swaps the buffer out,
+ * writes it and fsyncs once per interval (group commit), so the server thread never waits on the disk.
+ * <p>
+ * A log is named after the save segment it follows, "wal-N.log". When the game is saved as segment M, the log is
+ * rotated to "wal-M.log", and the older logs are only deleted once segment M is on disk (see retire()), as saves are
+ * written in the background. On load the logs from the loaded segment on are replayed in order,
+ * so a crash between a save and the deletion never applies a change twice, and a save that was never written loses nothing.
+ * Each record is its length, a CRC32 and the body, so a torn final record is detected and dropped.
+ *
+ * @author Mark Gottschling on Oct 17, 2026
+ *
+ */
+public class WriteAheadLog implements ScoreJournal {
+	public static Logger LOGGER = LogManager.getLogger(ScoreIt.NAME);
+
+	private static final String PREFIX = "wal-";
+	private static final String SUFFIX = ".log";
+	private static final long COMMIT_INTERVAL = 50;
+	private static final int HEADER_BYTES = 8;
+	private static final int INITIAL_BUFFER = 16 * 1024;
+
+	// record types
+	private static final byte ITEM = 1;
+	private static final byte PLAYER = 2;
+	private static final byte REMOVE = 3;
+	private static final byte POINTS = 4;
+	private static final byte TEAM = 5;
+	private static final byte STATE = 6;
+	private static final byte RESET = 7;
+
+	private static final Set<WriteAheadLog> OPEN = new CopyOnWriteArraySet<>();
+	private static final ScheduledExecutorService WRITER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "ScoreIt-WAL");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	static {
+		WRITER.scheduleWithFixedDelay(() -> OPEN.forEach(WriteAheadLog::commit), COMMIT_INTERVAL, COMMIT_INTERVAL, TimeUnit.MILLISECONDS);
+	}
+
+	private final Path folder;
+	private final Object lock = new Object();
+	private final CRC32 crc = new CRC32();
+	// the item ids defined in the current file
+	private final Reference2IntOpenHashMap<Item> items = new Reference2IntOpenHashMap<>();
+
+	// guarded by lock
+	private ByteBuffer pending = ByteBuffer.allocate(INITIAL_BUFFER);
+	// the rotations since the last commit, in order: the segment of each new log, and the end of the changes
+	// in the pending buffer that belong in the log before it. saves can be made faster than the commit interval
+	private final IntArrayList rotateTo = new IntArrayList();
+	private final IntArrayList rotateAt = new IntArrayList();
+
+	// only used by the writer thread
+	private ByteBuffer writing = ByteBuffer.allocate(INITIAL_BUFFER);
+	private FileChannel channel;
+	private volatile int segment;
+
+	private WriteAheadLog(Path folder, int segment, FileChannel channel) {
+		this.folder = folder;
+		this.segment = segment;
+		this.channel = channel;
+		items.defaultReturnValue(-1);
+	}
+
+	/**
+	 * Replay the logs that follow the segment onto the scoreboard, oldest first, then open the newest for appending.
+	 * There is more than one only if the saves they were rotated for were never written.
+	 * Any older logs in the folder are stale and are deleted.
+	 * @param folder the game's folder
+	 * @param segment the last segment loaded
+	 * @param scoreboard
+	 * @return the open log
+	 * @throws IOException
+	 */
+	public static WriteAheadLog open(Path folder, int segment, Scoreboard scoreboard) throws IOException {
+		Files.createDirectories(folder);
+		deleteBefore(folder, segment);
+		int last = segment;
+		long valid = 0;
+		for (int index : listLogs(folder)) {
+			valid = replay(folder.resolve(PREFIX + index + SUFFIX), scoreboard);
+			last = index;
+		}
+
+		FileChannel channel = FileChannel.open(folder.resolve(PREFIX + last + SUFFIX), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+		// drop a torn record, so new records are appended after the last good one
+		channel.truncate(valid);
+		channel.position(valid);
+		WriteAheadLog log = new WriteAheadLog(folder, last, channel);
+		OPEN.add(log);
+		return log;
+	}
+
+	/**
+	 * 
+	 * @return the segment the log being appended to follows
+	 */
+	public int getSegment() {
+		return segment;
+	}
+
+	/**
+	 * Start a new log for the changes made after the game is saved as the segment.
+	 * The changes logged so far are part of the save, but are still written to the current log,
+	 * which is kept until the save is on disk.
+	 * @param segment
+	 */
+	public void rotate(int segment) {
+		synchronized (lock) {
+			items.clear();
+			rotateAt.add(pending.position());
+			rotateTo.add(segment);
+		}
+	}
+
+	/**
+	 * Delete the logs before the segment, once the game's save as the segment is on disk.
+	 * @param segment
+	 */
+	public void retire(int segment) {
+		WRITER.execute(() -> {
+			// make sure the rotation to the segment has been written first
+			commit();
+			deleteBefore(folder, segment);
+		});
+	}
+
+	/**
+	 * Write any remaining changes and close the log, in the background.
+	 * @return completes when the log is closed
+	 */
+	public CompletableFuture<Void> close() {
+		OPEN.remove(this);
+		return CompletableFuture.runAsync(() -> {
+			commit();
+			try {
+				channel.close();
+			}
+			catch(IOException e) {
+				LOGGER.warn("Unable to close ScoreIt write-ahead log -> {}", folder, e);
+			}
+		}, WRITER);
+	}
+
+	/**
+	 * Wait for every open log to be written, ie when the server is stopping.
+	 * @param timeoutSeconds
+	 */
+	public static void flush(long timeoutSeconds) {
+		try {
+			CompletableFuture.runAsync(() -> OPEN.forEach(WriteAheadLog::commit), WRITER).get(timeoutSeconds, TimeUnit.SECONDS);
+		}
+		catch(Exception e) {
+			LOGGER.warn("Timed out waiting for the ScoreIt write-ahead logs");
+		}
+	}
+
+	/*
+	 * On the writer thread: swap the buffers, split them at each rotation, then write and fsync.
+	 */
+	private void commit() {
+		int[] rotations;
+		int[] splits;
+		synchronized (lock) {
+			ByteBuffer swap = pending;
+			pending = writing;
+			writing = swap;
+			rotations = rotateTo.toIntArray();
+			splits = rotateAt.toIntArray();
+			rotateTo.clear();
+			rotateAt.clear();
+		}
+		try {
+			if (!channel.isOpen()) {
+				writing.clear();
+				return;
+			}
+			writing.flip();
+			for (int i = 0; i < rotations.length; i++) {
+				// the changes before the rotation are finished in the current log, which is kept until retired
+				ByteBuffer before = writing.duplicate();
+				before.limit(splits[i]);
+				while (before.hasRemaining()) {
+					channel.write(before);
+				}
+				channel.force(false);
+				channel.close();
+				writing.position(splits[i]);
+				segment = rotations[i];
+				channel = FileChannel.open(folder.resolve(PREFIX + segment + SUFFIX), StandardOpenOption.CREATE,
+						StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+			}
+			if (writing.hasRemaining()) {
+				while (writing.hasRemaining()) {
+					channel.write(writing);
+				}
+				channel.force(false);
+			}
+		}
+		catch(IOException e) {
+			LOGGER.error("Unable to write ScoreIt write-ahead log -> {}", folder, e);
+		}
+		finally {
+			writing.clear();
+		}
+	}
+
+	@Override
+	public void addPlayer(UUID uuid, String name) {
+		synchronized (lock) {
+			int start = begin(PLAYER);
+			putUuid(uuid);
+			putString(name);
+			end(start);
+		}
+	}
+
+	@Override
+	public void removePlayer(UUID uuid) {
+		synchronized (lock) {
+			int start = begin(REMOVE);
+			putUuid(uuid);
+			end(start);
+		}
+	}
+
+	@Override
+	public void addPoints(UUID uuid, int points) {
+		synchronized (lock) {
+			int start = begin(POINTS);
+			putUuid(uuid);
+			ensure(8);
+			pending.putInt(points);
+			pending.putInt(0);
+			end(start);
+		}
+	}
+
+	@Override
+	public void addPoints(UUID uuid, int points, Item item, int count) {
+		synchronized (lock) {
+			int id = defineItem(item);
+			int start = begin(POINTS);
+			putUuid(uuid);
+			ensure(16);
+			pending.putInt(points);
+			pending.putInt(1);
+			pending.putInt(id);
+			pending.putInt(count);
+			end(start);
+		}
+	}
+
+	@Override
+	public void addPoints(UUID uuid, int points, Reference2IntMap<Item> itemCounts) {
+		synchronized (lock) {
+			for (Reference2IntMap.Entry<Item> entry : itemCounts.reference2IntEntrySet()) {
+				defineItem(entry.getKey());
+			}
+			int start = begin(POINTS);
+			putUuid(uuid);
+			ensure(8 + itemCounts.size() * 8);
+			pending.putInt(points);
+			pending.putInt(itemCounts.size());
+			for (Reference2IntMap.Entry<Item> entry : itemCounts.reference2IntEntrySet()) {
+				pending.putInt(items.getInt(entry.getKey()));
+				pending.putInt(entry.getIntValue());
+			}
+			end(start);
+		}
+	}
+
+	@Override
+	public void setTeam(UUID uuid, String team) {
+		synchronized (lock) {
+			int start = begin(TEAM);
+			putUuid(uuid);
+			ensure(1);
+			pending.put((byte) (team == null ? 0 : 1));
+			if (team != null) {
+				putString(team);
+			}
+			end(start);
+		}
+	}
+
+	@Override
+	public void setState(GameState state) {
+		synchronized (lock) {
+			int start = begin(STATE);
+			ensure(1);
+			pending.put((byte) state.ordinal());
+			end(start);
+		}
+	}
+
+	@Override
+	public void reset() {
+		synchronized (lock) {
+			end(begin(RESET));
+		}
+	}
+
+	/*
+	 * Items are logged by registry name the first time they appear in a file, and by a small id after that.
+	 */
+	private int defineItem(Item item) {
+		int id = items.getInt(item);
+		if (id < 0) {
+			id = items.size();
+			items.put(item, id);
+			int start = begin(ITEM);
+			ensure(4);
+			pending.putInt(id);
+			putString(Registry.ITEM.getKey(item).toString());
+			end(start);
+		}
+		return id;
+	}
+
+	private int begin(byte type) {
+		ensure(HEADER_BYTES + 1);
+		int start = pending.position();
+		pending.position(start + HEADER_BYTES);
+		pending.put(type);
+		return start;
+	}
+
+	private void end(int start) {
+		int length = pending.position() - start - HEADER_BYTES;
+		crc.reset();
+		crc.update(pending.array(), start + HEADER_BYTES, length);
+		pending.putInt(start, length);
+		pending.putInt(start + 4, (int) crc.getValue());
+	}
+
+	private void putUuid(UUID uuid) {
+		ensure(16);
+		pending.putLong(uuid.getMostSignificantBits());
+		pending.putLong(uuid.getLeastSignificantBits());
+	}
+
+	private void putString(String value) {
+		byte[] bytes = String.valueOf(value).getBytes(StandardCharsets.UTF_8);
+		ensure(2 + bytes.length);
+		pending.putShort((short) bytes.length);
+		pending.put(bytes);
+	}
+
+	private void ensure(int bytes) {
+		if (pending.remaining() < bytes) {
+			ByteBuffer larger = ByteBuffer.allocate(Math.max(pending.capacity() * 2, pending.position() + bytes));
+			pending.flip();
+			larger.put(pending);
+			pending = larger;
+		}
+	}
+
+	/**
+	 * Apply each complete, intact record of the file to the scoreboard.
+	 * @param file
+	 * @param scoreboard
+	 * @return the length of the valid records
+	 * @throws IOException
+	 */
+	private static long replay(Path file, Scoreboard scoreboard) throws IOException {
+		ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+		Int2ObjectOpenHashMap<Item> dictionary = new Int2ObjectOpenHashMap<>();
+		CRC32 crc = new CRC32();
+		int records = 0;
+		while (buffer.remaining() >= HEADER_BYTES) {
+			int start = buffer.position();
+			int length = buffer.getInt();
+			int checksum = buffer.getInt();
+			if (length <= 0 || length > buffer.remaining()) {
+				buffer.position(start);
+				break;
+			}
+			crc.reset();
+			crc.update(buffer.array(), buffer.position(), length);
+			if ((int) crc.getValue() != checksum) {
+				buffer.position(start);
+				break;
+			}
+			ByteBuffer body = ByteBuffer.wrap(buffer.array(), buffer.position(), length).slice();
+			try {
+				apply(body, scoreboard, dictionary);
+			}
+			catch(BufferUnderflowException | IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+				LOGGER.error("Invalid ScoreIt write-ahead log record at -> {} in -> {}", start, file);
+				buffer.position(start);
+				break;
+			}
+			buffer.position(buffer.position() + length);
+			records++;
+		}
+		if (buffer.hasRemaining()) {
+			LOGGER.warn("dropping torn ScoreIt write-ahead log tail of # bytes -> {} in -> {}", buffer.remaining(), file);
+		}
+		LOGGER.info("replayed # of ScoreIt write-ahead log records -> {} for game -> {}", records, scoreboard.getName());
+		return buffer.position();
+	}
+
+	private static void apply(ByteBuffer body, Scoreboard scoreboard, Int2ObjectOpenHashMap<Item> dictionary) {
+		byte type = body.get();
+		switch (type) {
+		case ITEM:
+			int id = body.getInt();
+			Item item = Registry.ITEM.getOptional(new ResourceLocation(getString(body))).orElse(null);
+			if (item == null) {
+				LOGGER.warn("dropping logged counts for an unknown item");
+			}
+			dictionary.put(id, item);
+			break;
+		case PLAYER:
+			scoreboard.addPlayer(getUuid(body), getString(body));
+			break;
+		case REMOVE:
+			scoreboard.removePlayer(getUuid(body));
+			break;
+		case POINTS:
+			UUID uuid = getUuid(body);
+			int points = body.getInt();
+			int count = body.getInt();
+			Reference2IntOpenHashMap<Item> itemCounts = new Reference2IntOpenHashMap<>(count);
+			for (int i = 0; i < count; i++) {
+				Item counted = dictionary.get(body.getInt());
+				int n = body.getInt();
+				if (counted != null) {
+					itemCounts.addTo(counted, n);
+				}
+			}
+			scoreboard.addPoints(uuid, points, itemCounts);
+			break;
+		case TEAM:
+			UUID member = getUuid(body);
+			scoreboard.setTeam(member, body.get() == 0 ? null : getString(body));
+			break;
+		case STATE:
+			GameState state = GameState.values()[body.get()];
+			if (state == GameState.STARTED) {
+				scoreboard.start();
+			}
+			else if (state == GameState.STOPPED) {
+				scoreboard.stop();
+			}
+			else if (state == GameState.ENDED) {
+				scoreboard.end();
+			}
+			break;
+		case RESET:
+			scoreboard.reset();
+			break;
+		default:
+			throw new IllegalArgumentException("unknown record type -> " + type);
+		}
+	}
+
+	private static UUID getUuid(ByteBuffer body) {
+		return new UUID(body.getLong(), body.getLong());
+	}
+
+	private static String getString(ByteBuffer body) {
+		byte[] bytes = new byte[body.getShort() & 0xFFFF];
+		body.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private static void deleteBefore(Path folder, int segment) {
+		for (int index : listLogs(folder)) {
+			if (index < segment) {
+				try {
+					Files.deleteIfExists(folder.resolve(PREFIX + index + SUFFIX));
+				}
+				catch(IOException e) {
+					LOGGER.warn("Unable to delete stale ScoreIt write-ahead log -> {}", index, e);
+				}
+			}
+		}
+	}
+
+	/**
+	 * 
+	 * @param folder
+	 * @return the segments of the logs in ascending order
+	 */
+	private static List<Integer> listLogs(Path folder) {
+		List<Integer> indexes = new ArrayList<>();
+		try (Stream<Path> files = Files.list(folder)) {
+			files.map(file -> file.getFileName().toString())
+			.filter(name -> name.startsWith(PREFIX) && name.endsWith(SUFFIX))
+			.forEach(name -> {
+				try {
+					indexes.add(Integer.parseInt(name.substring(PREFIX.length(), name.length() - SUFFIX.length())));
+				}
+				catch(NumberFormatException e) {
+					LOGGER.warn("ignoring unknown ScoreIt write-ahead log -> {}", name);
+				}
+			});
+		}
+		catch(IOException e) {
+			LOGGER.warn("Unable to list ScoreIt write-ahead logs in -> {}", folder, e);
+		}
+		Collections.sort(indexes);
+		return indexes;
+	}
+}
@@ -0,0 +1,342 @@
+/*
+ * This file is part of  Score It.
+ * Copyright (c) 2021, Mark Gottschling (gottsch)
+ *
+ * All rights reserved.
+ *
+ * Score It is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Score It is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Protect It.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+package com.someguyssoftware.scoreit.scoreboard;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.someguyssoftware.scoreit.ScoreIt;
+import com.someguyssoftware.scoreit.persistence.GameStore;
+import com.someguyssoftware.scoreit.persistence.ScoreItSavedData;
+
+import net.minecraft.server.MinecraftServer;
+import net.minecraftforge.fml.server.ServerLifecycleHooks;
+
+/**
+ * The named games on the server. Each game has its own scoreboard, state and files.
+ * A game is loaded when it is first used and unloaded again once it has been idle, ie not running and
+ * unchanged, for a whole save interval, so idle games cost neither memory nor save time.
+ * Games are read from disk in the background. The commands wait for the load, while the per-tick paths
+ * (see getOrLoadLater()) only start it and carry on.
+ * The default game always exists, is loaded when the server starts, and is never unloaded.
+ * 
+ * @author Mark Gottschling on Oct 17, 2026
+ *
+ */
+public class Games {
+	public static Logger LOGGER = LogManager.getLogger(ScoreIt.NAME);
+
+	public static final String DEFAULT_GAME = "default";
+	private static final Pattern VALID_NAME = Pattern.compile("[a-z0-9_\\-]{1,32}");
+
+	private static final Map<String, Game> LOADED = new ConcurrentHashMap<>();
+	// the games being read from disk
+	private static final Map<String, CompletableFuture<Game>> LOADING = new ConcurrentHashMap<>();
+
+	/*
+	 * A loaded game.
+	 */
+	private static class Game {
+		final Scoreboard scoreboard;
+		// null without a server (ie in benchmarks), the game is kept in memory only
+		final GameStore store;
+		// the scoreboard version as of the last save
+		long savedVersion;
+
+		Game(Scoreboard scoreboard, GameStore store) {
+			this.scoreboard = scoreboard;
+			this.store = store;
+			this.savedVersion = scoreboard.getVersion();
+		}
+	}
+
+	/**
+	 *
+	 */
+	private Games() { }
+
+	/**
+	 * 
+	 * @return the default game
+	 */
+	public static Scoreboard getDefault() {
+		Game game = LOADED.get(DEFAULT_GAME);
+		if (game == null) {
+			game = load(DEFAULT_GAME);
+		}
+		return game.scoreboard;
+	}
+
+	/**
+	 * Get a game, loading it if required and waiting for the load, ie in a command.
+	 * @param name
+	 * @return the game, or empty if there is no game by that name
+	 */
+	public static Optional<Scoreboard> get(String name) {
+		Game game = LOADED.get(name);
+		if (game != null) {
+			return Optional.of(game.scoreboard);
+		}
+		if (!exists(name)) {
+			return Optional.empty();
+		}
+		return Optional.of(load(name).scoreboard);
+	}
+
+	/**
+	 * Get a game if it is loaded, otherwise start loading it in the background, ie on the server tick.
+	 * A game that is not loaded can't be running, so the caller can simply retry later.
+	 * @param name
+	 * @return the game, or empty if it is not loaded yet or there is no game by that name
+	 */
+	public static Optional<Scoreboard> getOrLoadLater(String name) {
+		Game game = LOADED.get(name);
+		if (game != null) {
+			return Optional.of(game.scoreboard);
+		}
+		if (exists(name)) {
+			loadAsync(name);
+		}
+		return Optional.empty();
+	}
+
+	/**
+	 * 
+	 * @param name
+	 * @return whether there is a game by that name, loaded or not
+	 */
+	public static boolean exists(String name) {
+		return DEFAULT_GAME.equals(name) || LOADED.containsKey(name) || getCatalog().map(catalog -> catalog.hasGame(name)).orElse(false);
+	}
+
+	/**
+	 * 
+	 * @param name
+	 * @return whether the game is loaded and its saved base could not be read, so it is not saved (see GameStore)
+	 */
+	public static boolean isDamaged(String name) {
+		Game game = LOADED.get(name);
+		return game != null && game.store != null && game.store.isDamaged();
+	}
+
+	/**
+	 * Get a game only if it is already loaded, ie to poll its state without loading an idle game.
+	 * A running game is always loaded.
+	 * @param name
+	 * @return
+	 */
+	public static Optional<Scoreboard> getIfLoaded(String name) {
+		Game game = LOADED.get(name);
+		return game == null ? Optional.empty() : Optional.of(game.scoreboard);
+	}
+
+	/**
+	 * 
+	 * @param name
+	 * @return false if the name is invalid or a game by that name already exists
+	 */
+	public static boolean create(String name) {
+		if (!isValidName(name) || DEFAULT_GAME.equals(name) || getNames().contains(name)) {
+			return false;
+		}
+		getCatalog().ifPresent(catalog -> catalog.addGame(name));
+		load(name);
+		return true;
+	}
+
+	/**
+	 * Delete a game and its files. The default game can only be reset.
+	 * @param name
+	 * @return false if there is no game by that name
+	 */
+	public static boolean delete(String name) {
+		if (DEFAULT_GAME.equals(name) || !getNames().contains(name)) {
+			return false;
+		}
+		// let a load in progress finish, so it can't install the game after it is deleted
+		awaitLoad(LOADING.get(name));
+		Game game = LOADED.remove(name);
+		if (game != null) {
+			// the log must be closed before its folder is deleted
+			close(game).join();
+		}
+		getCatalog().ifPresent(catalog -> catalog.removeGame(name));
+		getStore(name).ifPresent(GameStore::delete);
+		return true;
+	}
+
+	/**
+	 * 
+	 * @return the names of all the games, loaded or not, in name order
+	 */
+	public static Collection<String> getNames() {
+		TreeSet<String> names = new TreeSet<>();
+		names.add(DEFAULT_GAME);
+		getCatalog().ifPresent(catalog -> names.addAll(catalog.getGames()));
+		return names;
+	}
+
+	/**
+	 * 
+	 * @return the games that are currently loaded
+	 */
+	public static List<Scoreboard> getLoaded() {
+		List<Scoreboard> scoreboards = new ArrayList<>(LOADED.size());
+		LOADED.values().forEach(game -> scoreboards.add(game.scoreboard));
+		return scoreboards;
+	}
+
+	public static boolean isValidName(String name) {
+		return name != null && VALID_NAME.matcher(name).matches();
+	}
+
+	/**
+	 * Save the changes to a single game now, ie after a change of state.
+	 * @param scoreboard
+	 */
+	public static void save(Scoreboard scoreboard) {
+		Game game = LOADED.get(scoreboard.getName());
+		if (game != null && game.scoreboard == scoreboard && game.store != null) {
+			game.store.save(scoreboard);
+			game.savedVersion = scoreboard.getVersion();
+		}
+	}
+
+	/**
+	 * Save the changes to every loaded game, then unload the games that have been idle since the previous save.
+	 */
+	public static void save() {
+		Iterator<Game> iterator = LOADED.values().iterator();
+		while (iterator.hasNext()) {
+			Game game = iterator.next();
+			if (game.store == null) {
+				continue;
+			}
+			boolean idle = game.scoreboard.getVersion() == game.savedVersion && !game.scoreboard.isRunning();
+			game.store.save(game.scoreboard);
+			game.savedVersion = game.scoreboard.getVersion();
+			if (idle && !DEFAULT_GAME.equals(game.scoreboard.getName())) {
+				iterator.remove();
+				close(game);
+				LOGGER.debug("unloaded idle game -> {}", game.scoreboard.getName());
+			}
+		}
+	}
+
+	/**
+	 * Forget the loaded games, ie when the server has stopped.
+	 */
+	public static void clear() {
+		LOADING.values().forEach(Games::awaitLoad);
+		LOADED.values().forEach(Games::close);
+		LOADED.clear();
+	}
+
+	/*
+	 * Stop logging the game's changes and close its write-ahead log.
+	 */
+	private static CompletableFuture<Void> close(Game game) {
+		game.scoreboard.setJournal(ScoreJournal.NONE);
+		return game.store == null ? CompletableFuture.completedFuture(null) : game.store.close();
+	}
+
+	private static Game load(String name) {
+		return loadAsync(name).join();
+	}
+
+	/*
+	 * Start loading a game in the background, unless it is already loaded or loading.
+	 * The files are read on the save thread (see GameStore), never while holding a map lock or on the server thread.
+	 */
+	private static CompletableFuture<Game> loadAsync(String name) {
+		Game game = LOADED.get(name);
+		if (game != null) {
+			return CompletableFuture.completedFuture(game);
+		}
+		CompletableFuture<Game> loading = new CompletableFuture<>();
+		CompletableFuture<Game> existing = LOADING.putIfAbsent(name, loading);
+		if (existing != null) {
+			return existing;
+		}
+		// a load may have finished since the check above
+		game = LOADED.get(name);
+		if (game != null) {
+			LOADING.remove(name, loading);
+			loading.complete(game);
+			return loading;
+		}
+		Scoreboard scoreboard = new Scoreboard(name);
+		Optional<GameStore> store = getStore(name);
+		CompletableFuture<Void> read = store.isPresent() ? store.get().load(scoreboard) : CompletableFuture.completedFuture(null);
+		read.whenComplete((loaded, e) -> {
+			if (e != null) {
+				LOGGER.error("Unable to load ScoreIt game -> {}", name, e);
+				LOADING.remove(name, loading);
+				loading.completeExceptionally(e);
+				return;
+			}
+			Game installed = install(new Game(scoreboard, store.orElse(null)));
+			LOADING.remove(name, loading);
+			loading.complete(installed);
+			LOGGER.debug("loaded game -> {} with # of players -> {}", name, scoreboard.size());
+		});
+		return loading;
+	}
+
+	/*
+	 * Make a loaded game current, unless the game was installed meanwhile, in which case the copy just loaded is dropped.
+	 */
+	private static Game install(Game game) {
+		Game existing = LOADED.putIfAbsent(game.scoreboard.getName(), game);
+		if (existing != null) {
+			close(game);
+			return existing;
+		}
+		return game;
+	}
+
+	private static void awaitLoad(CompletableFuture<Game> loading) {
+		if (loading != null) {
+			// a failed load was already logged
+			loading.exceptionally(e -> null).join();
+		}
+	}
+
+	private static Optional<GameStore> getStore(String name) {
+		MinecraftServer server = ServerLifecycleHooks.getCurrentServer();
+		return server == null ? Optional.empty() : Optional.of(ScoreItSavedData.getGameStore(server, name));
+	}
+
+	private static Optional<ScoreItSavedData> getCatalog() {
+		MinecraftServer server = ServerLifecycleHooks.getCurrentServer();
+		return server == null ? Optional.empty() : Optional.of(ScoreItSavedData.get(server.overworld()));
+	}
+}
@@ -0,0 +1,171 @@
+/*
+ * This file is part of  Score It.
+ * Copyright (c) 2021, Mark Gottschling (gottsch)
+ *
+ * All rights reserved.
+ *
+ * Score It is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Score It is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Protect It.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+package com.someguyssoftware.scoreit.scoreboard;
+
+import java.util.Optional;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.someguyssoftware.scoreit.ScoreIt;
+
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import net.minecraft.item.Item;
+import net.minecraft.nbt.INBT;
+import net.minecraft.nbt.ListNBT;
+import net.minecraft.nbt.StringNBT;
+import net.minecraft.util.ResourceLocation;
+import net.minecraft.util.registry.Registry;
+
+/**
+ * The items named in a saved scoreboard or delta, each stored once. Player scores refer to an item by its index
+ * in the dictionary, so an item's name is written and resolved once per file instead of once per player.
+ * Registry ids are not saved directly, as they can change between runs.
+ * <p>
+ * A dictionary can be extended, keeping every index of the original, so that item counts encoded against a loaded
+ * dictionary can be saved again as they are.
+ *
+ * @author Mark Gottschling on Oct 17, 2026
+ *
+ */
+public final class ItemDictionary {
+	public static Logger LOGGER = LogManager.getLogger(ScoreIt.NAME);
+
+	// dictionary index -> item registry id, -1 if the item is no longer registered
+	private final IntArrayList ids = new IntArrayList();
+	// item registry id -> dictionary index
+	private final Int2IntOpenHashMap indexes = new Int2IntOpenHashMap();
+	// the names of the unknown items, so they are saved again unchanged
+	private final Int2ObjectOpenHashMap<String> unknownNames = new Int2ObjectOpenHashMap<>();
+	// the dictionary whose indexes this one keeps
+	private final ItemDictionary origin;
+
+	public ItemDictionary() {
+		indexes.defaultReturnValue(-1);
+		origin = this;
+	}
+
+	private ItemDictionary(ItemDictionary source) {
+		ids.addAll(source.ids);
+		indexes.putAll(source.indexes);
+		indexes.defaultReturnValue(-1);
+		unknownNames.putAll(source.unknownNames);
+		origin = source.origin;
+	}
+
+	/**
+	 * 
+	 * @return a new dictionary with the same indexes as this one, that more items can be added to
+	 */
+	public ItemDictionary extend() {
+		return new ItemDictionary(this);
+	}
+
+	/**
+	 * 
+	 * @param dictionary
+	 * @return whether every index of the dictionary means the same item in this one
+	 */
+	public boolean isExtensionOf(ItemDictionary dictionary) {
+		return dictionary != null && (this == dictionary || origin == dictionary);
+	}
+
+	/**
+	 * Re-encode (index, count) pairs from another dictionary into this one. Counts of unknown items are dropped.
+	 * @param pairs
+	 * @param source
+	 * @return
+	 */
+	public int[] translate(int[] pairs, ItemDictionary source) {
+		IntArrayList translated = new IntArrayList(pairs.length);
+		for (int i = 0; i + 1 < pairs.length; i += 2) {
+			int id = source.getRegistryId(pairs[i]);
+			if (id >= 0) {
+				translated.add(indexOf(id));
+				translated.add(pairs[i + 1]);
+			}
+		}
+		return translated.toIntArray();
+	}
+
+	/**
+	 * 
+	 * @param registryId
+	 * @return the dictionary index of the item, adding it if required
+	 */
+	public int indexOf(int registryId) {
+		int index = indexes.get(registryId);
+		if (index < 0) {
+			index = ids.size();
+			ids.add(registryId);
+			indexes.put(registryId, index);
+		}
+		return index;
+	}
+
+	/**
+	 * 
+	 * @param index
+	 * @return the item registry id, or -1 if the index is invalid or the item is unknown
+	 */
+	public int getRegistryId(int index) {
+		return index >= 0 && index < ids.size() ? ids.getInt(index) : -1;
+	}
+
+	public int size() {
+		return ids.size();
+	}
+
+	public ListNBT save() {
+		ListNBT names = new ListNBT();
+		for (int i = 0; i < ids.size(); i++) {
+			int id = ids.getInt(i);
+			names.add(StringNBT.valueOf(id < 0 ? unknownNames.get(i) : Registry.ITEM.getKey(Registry.ITEM.byId(id)).toString()));
+		}
+		return names;
+	}
+
+	/**
+	 * 
+	 * @param names
+	 * @return
+	 */
+	public static ItemDictionary load(ListNBT names) {
+		ItemDictionary dictionary = new ItemDictionary();
+		for (INBT name : names) {
+			ResourceLocation resource = ResourceLocation.tryParse(name.getAsString());
+			Optional<Item> item = resource == null ? Optional.empty() : Registry.ITEM.getOptional(resource);
+			// every name takes an index, known or not, so the saved indexes stay aligned
+			if (item.isPresent()) {
+				int id = Registry.ITEM.getId(item.get());
+				dictionary.indexes.putIfAbsent(id, dictionary.ids.size());
+				dictionary.ids.add(id);
+			}
+			else {
+				LOGGER.warn("ignoring counts for unknown item -> {}", name.getAsString());
+				dictionary.unknownNames.put(dictionary.ids.size(), name.getAsString());
+				dictionary.ids.add(-1);
+			}
+		}
+		return dictionary;
+	}
+}
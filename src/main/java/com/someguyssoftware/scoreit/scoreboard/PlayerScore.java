@@ -19,16 +19,26 @@
  */
 package com.someguyssoftware.scoreit.scoreboard;
 
-import java.util.HashMap;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
 
 import com.someguyssoftware.scoreit.ScoreIt;
 
-import net.minecraft.item.ItemStack;
+import it.unimi.dsi.fastutil.Hash;
+import it.unimi.dsi.fastutil.HashCommon;
+import it.unimi.dsi.fastutil.ints.Int2IntMap;
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
+import net.minecraft.item.Item;
 import net.minecraft.nbt.CompoundNBT;
 import net.minecraft.nbt.ListNBT;
 import net.minecraft.util.ResourceLocation;
+import net.minecraft.util.registry.Registry;
 
 /**
  * 
@@ -41,18 +51,37 @@ public class PlayerScore {
 	private static final String NAME_KEY = "name";
 	private static final String POINTS_KEY = "points";
 	private static final String COUNT_KEY = "count";
+	// the item counts before the item dictionary, a list of (name, count) compounds
 	private static final String COUNTS_KEY = "counts";
+	// the item counts as (dictionary index, count) pairs
+	private static final String ITEMS_KEY = "items";
+	private static final String TEAM_KEY = "team";
+	private static final String HISTORY_KEY = "history";
 	
-	private String uuid;
-	private String name;
-	private int points;
-	private Map<ResourceLocation, Integer> itemCounts;
+	private UUID uuid;
+	private volatile String name;
+	private volatile int points;
+	// the name of the player's team, or null
+	private volatile String team;
+	// item registry id -> count. primitive to avoid boxing on every deposit.
+	private Int2IntOpenHashMap itemCounts;
+	// the item counts as (dictionary index, count) pairs, as loaded or last saved, until the counts change. see hydrate()
+	private int[] encodedItems;
+	private ItemDictionary encodedDictionary;
+	// when the points were earned, or null if the history is not recorded
+	private ScoreHistory history;
+	// the persisted fields as last saved, reused by the saves until any of them changes
+	private Saved saved;
+	// changed since it was last persisted
+	private boolean dirty;
+	// this score's share of its scoreboard's running heap estimate
+	private long accountedBytes;
 
 	/**
 	 * 
 	 * @param uuid
 	 */
-	public PlayerScore(String uuid) {
+	public PlayerScore(UUID uuid) {
 		setUuid(uuid);
 	}
 
@@ -61,7 +90,7 @@ public class PlayerScore {
 	 * @param uuid
 	 * @param name
 	 */
-	public PlayerScore(String uuid, String name) {
+	public PlayerScore(UUID uuid, String name) {
 		this(uuid);
 		setName(name);
 	}
@@ -69,8 +98,10 @@ public class PlayerScore {
 	/**
 	 * 
 	 * @param nbt
+	 * @param dictionary the dictionary of the scoreboard or delta being loaded
+	 * @param historyCapacity the number of history buckets to keep, if it is larger than the saved history
 	 */
-	public static Optional<PlayerScore> load(CompoundNBT nbt) {
+	public static Optional<PlayerScore> load(CompoundNBT nbt, ItemDictionary dictionary, int historyCapacity) {
 		Optional<PlayerScore> optionalScore = Optional.empty();
 		try {
 			String uuid = nbt.getString(UUID_KEY);
@@ -78,7 +109,7 @@ public class PlayerScore {
 				throw new Exception("UUID is required.");
 			}
 			
-			PlayerScore score = new PlayerScore(uuid);
+			PlayerScore score = new PlayerScore(UUID.fromString(uuid));
 			
 			if (nbt.contains(NAME_KEY)) {
 				score.setName(nbt.getString(NAME_KEY));
@@ -88,15 +119,33 @@ public class PlayerScore {
 				score.setPoints(nbt.getInt(POINTS_KEY));
 			}			
 
-			if (nbt.contains(COUNTS_KEY)) {
+			if (nbt.contains(TEAM_KEY)) {
+				score.setTeam(nbt.getString(TEAM_KEY));
+			}
+
+			if (nbt.contains(ITEMS_KEY, 11)) {
+				// decoded on first use, as ranking only needs the points
+				score.encodedItems = nbt.getIntArray(ITEMS_KEY);
+				score.encodedDictionary = dictionary;
+			}
+			else if (nbt.contains(COUNTS_KEY)) {
 				ListNBT list = nbt.getList(COUNTS_KEY, 10);
 				list.forEach(element -> {
 					ResourceLocation r = new ResourceLocation(((CompoundNBT)element).getString(NAME_KEY));
-					ScoreIt.LOGGER.info("loading resource -> {}", r.toString());
-					Integer count = ((CompoundNBT)element).getInt(COUNT_KEY);
-					score.getItemCounts().put(r, count);
+					int count = ((CompoundNBT)element).getInt(COUNT_KEY);
+					Optional<Item> item = Registry.ITEM.getOptional(r);
+					if (item.isPresent()) {
+						score.addItemCount(item.get(), count);
+					}
+					else {
+						ScoreIt.LOGGER.warn("dropping count for unknown item -> {}", r.toString());
+					}
 				});
 			}			
+
+			if (nbt.contains(HISTORY_KEY)) {
+				score.history = ScoreHistory.load(nbt.getCompound(HISTORY_KEY), historyCapacity);
+			}
 			optionalScore = Optional.of(score);
 		}
 		catch(Exception e) {
@@ -108,31 +157,76 @@ public class PlayerScore {
 	/**
 	 * 
 	 * @param nbt
+	 * @param dictionary the dictionary of the scoreboard or delta being saved
 	 * @return
 	 */
-	public CompoundNBT save(CompoundNBT nbt) {
-		nbt.putString(UUID_KEY, getUuid());
-		nbt.putString(NAME_KEY, getName());
-		nbt.putInt(POINTS_KEY, getPoints());
-		ListNBT countList = new ListNBT();
-		getItemCounts().forEach((resource, count) -> {
-			CompoundNBT countNBT = new CompoundNBT();
-			countNBT.putString(NAME_KEY, resource.toString());
-			ScoreIt.LOGGER.info("saving resource -> {}", resource.toString());
-			ScoreIt.LOGGER.info("saving count -> {}", count);
-			countNBT.putInt(COUNT_KEY, count);
-			countList.add(countNBT);
-		});
-		nbt.put(COUNTS_KEY, countList);
-		return nbt;
+	public CompoundNBT save(CompoundNBT nbt, ItemDictionary dictionary) {
+		// written right away, so the history needn't be frozen
+		return toSaved(dictionary, history).write(nbt, dictionary, dictionary);
+	}
+
+	/**
+	 * The persisted fields, to be saved later on another thread. The record is kept and returned again until
+	 * the score changes, so a save only builds and encodes the records of the changed scores.
+	 * @param dictionary the scoreboard's dictionary, which the item counts are encoded against
+	 * @return
+	 */
+	Saved snapshot(ItemDictionary dictionary) {
+		Saved record = saved;
+		if (record == null || (record.items != null && !dictionary.isExtensionOf(record.dictionary))) {
+			record = toSaved(dictionary, history == null ? null : history.freeze());
+			if (record.items != null) {
+				// still valid when the counts are hydrated, until they change
+				encodedItems = record.items;
+				encodedDictionary = dictionary;
+			}
+			saved = record;
+		}
+		return record;
+	}
+
+	private Saved toSaved(ItemDictionary dictionary, ScoreHistory history) {
+		int[] items = null;
+		if (encodedItems != null) {
+			items = dictionary.isExtensionOf(encodedDictionary) ? encodedItems : dictionary.translate(encodedItems, encodedDictionary);
+		}
+		else if (itemCounts != null && !itemCounts.isEmpty()) {
+			items = encode(dictionary);
+		}
+		return new Saved(uuid, name, points, team, items, dictionary, history);
+	}
+
+	/*
+	 * Re-encode the item counts against another dictionary, ie the scoreboard's after loading from a delta.
+	 */
+	void translateItems(ItemDictionary dictionary) {
+		if (encodedItems != null && !dictionary.isExtensionOf(encodedDictionary)) {
+			encodedItems = dictionary.translate(encodedItems, encodedDictionary);
+			encodedDictionary = dictionary;
+			saved = null;
+		}
 	}
 
-	public String getUuid() {
+	/*
+	 * The item counts as (dictionary index, count) pairs.
+	 */
+	private int[] encode(ItemDictionary dictionary) {
+		int[] pairs = new int[itemCounts.size() * 2];
+		int i = 0;
+		for (Int2IntMap.Entry entry : itemCounts.int2IntEntrySet()) {
+			pairs[i++] = dictionary.indexOf(entry.getIntKey());
+			pairs[i++] = entry.getIntValue();
+		}
+		return pairs;
+	}
+
+	public UUID getUuid() {
 		return uuid;
 	}
 
-	public void setUuid(String uuid) {
+	public void setUuid(UUID uuid) {
 		this.uuid = uuid;
+		saved = null;
 	}
 
 	public String getName() {
@@ -141,34 +235,308 @@ public class PlayerScore {
 
 	public void setName(String name) {
 		this.name = name;
+		saved = null;
 	}
 
 	public int getPoints() {
 		return points;
 	}
 
+	/**
+	 * Note: once registered with the Scoreboard, points must only be changed through Scoreboard.addPoints()
+	 * so that the rankings stay in order.
+	 * @param points
+	 */
 	public void setPoints(int points) {
 		this.points = points;
+		saved = null;
+	}
+
+	public String getTeam() {
+		return team;
+	}
+
+	/**
+	 * Note: once registered with the Scoreboard, the team must only be changed through Scoreboard.setTeam()
+	 * so that the team totals stay correct.
+	 * @param team
+	 */
+	public void setTeam(String team) {
+		this.team = team;
+		saved = null;
 	}
 
+	/**
+	 * 
+	 * @return a read-only view of the item counts, keyed by item registry name
+	 */
 	public Map<ResourceLocation, Integer> getItemCounts() {
+		return new ItemCountsView(getCounts());
+	}
+
+	/**
+	 * Replaces the item counts. Items that are not registered are ignored.
+	 * @param itemCounts
+	 */
+	public void setItemCounts(Map<ResourceLocation, Integer> itemCounts) {
+		getCounts().clear();
+		countsChanged();
+		itemCounts.forEach((resource, count) -> {
+			Registry.ITEM.getOptional(resource).ifPresent(item -> addItemCount(item, count));
+		});
+	}
+
+	/**
+	 * 
+	 * @param item
+	 * @return
+	 */
+	public int getItemCount(Item item) {
+		if (itemCounts == null && encodedItems != null) {
+			hydrate();
+		}
+		return itemCounts == null ? 0 : itemCounts.get(Registry.ITEM.getId(item));
+	}
+
+	/**
+	 * 
+	 * @param item
+	 * @param count
+	 */
+	public void addItemCount(Item item, int count) {
+		getCounts().addTo(Registry.ITEM.getId(item), count);
+		countsChanged();
+	}
+
+	private Int2IntOpenHashMap getCounts() {
 		if (itemCounts == null) {
-			itemCounts = new HashMap<>();
+			if (encodedItems != null) {
+				hydrate();
+			}
+			else {
+				itemCounts = new Int2IntOpenHashMap(4);
+			}
 		}
 		return itemCounts;
 	}
 
-	public void setItemCounts(Map<ResourceLocation, Integer> itemCounts) {
-		this.itemCounts = itemCounts;
+	/*
+	 * The encoded counts no longer match, so the next save encodes them again.
+	 */
+	private void countsChanged() {
+		encodedItems = null;
+		encodedDictionary = null;
+		saved = null;
 	}
 
+	/*
+	 * Decode the loaded item counts, the first time they are used. The encoded counts are kept for the saves.
+	 */
+	private void hydrate() {
+		int[] pairs = encodedItems;
+		ItemDictionary dictionary = encodedDictionary;
+		itemCounts = new Int2IntOpenHashMap(Math.max(4, pairs.length / 2));
+		for (int i = 0; i + 1 < pairs.length; i += 2) {
+			int id = dictionary.getRegistryId(pairs[i]);
+			if (id >= 0) {
+				itemCounts.addTo(id, pairs[i + 1]);
+			}
+		}
+	}
+
+	/**
+	 * Note: once registered with the Scoreboard, the history must only be read through Scoreboard.getHistory().
+	 * @return the history or null if none has been recorded
+	 */
+	public ScoreHistory getHistory() {
+		return history;
+	}
+
+	/**
+	 * Record the points in the history, creating it with the capacity on the first deposit.
+	 * @param tick
+	 * @param points
+	 * @param capacity
+	 */
+	public void recordHistory(long tick, int points, int capacity) {
+		if (history == null) {
+			history = new ScoreHistory(capacity);
+		}
+		history.record(tick, points);
+		saved = null;
+	}
+
+	/**
+	 * A rough estimate of the heap used by this score, ie for metrics.
+	 * @return
+	 */
+	public long estimateHeapBytes() {
+		// object header and fields, plus the uuid
+		long bytes = 48 + 32;
+		String n = name;
+		if (n != null) {
+			bytes += 40 + n.length() * 2L;
+		}
+		int[] encoded = encodedItems;
+		if (encoded != null) {
+			bytes += 16 + encoded.length * 4L;
+		}
+		Int2IntOpenHashMap counts = itemCounts;
+		if (counts != null) {
+			// map object plus its key and value arrays
+			bytes += 64 + 2L * 4 * (HashCommon.arraySize(counts.size(), Hash.DEFAULT_LOAD_FACTOR) + 1);
+		}
+		ScoreHistory h = history;
+		if (h != null) {
+			bytes += h.estimateHeapBytes();
+		}
+		return bytes;
+	}
+
+	long getAccountedBytes() {
+		return accountedBytes;
+	}
+
+	void setAccountedBytes(long accountedBytes) {
+		this.accountedBytes = accountedBytes;
+	}
+
+	public boolean isDirty() {
+		return dirty;
+	}
+
+	public void setDirty(boolean dirty) {
+		this.dirty = dirty;
+	}
+
+	/**
+	 * Add to the points, saturating at the int range so that a large total never wraps around to a negative score.
+	 * @param points
+	 */
 	public void addPoints(int points) {
-		this.points += points;		
+		long total = (long) this.points + points;
+		this.points = (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, total));
+		saved = null;
 	}
 
 	@Override
 	public String toString() {
-		return "PlayerScore [uuid=" + uuid + ", name=" + name + ", points=" + points + ", itemCounts=" + itemCounts
+		// never decodes the item counts, so logging a score doesn't change its memory use
+		int[] encoded = encodedItems;
+		Int2IntOpenHashMap counts = itemCounts;
+		String items = counts == null && encoded != null ? "not hydrated (" + encoded.length / 2 + " encoded)" : counts == null ? "{}" : counts.toString();
+		return "PlayerScore [uuid=" + uuid + ", name=" + name + ", points=" + points + ", team=" + team + ", itemCounts=" + items
 				+ "]";
 	}
+
+	/*
+	 * The persisted fields of a score at one save. Immutable, so it can be shared with the thread that writes it,
+	 * and reused by the next save when the score hasn't changed.
+	 */
+	static final class Saved {
+		private final UUID uuid;
+		private final String name;
+		private final int points;
+		private final String team;
+		// never modified, it can be shared with the score
+		private final int[] items;
+		private final ItemDictionary dictionary;
+		// frozen, so it shares the arrays copy-on-write
+		private final ScoreHistory history;
+
+		private Saved(UUID uuid, String name, int points, String team, int[] items, ItemDictionary dictionary, ScoreHistory history) {
+			this.uuid = uuid;
+			this.name = name;
+			this.points = points;
+			this.team = team;
+			this.items = items;
+			this.dictionary = dictionary;
+			this.history = history;
+		}
+
+		/**
+		 * 
+		 * @param nbt
+		 * @param source a dictionary the items are encoded against, ie a copy of the scoreboard's taken with the record
+		 * @param target the dictionary of the scoreboard or delta being saved
+		 * @return
+		 */
+		CompoundNBT write(CompoundNBT nbt, ItemDictionary source, ItemDictionary target) {
+			nbt.putString(UUID_KEY, uuid.toString());
+			nbt.putString(NAME_KEY, name);
+			nbt.putInt(POINTS_KEY, points);
+			if (team != null) {
+				nbt.putString(TEAM_KEY, team);
+			}
+			if (items != null) {
+				nbt.putIntArray(ITEMS_KEY, target.isExtensionOf(source) ? items : target.translate(items, source));
+			}
+			if (history != null) {
+				nbt.put(HISTORY_KEY, history.save(new CompoundNBT()));
+			}
+			return nbt;
+		}
+	}
+
+	/*
+	 * Read-only Map view over the primitive item counts, translating registry ids to registry names.
+	 */
+	private static class ItemCountsView extends AbstractMap<ResourceLocation, Integer> {
+		private final Int2IntMap counts;
+
+		ItemCountsView(Int2IntMap counts) {
+			this.counts = counts;
+		}
+
+		@Override
+		public int size() {
+			return counts.size();
+		}
+
+		@Override
+		public Integer get(Object key) {
+			if (!(key instanceof ResourceLocation)) {
+				return null;
+			}
+			Optional<Item> item = Registry.ITEM.getOptional((ResourceLocation)key);
+			if (!item.isPresent()) {
+				return null;
+			}
+			int id = Registry.ITEM.getId(item.get());
+			return counts.containsKey(id) ? counts.get(id) : null;
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			return get(key) != null;
+		}
+
+		@Override
+		public Set<Map.Entry<ResourceLocation, Integer>> entrySet() {
+			return new AbstractSet<Map.Entry<ResourceLocation, Integer>>() {
+				@Override
+				public int size() {
+					return counts.size();
+				}
+
+				@Override
+				public Iterator<Map.Entry<ResourceLocation, Integer>> iterator() {
+					ObjectIterator<Int2IntMap.Entry> iterator = counts.int2IntEntrySet().iterator();
+					return new Iterator<Map.Entry<ResourceLocation, Integer>>() {
+						@Override
+						public boolean hasNext() {
+							return iterator.hasNext();
+						}
+
+						@Override
+						public Map.Entry<ResourceLocation, Integer> next() {
+							Int2IntMap.Entry entry = iterator.next();
+							ResourceLocation name = Registry.ITEM.getKey(Registry.ITEM.byId(entry.getIntKey()));
+							return new AbstractMap.SimpleImmutableEntry<>(name, entry.getIntValue());
+						}
+					};
+				}
+			};
+		}
+	}
 }
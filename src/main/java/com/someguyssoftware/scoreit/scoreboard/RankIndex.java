@@ -0,0 +1,316 @@
+/*
+ * This file is part of  Score It.
+ * Copyright (c) 2021, Mark Gottschling (gottsch)
+ *
+ * All rights reserved.
+ *
+ * Score It is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Score It is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Protect It.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+package com.someguyssoftware.scoreit.scoreboard;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * An order-statistic tree (a size-augmented treap) of PlayerScores, ordered by points descending and then by uuid.
+ * Insert, remove, rank-of and select-by-rank are all O(log n).
+ * <p>
+ * A PlayerScore is located by its current points, so it must be removed from the index <em>before</em> its
+ * points are changed and re-added afterwards.
+ * <p>
+ * copy() is O(1): the copy shares the nodes, and from then on both the copy and this index copy a shared node
+ * before changing it. So an update only allocates along its O(log n) path when it touches nodes shared with a copy.
+ *
+ * @author Mark Gottschling on Oct 17, 2026
+ *
+ */
+class RankIndex {
+
+	private static final class Node {
+		final PlayerScore score;
+		final int points;
+		final int priority;
+		// the index that may change this node in place, any other index has to copy it first
+		final Object owner;
+		int size = 1;
+		Node left;
+		Node right;
+
+		Node(PlayerScore score, int priority, Object owner) {
+			this.score = score;
+			this.points = score.getPoints();
+			this.priority = priority;
+			this.owner = owner;
+		}
+
+		Node(Node node, Object owner) {
+			this.score = node.score;
+			this.points = node.points;
+			this.priority = node.priority;
+			this.owner = owner;
+			this.size = node.size;
+			this.left = node.left;
+			this.right = node.right;
+		}
+	}
+
+	private Node root;
+	private Object owner = new Object();
+	// xorshift state for node priorities
+	private int seed = 0x2545F491;
+
+	/**
+	 *
+	 * @param score
+	 */
+	public void add(PlayerScore score) {
+		Node node = new Node(score, nextPriority(), owner);
+		Node[] parts = split(root, node.points, score.getUuid());
+		root = merge(merge(parts[0], node), parts[1]);
+	}
+
+	/**
+	 *
+	 * @param score
+	 * @return true if the score was found and removed
+	 */
+	public boolean remove(PlayerScore score) {
+		int before = size(root);
+		root = remove(root, score.getPoints(), score.getUuid());
+		return size(root) < before;
+	}
+
+	public void clear() {
+		root = null;
+	}
+
+	/**
+	 * Get a copy of the index in O(1). Later changes to either one are not seen by the other.
+	 * @return
+	 */
+	public RankIndex copy() {
+		RankIndex copy = new RankIndex();
+		copy.root = root;
+		copy.seed = seed;
+		// the nodes are now shared, so this index can no longer change them in place either
+		owner = new Object();
+		return copy;
+	}
+
+	public int size() {
+		return size(root);
+	}
+
+	/**
+	 *
+	 * @param rank 1-based rank
+	 * @return the score at the rank or null if out of bounds
+	 */
+	public PlayerScore get(int rank) {
+		if (rank < 1 || rank > size(root)) {
+			return null;
+		}
+		int index = rank - 1;
+		Node node = root;
+		while (node != null) {
+			int leftSize = size(node.left);
+			if (index < leftSize) {
+				node = node.left;
+			}
+			else if (index == leftSize) {
+				return node.score;
+			}
+			else {
+				index -= leftSize + 1;
+				node = node.right;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 *
+	 * @param score
+	 * @return the 1-based rank of the score or -1 if it is not indexed
+	 */
+	public int rankOf(PlayerScore score) {
+		int points = score.getPoints();
+		UUID uuid = score.getUuid();
+		int rank = 0;
+		Node node = root;
+		while (node != null) {
+			int cmp = compare(points, uuid, node);
+			if (cmp < 0) {
+				node = node.left;
+			}
+			else if (cmp > 0) {
+				rank += size(node.left) + 1;
+				node = node.right;
+			}
+			else {
+				return rank + size(node.left) + 1;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Collects the scores from the 1-based rank (inclusive) in rank order.
+	 * @param fromRank
+	 * @param count
+	 * @return
+	 */
+	public List<PlayerScore> range(int fromRank, int count) {
+		int from = Math.max(fromRank, 1);
+		int to = Math.min(from + Math.max(count, 0) - 1, size(root));
+		List<PlayerScore> scores = new ArrayList<>(Math.max(to - from + 1, 0));
+		if (from > to) {
+			return scores;
+		}
+		// in-order walk that skips subtrees entirely before the first rank
+		collect(root, from - 1, to - from + 1, scores);
+		return scores;
+	}
+
+	/**
+	 * Visits every score in rank order with the points it was indexed at.
+	 * @param action
+	 */
+	public void forEach(ObjIntConsumer<PlayerScore> action) {
+		forEach(root, action);
+	}
+
+	private static void forEach(Node node, ObjIntConsumer<PlayerScore> action) {
+		while (node != null) {
+			forEach(node.left, action);
+			action.accept(node.score, node.points);
+			node = node.right;
+		}
+	}
+
+	private static void collect(Node node, int skip, int count, List<PlayerScore> out) {
+		if (node == null || out.size() >= count) {
+			return;
+		}
+		int leftSize = size(node.left);
+		if (skip < leftSize) {
+			collect(node.left, skip, count, out);
+		}
+		if (out.size() < count && skip <= leftSize) {
+			out.add(node.score);
+		}
+		if (out.size() < count) {
+			collect(node.right, Math.max(skip - leftSize - 1, 0), count, out);
+		}
+	}
+
+	/*
+	 * Ordering is points descending, then uuid ascending, so that every score has a unique position.
+	 */
+	private static int compare(int points, UUID uuid, Node node) {
+		if (points != node.points) {
+			return points > node.points ? -1 : 1;
+		}
+		// compare the uuid bits directly, same order as UUID.compareTo()
+		UUID other = node.score.getUuid();
+		if (uuid.getMostSignificantBits() != other.getMostSignificantBits()) {
+			return uuid.getMostSignificantBits() < other.getMostSignificantBits() ? -1 : 1;
+		}
+		return Long.compare(uuid.getLeastSignificantBits(), other.getLeastSignificantBits());
+	}
+
+	private static int size(Node node) {
+		return node == null ? 0 : node.size;
+	}
+
+	private static void update(Node node) {
+		node.size = 1 + size(node.left) + size(node.right);
+	}
+
+	/*
+	 * The node itself if this index may change it, otherwise a copy that it may change.
+	 */
+	private Node own(Node node) {
+		return node.owner == owner ? node : new Node(node, owner);
+	}
+
+	/**
+	 * Splits the tree into nodes ordered before the key and nodes ordered at or after the key.
+	 */
+	private Node[] split(Node node, int points, UUID uuid) {
+		if (node == null) {
+			return new Node[] {null, null};
+		}
+		node = own(node);
+		if (compare(points, uuid, node) > 0) {
+			Node[] parts = split(node.right, points, uuid);
+			node.right = parts[0];
+			update(node);
+			parts[0] = node;
+			return parts;
+		}
+		Node[] parts = split(node.left, points, uuid);
+		node.left = parts[1];
+		update(node);
+		parts[1] = node;
+		return parts;
+	}
+
+	private Node merge(Node left, Node right) {
+		if (left == null) {
+			return right;
+		}
+		if (right == null) {
+			return left;
+		}
+		if (left.priority > right.priority) {
+			left = own(left);
+			left.right = merge(left.right, right);
+			update(left);
+			return left;
+		}
+		right = own(right);
+		right.left = merge(left, right.left);
+		update(right);
+		return right;
+	}
+
+	private Node remove(Node node, int points, UUID uuid) {
+		if (node == null) {
+			return null;
+		}
+		int cmp = compare(points, uuid, node);
+		if (cmp == 0) {
+			return merge(node.left, node.right);
+		}
+		node = own(node);
+		if (cmp < 0) {
+			node.left = remove(node.left, points, uuid);
+		}
+		else {
+			node.right = remove(node.right, points, uuid);
+		}
+		update(node);
+		return node;
+	}
+
+	private int nextPriority() {
+		seed ^= seed << 13;
+		seed ^= seed >>> 17;
+		seed ^= seed << 5;
+		return seed;
+	}
+}
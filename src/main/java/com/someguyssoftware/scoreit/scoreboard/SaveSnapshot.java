@@ -0,0 +1,95 @@
+/*
+ * This file is part of  Score It.
+ * Copyright (c) 2021, Mark Gottschling (gottsch)
+ *
+ * All rights reserved.
+ *
+ * Score It is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Score It is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Protect It.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+package com.someguyssoftware.scoreit.scoreboard;
+
+import java.util.List;
+import java.util.UUID;
+
+import net.minecraft.nbt.CompoundNBT;
+import net.minecraft.nbt.ListNBT;
+import net.minecraft.nbt.StringNBT;
+
+/**
+ * The persisted state of a scoreboard, taken under its lock by Scoreboard.snapshotForSave() or snapshotDelta(),
+ * that is encoded to NBT later on another thread. It holds each player's immutable saved record, which the scores
+ * keep until they change, so taking it only builds and encodes the records of the players changed since the last
+ * save, plus a copy of the scoreboard's item dictionary.
+ * Not thread-safe, it is handed to a single thread.
+ *
+ * @author Mark Gottschling on Oct 17, 2026
+ *
+ */
+public final class SaveSnapshot {
+	private final boolean delta;
+	private final String state;
+	private final List<PlayerScore.Saved> scores;
+	private final List<UUID> removed;
+	// a copy of the scoreboard's dictionary, which the records are encoded against
+	private final ItemDictionary items;
+
+	SaveSnapshot(boolean delta, String state, List<PlayerScore.Saved> scores, List<UUID> removed, ItemDictionary items) {
+		this.delta = delta;
+		this.state = state;
+		this.scores = scores;
+		this.removed = removed;
+		this.items = items;
+	}
+
+	/**
+	 * 
+	 * @return whether this is a delta, ie only the players changed since the last save
+	 */
+	public boolean isDelta() {
+		return delta;
+	}
+
+	/**
+	 * 
+	 * @return the number of player entries
+	 */
+	public int size() {
+		return scores.size();
+	}
+
+	/**
+	 * Encode the snapshot, in the same layout as Scoreboard.save() or saveDelta().
+	 * @param nbt
+	 * @return
+	 */
+	public CompoundNBT write(CompoundNBT nbt) {
+		// a delta only names the items of the changed players
+		ItemDictionary saved = delta ? new ItemDictionary() : items;
+		ListNBT scoreList = new ListNBT();
+		for (PlayerScore.Saved score : scores) {
+			scoreList.add(score.write(new CompoundNBT(), items, saved));
+		}
+		nbt.putInt(Scoreboard.FORMAT_KEY, Scoreboard.FORMAT_VERSION);
+		// after the scores, which can add items to the dictionary
+		nbt.put(Scoreboard.ITEMS_KEY, saved.save());
+		nbt.putString(Scoreboard.STATE_KEY, state);
+		if (delta) {
+			ListNBT removedList = new ListNBT();
+			removed.forEach(uuid -> removedList.add(StringNBT.valueOf(uuid.toString())));
+			nbt.put(Scoreboard.REMOVED_KEY, removedList);
+		}
+		nbt.put(Scoreboard.REGISTRY_KEY, scoreList);
+		return nbt;
+	}
+}
@@ -0,0 +1,63 @@
+/*
+ * This file is part of  Score It.
+ * Copyright (c) 2021, Mark Gottschling (gottsch)
+ *
+ * All rights reserved.
+ *
+ * Score It is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Score It is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Protect It.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+package com.someguyssoftware.scoreit.scoreboard;
+
+import java.util.UUID;
+
+/**
+ * An immutable, ranked copy of a PlayerScore.
+ *
+ * @author Mark Gottschling on Oct 17, 2026
+ *
+ */
+public final class ScoreEntry {
+	private final int rank;
+	private final UUID uuid;
+	private final String name;
+	private final int points;
+
+	public ScoreEntry(int rank, UUID uuid, String name, int points) {
+		this.rank = rank;
+		this.uuid = uuid;
+		this.name = name;
+		this.points = points;
+	}
+
+	public int getRank() {
+		return rank;
+	}
+
+	public UUID getUuid() {
+		return uuid;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public int getPoints() {
+		return points;
+	}
+
+	@Override
+	public String toString() {
+		return "ScoreEntry [rank=" + rank + ", uuid=" + uuid + ", name=" + name + ", points=" + points + "]";
+	}
+}
@@ -0,0 +1,204 @@
+/*
+ * This file is part of  Score It.
+ * Copyright (c) 2021, Mark Gottschling (gottsch)
+ *
+ * All rights reserved.
+ *
+ * Score It is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Score It is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Protect It.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+package com.someguyssoftware.scoreit.scoreboard;
+
+import java.util.Arrays;
+
+import net.minecraft.nbt.CompoundNBT;
+
+/**
+ * A bounded time series of the points a player earned, as (tick, points) buckets in primitive arrays.
+ * Buckets start one tick wide. When the arrays are full, the bucket width doubles and neighbouring buckets
+ * are merged, so a long game keeps its whole history at a coarser resolution in the same memory.
+ * Recording only allocates to copy the arrays after they were shared by freeze().
+ * <p>
+ * Not thread-safe: a player's history is only changed under the Scoreboard's lock, and read from a frozen copy.
+ *
+ * @author Mark Gottschling on Oct 17, 2026
+ *
+ */
+public final class ScoreHistory {
+	private static final String WIDTH_KEY = "width";
+	private static final String TICKS_KEY = "ticks";
+	private static final String DELTAS_KEY = "deltas";
+
+	// the first tick of each bucket, aligned to the width
+	private long[] ticks;
+	private int[] deltas;
+	private int size;
+	private long width = 1;
+	// the arrays are shared with a frozen copy, so they are copied before the next change
+	private boolean shared;
+
+	/**
+	 *
+	 * @param capacity the maximum number of buckets
+	 */
+	public ScoreHistory(int capacity) {
+		this.ticks = new long[Math.max(2, capacity)];
+		this.deltas = new int[ticks.length];
+	}
+
+	private ScoreHistory(long[] ticks, int[] deltas, int size, long width) {
+		this.ticks = ticks;
+		this.deltas = deltas;
+		this.size = size;
+		this.width = width;
+		this.shared = true;
+	}
+
+	/**
+	 * Receives the buckets in time order.
+	 */
+	@FunctionalInterface
+	public interface BucketConsumer {
+		void accept(long tick, long width, int points);
+	}
+
+	/**
+	 *
+	 * @param tick
+	 * @param points
+	 */
+	public void record(long tick, int points) {
+		if (shared) {
+			ticks = ticks.clone();
+			deltas = deltas.clone();
+			shared = false;
+		}
+		if (size > 0 && align(tick) <= ticks[size - 1]) {
+			// same bucket, or the clock went backwards
+			deltas[size - 1] += points;
+			return;
+		}
+		while (size == ticks.length) {
+			downsample();
+			if (align(tick) <= ticks[size - 1]) {
+				deltas[size - 1] += points;
+				return;
+			}
+		}
+		ticks[size] = align(tick);
+		deltas[size] = points;
+		size++;
+	}
+
+	/*
+	 * Double the bucket width and merge the buckets that now share a start tick.
+	 */
+	private void downsample() {
+		width <<= 1;
+		int last = -1;
+		for (int i = 0; i < size; i++) {
+			long bucket = align(ticks[i]);
+			if (last >= 0 && ticks[last] == bucket) {
+				deltas[last] += deltas[i];
+			}
+			else {
+				last++;
+				ticks[last] = bucket;
+				deltas[last] = deltas[i];
+			}
+		}
+		size = last + 1;
+	}
+
+	private long align(long tick) {
+		return tick - Math.floorMod(tick, width);
+	}
+
+	public void forEach(BucketConsumer consumer) {
+		for (int i = 0; i < size; i++) {
+			consumer.accept(ticks[i], width, deltas[i]);
+		}
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public int capacity() {
+		return ticks.length;
+	}
+
+	/**
+	 *
+	 * @return the number of ticks in each bucket
+	 */
+	public long getWidth() {
+		return width;
+	}
+
+	public long getTick(int index) {
+		return ticks[index];
+	}
+
+	public int getPoints(int index) {
+		return deltas[index];
+	}
+
+	public ScoreHistory copy() {
+		ScoreHistory copy = new ScoreHistory(ticks.length);
+		System.arraycopy(ticks, 0, copy.ticks, 0, size);
+		System.arraycopy(deltas, 0, copy.deltas, 0, size);
+		copy.size = size;
+		copy.width = width;
+		return copy;
+	}
+
+	/**
+	 * A copy that shares the arrays, in O(1). Whichever of the two records next copies the arrays first,
+	 * so the copy keeps the buckets as they were when it was taken.
+	 * @return
+	 */
+	public ScoreHistory freeze() {
+		shared = true;
+		return new ScoreHistory(ticks, deltas, size, width);
+	}
+
+	public long estimateHeapBytes() {
+		return 40 + 16 + ticks.length * 8L + 16 + deltas.length * 4L;
+	}
+
+	public CompoundNBT save(CompoundNBT nbt) {
+		nbt.putLong(WIDTH_KEY, width);
+		nbt.putLongArray(TICKS_KEY, Arrays.copyOf(ticks, size));
+		nbt.putIntArray(DELTAS_KEY, Arrays.copyOf(deltas, size));
+		return nbt;
+	}
+
+	/**
+	 *
+	 * @param nbt
+	 * @param capacity the capacity if it is larger than the saved history
+	 * @return
+	 */
+	public static ScoreHistory load(CompoundNBT nbt, int capacity) {
+		long[] savedTicks = nbt.getLongArray(TICKS_KEY);
+		int[] savedDeltas = nbt.getIntArray(DELTAS_KEY);
+		int n = Math.min(savedTicks.length, savedDeltas.length);
+		ScoreHistory history = new ScoreHistory(Math.max(capacity, n));
+		history.width = Math.max(1L, nbt.getLong(WIDTH_KEY));
+		System.arraycopy(savedTicks, 0, history.ticks, 0, n);
+		System.arraycopy(savedDeltas, 0, history.deltas, 0, n);
+		history.size = n;
+		return history;
+	}
+}
@@ -0,0 +1,57 @@
+/*
+ * This file is part of  Score It.
+ * Copyright (c) 2021, Mark Gottschling (gottsch)
+ *
+ * All rights reserved.
+ *
+ * Score It is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Score It is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Protect It.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+package com.someguyssoftware.scoreit.scoreboard;
+
+import java.util.UUID;
+
+import com.someguyssoftware.scoreit.scoreboard.Scoreboard.GameState;
+
+import it.unimi.dsi.fastutil.objects.Reference2IntMap;
+import net.minecraft.item.Item;
+
+/**
+ * Receives each change to a Scoreboard as it is made, under the scoreboard's lock, ie to log it for crash recovery.
+ * Implementations must be quick and must not block on I/O.
+ *
+ * @author Mark Gottschling on Oct 17, 2026
+ *
+ */
+public interface ScoreJournal {
+	/*
+	 * records nothing
+	 */
+	ScoreJournal NONE = new ScoreJournal() { };
+
+	default void addPlayer(UUID uuid, String name) { }
+
+	default void removePlayer(UUID uuid) { }
+
+	default void addPoints(UUID uuid, int points) { }
+
+	default void addPoints(UUID uuid, int points, Item item, int count) { }
+
+	default void addPoints(UUID uuid, int points, Reference2IntMap<Item> itemCounts) { }
+
+	default void setTeam(UUID uuid, String team) { }
+
+	default void setState(GameState state) { }
+
+	default void reset() { }
+}
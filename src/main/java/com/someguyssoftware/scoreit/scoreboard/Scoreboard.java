@@ -19,24 +19,38 @@
  */
 package com.someguyssoftware.scoreit.scoreboard;
 
-import java.util.Comparator;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import com.someguyssoftware.scoreit.ScoreIt;
 
+import it.unimi.dsi.fastutil.objects.Reference2IntMap;
+import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
 import net.minecraft.nbt.CompoundNBT;
 import net.minecraft.nbt.ListNBT;
+import net.minecraft.util.Tuple;
 
 
 /**
+ * The scoreboard of a single named game (see Games). It is safe to use from any thread.
+ * All changes to the registry and rankings are made while holding a single lock, which is only held for the
+ * O(log n) update itself, so on the server thread it is effectively uncontended.
+ * Every change bumps the version, and readers that are off the server thread should use snapshot(),
+ * which returns an immutable, consistent copy of the rankings that is shared until the next change.
  * 
  * @author Mark Gottschling on Sep 20, 2021
  *
@@ -45,10 +59,36 @@ public class Scoreboard {
 	public static Logger LOGGER = LogManager.getLogger(ScoreIt.NAME);
 	
 	public static final int TOP_RANKINGS = 5;
+	// rank index node plus the registry's key and value slots at its load factor
+	private static final int INDEX_BYTES_PER_PLAYER = 40 + 34;
 	
-	private static final Map<String, PlayerScore> REGISTRY = new HashMap<>();
-	private static final String REGISTRY_KEY = "registry";
-	private static final String STATE_KEY = "state";
+	public static final String REGISTRY_KEY = "registry";
+	static final String REMOVED_KEY = "removed";
+	static final String STATE_KEY = "state";
+	static final String FORMAT_KEY = "format";
+	static final String ITEMS_KEY = "items";
+	// 2: item counts refer to a shared item dictionary
+	static final int FORMAT_VERSION = 2;
+	
+	// the number of history buckets per player, 0 to not record any, and the tick source
+	private static volatile int historySamples = 0;
+	private static volatile LongSupplier historyClock = () -> 0L;
+	
+	private final String name;
+	private final Object lock = new Object();
+	private final UuidMap<PlayerScore> registry = new UuidMap<>();
+	// player scores kept in rank order, updated on every change to the registry or to a player's points
+	private final RankIndex rankings = new RankIndex();
+	// players changed or removed since the last save, so a save only has to write what changed
+	private final List<PlayerScore> dirty = new ArrayList<>();
+	private final List<UUID> removed = new ArrayList<>();
+	// team totals in rank order, updated on every change to a member's points or team
+	private final Map<String, TeamScore> teams = new HashMap<>();
+	private final TreeSet<TeamScore> teamRankings = new TreeSet<>(TeamScore.RANK_ORDER);
+	private boolean stateChanged;
+	private boolean fullSaveRequired;
+	// the running heap estimate, see account()
+	private volatile long heapBytes;
 	
 	public enum GameState {
 		NONE,
@@ -57,94 +97,196 @@ public class Scoreboard {
 		ENDED;
 	}
 	
-	/*
-	 * A comparator that sorts on a Player's points in descending order.
+	private final AtomicReference<GameState> gameState = new AtomicReference<>(GameState.NONE);
+	// incremented on every change to the state, registry or points
+	private final AtomicLong version = new AtomicLong();
+	// the newest snapshot built so far
+	private final AtomicReference<ScoreboardSnapshot> snapshot = new AtomicReference<>(ScoreboardSnapshot.EMPTY);
+	// the item dictionary the scores' item counts are encoded against. it only grows, so an encoding stays valid,
+	// and each save writes a copy of it
+	private ItemDictionary dictionary = new ItemDictionary();
+	// logs each change, ie the game's write-ahead log
+	private ScoreJournal journal = ScoreJournal.NONE;
+	
+	/**
+	 * 
+	 * @param name the name of the game
 	 */
-	public static class SortByPoints implements Comparator<PlayerScore> {
-		@Override
-		public int compare(PlayerScore s1, PlayerScore s2) {
-			return s2.getPoints() - s1.getPoints();
-		}
-	};
+	public Scoreboard(String name) {
+		this.name = name;
+	}
 	
-	private static GameState gameState = GameState.NONE;
-	public static Comparator<PlayerScore> sortByPoints = new SortByPoints();
+	public String getName() {
+		return name;
+	}
 	
 	/**
-	 * 
+	 * Log every change from now on to the journal.
+	 * @param journal
 	 */
-	private Scoreboard() { }
+	public void setJournal(ScoreJournal journal) {
+		synchronized (lock) {
+			this.journal = journal;
+		}
+	}
 	
-	public static boolean start() {
-		if (gameState == GameState.NONE || gameState == GameState.STOPPED) {
-			gameState = GameState.STARTED;
-			return true;
+	public boolean start() {
+		return transition(GameState.STARTED, GameState.NONE, GameState.STOPPED);
+	}
+	
+	public boolean stop() {
+		return transition(GameState.STOPPED, GameState.STARTED);
+	}
+	
+	public boolean end() {
+		return transition(GameState.ENDED, GameState.STARTED, GameState.STOPPED);
+	}
+	
+	/**
+	 * Atomically move to the target state if the current state is one of the allowed states.
+	 * @param target
+	 * @param from
+	 * @return
+	 */
+	private boolean transition(GameState target, GameState... from) {
+		// held so that a snapshot's state always matches its version
+		synchronized (lock) {
+			GameState current = gameState.get();
+			if (isOneOf(current, from) && gameState.compareAndSet(current, target)) {
+				stateChanged = true;
+				version.incrementAndGet();
+				journal.setState(target);
+				return true;
+			}
+			return false;
 		}
-		return false;
 	}
 	
-	public static boolean stop() {
-		if (gameState == GameState.STARTED) {
-			gameState = GameState.STOPPED;
-			return true;
+	private boolean isOneOf(GameState state, GameState... states) {
+		for (GameState s : states) {
+			if (s == state) {
+				return true;
+			}
 		}
 		return false;
 	}
 	
-	public static boolean end() {
-		if (gameState == GameState.STARTED || gameState == GameState.STOPPED) {
-			gameState = GameState.ENDED;
-			// TODO should dump the scores to a text file or something
-			return true;
+	public void reset() {
+		synchronized (lock) {
+			gameState.set(GameState.NONE);
+			registry.clear();
+			rankings.clear();
+			teams.clear();
+			teamRankings.clear();
+			heapBytes = 0L;
+			dictionary = new ItemDictionary();
+			clearChanges();
+			// a delta can't express a reset
+			fullSaveRequired = true;
+			version.incrementAndGet();
+			journal.reset();
 		}
-		return false;
 	}
 	
-	public static void reset() {
-		gameState = GameState.NONE;
-		REGISTRY.clear();
+	public boolean isRunning() {
+		return gameState.get() == GameState.STARTED;
 	}
 	
-	public static boolean isRunning() {
-		return gameState == GameState.STARTED;
+	public boolean isPaused() {
+		return gameState.get() == GameState.STOPPED;
 	}
 	
-	public static boolean isPaused() {
-		return gameState == GameState.STOPPED;
+	public boolean isComplete() {
+		return gameState.get() == GameState.ENDED;
 	}
 	
-	public static boolean isComplete() {
-		return gameState == GameState.ENDED;
+	public GameState getGameState() {
+		return gameState.get();
 	}
 	
-	public static GameState getGameState() {
-		return gameState;
+	/**
+	 * 
+	 * @return the current version of the scoreboard
+	 */
+	public long getVersion() {
+		return version.get();
 	}
 	
-	public static List<PlayerScore> getScores() {
-		return REGISTRY.values().stream().collect(Collectors.toList());
+	/**
+	 * Get an immutable, ranked copy of the scoreboard.
+	 * The snapshot is cached until the next change, so repeated calls between changes cost nothing.
+	 * Only an O(1) copy of the rankings is taken while holding the lock, the entries are built after releasing it.
+	 * @return
+	 */
+	public ScoreboardSnapshot snapshot() {
+		ScoreboardSnapshot current = snapshot.get();
+		if (current.getVersion() == version.get()) {
+			return current;
+		}
+		long v;
+		GameState state;
+		RankIndex ranked;
+		synchronized (lock) {
+			// version can't change while holding the lock
+			v = version.get();
+			state = gameState.get();
+			ranked = rankings.copy();
+		}
+		List<ScoreEntry> entries = new ArrayList<>(ranked.size());
+		ranked.forEach((score, points) -> entries.add(new ScoreEntry(entries.size() + 1, score.getUuid(), score.getName(), points)));
+		ScoreboardSnapshot built = new ScoreboardSnapshot(v, state, entries);
+		// another thread may have published a newer one meanwhile
+		return snapshot.accumulateAndGet(built, (a, b) -> a.getVersion() >= b.getVersion() ? a : b);
 	}
 	
-	public static void addPlayer(String uuid, String name) {
+	/**
+	 * Note: the returned PlayerScores are live and should only be read on the server thread.
+	 * @return
+	 */
+	public List<PlayerScore> getScores() {
+		synchronized (lock) {
+			return registry.values();
+		}
+	}
+	
+	public void addPlayer(UUID uuid, String name) {
 		// creates new PlayerDetails and adds to the registry
-		if (!REGISTRY.containsKey(uuid)) {
-			REGISTRY.put(uuid, new PlayerScore(uuid, name));
+		synchronized (lock) {
+			if (!registry.containsKey(uuid)) {
+				addPlayer(uuid, new PlayerScore(uuid, name));
+				journal.addPlayer(uuid, name);
+			}
 		}
-		// TODO resort list
 	}
 	
-	public static void addPlayer(String uuid, PlayerScore details) {
-		if (!REGISTRY.containsKey(uuid)) {
-			REGISTRY.put(uuid, details);
+	public void addPlayer(UUID uuid, PlayerScore details) {
+		synchronized (lock) {
+			if (!registry.containsKey(uuid)) {
+				registry.put(uuid, details);
+				rankings.add(details);
+				addTeamPoints(details.getTeam(), details.getPoints(), 1);
+				details.setAccountedBytes(0L);
+				account(details);
+				markDirty(details);
+				version.incrementAndGet();
+			}
 		}
-		// TDOO resort list
 	}
 	
-	public static Optional<PlayerScore> removePlayer(String uuid) {
-		Optional<PlayerScore> details = Optional.ofNullable(REGISTRY.remove(uuid));
-		// TODO resort list
-		
-		return details;
+	public Optional<PlayerScore> removePlayer(UUID uuid) {
+		synchronized (lock) {
+			Optional<PlayerScore> details = Optional.ofNullable(registry.remove(uuid));
+			if (details.isPresent()) {
+				rankings.remove(details.get());
+				addTeamPoints(details.get().getTeam(), -details.get().getPoints(), -1);
+				heapBytes -= details.get().getAccountedBytes();
+				details.get().setAccountedBytes(0L);
+				removed.add(uuid);
+				version.incrementAndGet();
+				journal.removePlayer(uuid);
+			}
+			return details;
+		}
 	}
 	
 	/**
@@ -152,8 +294,39 @@ public class Scoreboard {
 	 * @param uuid
 	 * @return
 	 */
-	public static Optional<PlayerScore> getPlayer(String uuid) {
-		return Optional.ofNullable(REGISTRY.get(uuid));
+	public Optional<PlayerScore> getPlayer(UUID uuid) {
+		synchronized (lock) {
+			return Optional.ofNullable(registry.get(uuid));
+		}
+	}
+	
+	/**
+	 * 
+	 * @param uuid
+	 * @return a frozen copy of the player's score history
+	 */
+	public Optional<ScoreHistory> getHistory(UUID uuid) {
+		synchronized (lock) {
+			PlayerScore details = registry.get(uuid);
+			return details == null || details.getHistory() == null ? Optional.empty() : Optional.of(details.getHistory().freeze());
+		}
+	}
+	
+	/**
+	 * Record when points are earned, for every game. A change of size applies to the histories created or loaded after it.
+	 * @param samples the number of buckets per player, 0 to disable
+	 * @param clock the current tick
+	 */
+	public static void setHistory(int samples, LongSupplier clock) {
+		historyClock = clock;
+		historySamples = samples;
+	}
+	
+	private static void recordHistory(PlayerScore details, int points) {
+		int samples = historySamples;
+		if (samples > 0) {
+			details.recordHistory(historyClock.getAsLong(), points, samples);
+		}
 	}
 	
 	/**
@@ -161,8 +334,81 @@ public class Scoreboard {
 	 * @param uuid
 	 * @return
 	 */
-	public static boolean hasPlayer(String uuid) {
-		return REGISTRY.containsKey(uuid);
+	public boolean hasPlayer(UUID uuid) {
+		synchronized (lock) {
+			return registry.containsKey(uuid);
+		}
+	}
+	
+	/**
+	 * 
+	 * @return the number of ranked players
+	 */
+	public int size() {
+		synchronized (lock) {
+			return rankings.size();
+		}
+	}
+	
+	/**
+	 * Get a run of consecutive rankings without sorting the registry.
+	 * @param fromRank the 1-based rank to start at
+	 * @param count the maximum number of rankings to return
+	 * @return a list of (rank, score) tuples in rank order
+	 */
+	public List<Tuple<Integer, PlayerScore>> getRankedScores(int fromRank, int count) {
+		int rank = Math.max(fromRank, 1);
+		List<PlayerScore> scores;
+		synchronized (lock) {
+			scores = rankings.range(rank, count);
+		}
+		List<Tuple<Integer, PlayerScore>> rankedScores = new ArrayList<>(scores.size());
+		for (PlayerScore score : scores) {
+			rankedScores.add(new Tuple<>(Integer.valueOf(rank++), score));
+		}
+		return rankedScores;
+	}
+	
+	/**
+	 * 
+	 * @param count
+	 * @return the top count rankings
+	 */
+	public List<Tuple<Integer, PlayerScore>> getTopScores(int count) {
+		return getRankedScores(1, count);
+	}
+	
+	/**
+	 * 
+	 * @param uuid
+	 * @return the 1-based rank of the player
+	 */
+	public Optional<Integer> getRank(UUID uuid) {
+		synchronized (lock) {
+			PlayerScore score = registry.get(uuid);
+			if (score == null) {
+				return Optional.empty();
+			}
+			int rank = rankings.rankOf(score);
+			return rank > 0 ? Optional.of(rank) : Optional.empty();
+		}
+	}
+	
+	/**
+	 * Get the rankings surrounding a player, ie the player's rank +/- radius.
+	 * @param uuid
+	 * @param radius
+	 * @return
+	 */
+	public List<Tuple<Integer, PlayerScore>> getScoresAround(UUID uuid, int radius) {
+		synchronized (lock) {
+			Optional<Integer> rank = getRank(uuid);
+			if (!rank.isPresent()) {
+				return new ArrayList<>();
+			}
+			int fromRank = Math.max(rank.get() - radius, 1);
+			return getRankedScores(fromRank, rank.get() + radius - fromRank + 1);
+		}
 	}
 	
 	/**
@@ -171,59 +417,196 @@ public class Scoreboard {
 	 * @param points
 	 * @return
 	 */
-	public static Optional<Integer> addPoints(String uuid, int points) {
-		Optional<PlayerScore> details = getPlayer(uuid);
-		if (details.isPresent()) {
-			details.get().addPoints(points);
-			return Optional.of(details.get().getPoints());
+	public Optional<Integer> addPoints(UUID uuid, int points) {
+		synchronized (lock) {
+			PlayerScore details = registry.get(uuid);
+			if (details != null) {
+				credit(details, points);
+				markDirty(details);
+				account(details);
+				version.incrementAndGet();
+				journal.addPoints(uuid, points);
+				return Optional.of(details.getPoints());
+			}
 		}
 		return Optional.empty();
 	}
 	
 	/**
 	 * 
-	 * @param stringUUID
-	 * @param pointsValue
+	 * @param uuid
+	 * @param points
 	 * @param stack
 	 * @return
 	 */
-	public static Optional<Integer> addPoints(String uuid, int points, ItemStack stack) {
-		Optional<PlayerScore> details = getPlayer(uuid);
-		if (details.isPresent()) {
-			details.get().addPoints(points);
-			if (details.get().getItemCounts().containsKey(stack.getItem().getRegistryName())) {
-				Integer i = details.get().getItemCounts().get(stack.getItem().getRegistryName());
-				details.get().getItemCounts().put(stack.getItem().getRegistryName(), i + stack.getCount());
+	public Optional<Integer> addPoints(UUID uuid, int points, ItemStack stack) {
+		synchronized (lock) {
+			PlayerScore details = registry.get(uuid);
+			if (details != null) {
+				credit(details, points);
+				details.addItemCount(stack.getItem(), stack.getCount());
+				markDirty(details);
+				account(details);
+				version.incrementAndGet();
+				journal.addPoints(uuid, points, stack.getItem(), stack.getCount());
+				return Optional.of(details.getPoints());
 			}
-			else {
-				details.get().getItemCounts().put(stack.getItem().getRegistryName(), stack.getCount());
+		}
+		return Optional.empty();
+	}
+	
+	/**
+	 * Credit a batch of items in a single update, ie a whole inventory deposit.
+	 * @param uuid
+	 * @param points the total points of the batch
+	 * @param itemCounts the number of each item in the batch
+	 * @return
+	 */
+	public Optional<Integer> addPoints(UUID uuid, int points, Reference2IntMap<Item> itemCounts) {
+		synchronized (lock) {
+			PlayerScore details = registry.get(uuid);
+			if (details != null) {
+				credit(details, points);
+				for (Reference2IntMap.Entry<Item> entry : itemCounts.reference2IntEntrySet()) {
+					details.addItemCount(entry.getKey(), entry.getIntValue());
+				}
+				markDirty(details);
+				account(details);
+				version.incrementAndGet();
+				journal.addPoints(uuid, points, itemCounts);
+				return Optional.of(details.getPoints());
 			}
-			return Optional.of(details.get().getPoints());
 		}
 		return Optional.empty();
 	}
 	
+	/*
+	 * Add the points to a registered player, keeping the rankings, history and team total in step.
+	 */
+	private void credit(PlayerScore details, int points) {
+		rankings.remove(details);
+		int before = details.getPoints();
+		details.addPoints(points);
+		rankings.add(details);
+		// a score that saturated only moved by what it actually gained
+		int added = (int) ((long) details.getPoints() - before);
+		recordHistory(details, added);
+		addTeamPoints(details.getTeam(), added, 0);
+	}
+	
+	/**
+	 * Move a player to a team. The player's points move with them.
+	 * @param uuid
+	 * @param team the team name, or null to leave their team
+	 * @return false if the player is not registered or is already on the team
+	 */
+	public boolean setTeam(UUID uuid, String team) {
+		synchronized (lock) {
+			PlayerScore details = registry.get(uuid);
+			if (details == null || Objects.equals(details.getTeam(), team)) {
+				return false;
+			}
+			addTeamPoints(details.getTeam(), -details.getPoints(), -1);
+			details.setTeam(team);
+			addTeamPoints(team, details.getPoints(), 1);
+			markDirty(details);
+			version.incrementAndGet();
+			journal.setTeam(uuid, team);
+			return true;
+		}
+	}
+	
+	/**
+	 * 
+	 * @return the teams in rank order, as (rank, team) tuples. the teams are copies.
+	 */
+	public List<Tuple<Integer, TeamScore>> getTeamScores() {
+		synchronized (lock) {
+			List<Tuple<Integer, TeamScore>> rankedTeams = new ArrayList<>(teamRankings.size());
+			int rank = 1;
+			for (TeamScore team : teamRankings) {
+				rankedTeams.add(new Tuple<>(rank++, team.copy()));
+			}
+			return rankedTeams;
+		}
+	}
+	
+	/**
+	 * 
+	 * @param name
+	 * @return a copy of the team's score
+	 */
+	public Optional<TeamScore> getTeam(String name) {
+		synchronized (lock) {
+			TeamScore team = teams.get(name);
+			return team == null ? Optional.empty() : Optional.of(team.copy());
+		}
+	}
+	
+	/*
+	 * Update the running heap estimate with the change in a registered score's own estimate.
+	 * A score's estimate is only refreshed when it changes, so eg a score hydrated by a read is counted at its
+	 * next change. Must hold the lock.
+	 */
+	private void account(PlayerScore score) {
+		long bytes = INDEX_BYTES_PER_PLAYER + score.estimateHeapBytes();
+		heapBytes += bytes - score.getAccountedBytes();
+		score.setAccountedBytes(bytes);
+	}
+	
+	/*
+	 * Apply a change to a team's total, re-ranking the team in O(log teams). Teams without members are dropped.
+	 * Must hold the lock.
+	 */
+	private void addTeamPoints(String name, long points, int members) {
+		if (name == null) {
+			return;
+		}
+		TeamScore team = teams.get(name);
+		if (team == null) {
+			team = new TeamScore(name);
+			teams.put(name, team);
+		}
+		else {
+			teamRankings.remove(team);
+		}
+		team.add(points, members);
+		if (team.getMembers() > 0) {
+			teamRankings.add(team);
+		}
+		else {
+			teams.remove(name);
+		}
+	}
+	
 	/**
 	 * 
 	 * @param nbt
 	 */
-	 public static void load(CompoundNBT scoreboard) {
-		 if (scoreboard.contains(STATE_KEY)) {
-			 LOGGER.info("loading state -> {}", GameState.valueOf(scoreboard.getString(STATE_KEY)));
-			 gameState = GameState.valueOf(scoreboard.getString(STATE_KEY));
-		 }
-		 
-		 ListNBT scoreList = scoreboard.getList(REGISTRY_KEY, 10);
-		 scoreList.forEach(entry -> {
-			 CompoundNBT scoreNbt = (CompoundNBT)entry;
-			 // load a player score
-			 Optional<PlayerScore> playerScore = PlayerScore.load(scoreNbt);
-			 // add the player score to the leader registry
-			 if (playerScore.isPresent()) {
-				 addPlayer(playerScore.get().getUuid(), playerScore.get());
+	 public void load(CompoundNBT scoreboard) {
+		 synchronized (lock) {
+			 if (scoreboard.contains(STATE_KEY)) {
+				 LOGGER.info("loading state -> {}", GameState.valueOf(scoreboard.getString(STATE_KEY)));
+				 gameState.set(GameState.valueOf(scoreboard.getString(STATE_KEY)));
 			 }
-			 // TODO any other processing like, sorting the leader list
-		 });
+
+			 dictionary = ItemDictionary.load(scoreboard.getList(ITEMS_KEY, 8));
+			 ListNBT scoreList = scoreboard.getList(REGISTRY_KEY, 10);
+			 scoreList.forEach(entry -> {
+				 CompoundNBT scoreNbt = (CompoundNBT)entry;
+				 // load a player score
+				 Optional<PlayerScore> playerScore = PlayerScore.load(scoreNbt, dictionary, historySamples);
+				 // add the player score to the leader registry
+				 if (playerScore.isPresent()) {
+					 addPlayer(playerScore.get().getUuid(), playerScore.get());
+				 }
+			 });
+			 // everything loaded is already persisted
+			 clearChanges();
+			 // rewrite an older format at the next save
+			 fullSaveRequired = scoreboard.getInt(FORMAT_KEY) < FORMAT_VERSION && !scoreList.isEmpty();
+			 version.incrementAndGet();
+		 }
 	 }
 	 
 	 /**
@@ -231,20 +614,137 @@ public class Scoreboard {
 	  * @param scoreboard
 	  * @return
 	  */
-	 public static CompoundNBT save(CompoundNBT scoreboard) {
-		 ListNBT scoreList = new ListNBT();
-		 REGISTRY.entrySet().forEach(entry -> {
-			 LOGGER.info("saving for player -> {}", entry.getValue().getName());
-			 // create a compound for player score
-			 CompoundNBT scoreNbt = entry.getValue().save(new CompoundNBT());
-			 // add to list
-			 scoreList.add(scoreNbt);
-		 });
-		 // TODO any other properties		
-		 scoreboard.putString(STATE_KEY, gameState.toString());
-		 LOGGER.info("saving state -> {}", gameState.toString());
-		 // add list to scoreboard
-		 scoreboard.put(REGISTRY_KEY, scoreList);		 
-		 return scoreboard;
+	 public CompoundNBT save(CompoundNBT scoreboard) {
+		 return snapshotForSave().write(scoreboard);
+	 }
+	 
+	 /**
+	  * Snapshot the whole scoreboard for saving and clear the changes, so it can be written off the server thread.
+	  * The unchanged players' saved records are reused, so only the changed players are encoded.
+	  * @return
+	  */
+	 public SaveSnapshot snapshotForSave() {
+		 synchronized (lock) {
+			 List<PlayerScore.Saved> scores = new ArrayList<>(registry.size());
+			 registry.forEachValue(score -> scores.add(score.snapshot(dictionary)));
+			 LOGGER.debug("saving state -> {}", gameState.get());
+			 // after the scores, which can add items to the dictionary
+			 SaveSnapshot snapshot = new SaveSnapshot(false, gameState.get().toString(), scores, Collections.emptyList(), dictionary.extend());
+			 clearChanges();
+			 return snapshot;
+		 }
+	 }
+	 
+	 /**
+	  * A rough estimate of the heap used by the registry, rankings and scores.
+	  * It is kept up to date on every change, so this is O(1) and doesn't take the lock.
+	  * @return
+	  */
+	 public long estimateHeapBytes() {
+		 return heapBytes;
+	 }
+	 
+	 /**
+	  * 
+	  * @return whether a full save is required, ie changes were made that can't be saved as a delta
+	  */
+	 public boolean isFullSaveRequired() {
+		 synchronized (lock) {
+			 return fullSaveRequired;
+		 }
+	 }
+	 
+	 /**
+	  * Require the next save to be a full save, ie after loading data in an older format.
+	  */
+	 public void requireFullSave() {
+		 synchronized (lock) {
+			 fullSaveRequired = true;
+		 }
+	 }
+	 
+	 /**
+	  * 
+	  * @return whether there are any changes since the last save
+	  */
+	 public boolean hasChanges() {
+		 synchronized (lock) {
+			 return stateChanged || !dirty.isEmpty() || !removed.isEmpty();
+		 }
+	 }
+	 
+	 /**
+	  * Save only the players that changed since the last save (full or delta) and clear their dirty flags.
+	  * The cost is proportional to the number of changed players, not the size of the registry.
+	  * @return the delta, or empty if nothing changed
+	  */
+	 public Optional<CompoundNBT> saveDelta() {
+		 return snapshotDelta().map(delta -> delta.write(new CompoundNBT()));
+	 }
+	 
+	 /**
+	  * Snapshot only the players that changed since the last save, like saveDelta(), to be written off the server thread.
+	  * @return the delta, or empty if nothing changed
+	  */
+	 public Optional<SaveSnapshot> snapshotDelta() {
+		 synchronized (lock) {
+			 if (!stateChanged && dirty.isEmpty() && removed.isEmpty()) {
+				 return Optional.empty();
+			 }
+			 List<PlayerScore.Saved> scores = new ArrayList<>(dirty.size());
+			 for (PlayerScore score : dirty) {
+				 // skip players that have since been removed
+				 if (registry.get(score.getUuid()) == score) {
+					 scores.add(score.snapshot(dictionary));
+				 }
+			 }
+			 SaveSnapshot delta = new SaveSnapshot(true, gameState.get().toString(), scores, new ArrayList<>(removed), dictionary.extend());
+			 clearChanges();
+			 return Optional.of(delta);
+		 }
+	 }
+	 
+	 /**
+	  * Apply a delta written by saveDelta() on top of the loaded scoreboard.
+	  * @param delta
+	  */
+	 public void loadDelta(CompoundNBT delta) {
+		 synchronized (lock) {
+			 if (delta.contains(STATE_KEY)) {
+				 gameState.set(GameState.valueOf(delta.getString(STATE_KEY)));
+			 }
+			 // removals were recorded before any re-adds in the same delta
+			 delta.getList(REMOVED_KEY, 8).forEach(entry -> removePlayer(UUID.fromString(entry.getAsString())));
+			 ItemDictionary deltaItems = ItemDictionary.load(delta.getList(ITEMS_KEY, 8));
+			 delta.getList(REGISTRY_KEY, 10).forEach(entry -> {
+				 Optional<PlayerScore> playerScore = PlayerScore.load((CompoundNBT)entry, deltaItems, historySamples);
+				 if (playerScore.isPresent()) {
+					 // the delta's item indexes are its own
+					 playerScore.get().translateItems(dictionary);
+					 removePlayer(playerScore.get().getUuid());
+					 addPlayer(playerScore.get().getUuid(), playerScore.get());
+				 }
+			 });
+			 // the deltas are already persisted, but a base in an older format still needs rewriting
+			 boolean rewrite = fullSaveRequired;
+			 clearChanges();
+			 fullSaveRequired = rewrite;
+			 version.incrementAndGet();
+		 }
+	 }
+	 
+	 private void markDirty(PlayerScore score) {
+		 if (!score.isDirty()) {
+			 score.setDirty(true);
+			 dirty.add(score);
+		 }
+	 }
+	 
+	 private void clearChanges() {
+		 dirty.forEach(score -> score.setDirty(false));
+		 dirty.clear();
+		 removed.clear();
+		 stateChanged = false;
+		 fullSaveRequired = false;
 	 }
 }
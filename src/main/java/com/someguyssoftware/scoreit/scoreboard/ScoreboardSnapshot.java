@@ -0,0 +1,94 @@
+/*
+ * This file is part of  Score It.
+ * Copyright (c) 2021, Mark Gottschling (gottsch)
+ *
+ * All rights reserved.
+ *
+ * Score It is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Score It is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Protect It.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+package com.someguyssoftware.scoreit.scoreboard;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import com.someguyssoftware.scoreit.scoreboard.Scoreboard.GameState;
+
+/**
+ * An immutable, point-in-time copy of the Scoreboard in rank order.
+ * Safe to share between threads.
+ *
+ * @author Mark Gottschling on Oct 17, 2026
+ *
+ */
+public final class ScoreboardSnapshot {
+	public static final ScoreboardSnapshot EMPTY = new ScoreboardSnapshot(-1L, GameState.NONE, Collections.emptyList());
+
+	private final long version;
+	private final GameState gameState;
+	private final List<ScoreEntry> entries;
+
+	ScoreboardSnapshot(long version, GameState gameState, List<ScoreEntry> entries) {
+		this.version = version;
+		this.gameState = gameState;
+		this.entries = Collections.unmodifiableList(entries);
+	}
+
+	public long getVersion() {
+		return version;
+	}
+
+	public GameState getGameState() {
+		return gameState;
+	}
+
+	public int size() {
+		return entries.size();
+	}
+
+	/**
+	 *
+	 * @return all the entries in rank order
+	 */
+	public List<ScoreEntry> getEntries() {
+		return entries;
+	}
+
+	/**
+	 *
+	 * @param fromRank 1-based rank
+	 * @param count
+	 * @return
+	 */
+	public List<ScoreEntry> getRange(int fromRank, int count) {
+		int from = Math.min(Math.max(fromRank, 1) - 1, entries.size());
+		int to = Math.min(from + Math.max(count, 0), entries.size());
+		return entries.subList(from, to);
+	}
+
+	/**
+	 * Note: this is a linear scan.
+	 * @param uuid
+	 * @return
+	 */
+	public Optional<ScoreEntry> find(UUID uuid) {
+		for (ScoreEntry entry : entries) {
+			if (entry.getUuid().equals(uuid)) {
+				return Optional.of(entry);
+			}
+		}
+		return Optional.empty();
+	}
+}
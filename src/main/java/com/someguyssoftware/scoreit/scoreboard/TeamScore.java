@@ -0,0 +1,87 @@
+/*
+ * This file is part of  Score It.
+ * Copyright (c) 2021, Mark Gottschling (gottsch)
+ *
+ * All rights reserved.
+ *
+ * Score It is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Score It is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Protect It.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+package com.someguyssoftware.scoreit.scoreboard;
+
+import java.util.Comparator;
+
+/**
+ * The total points of a team's members. Totals are kept up to date by the Scoreboard on every change
+ * to a member's points, so ranking the teams never requires a scan of the player scores.
+ *
+ * @author Mark Gottschling on Oct 17, 2026
+ *
+ */
+public class TeamScore {
+	/*
+	 * Sorts on points in descending order, then on name so that teams with equal points are distinct.
+	 */
+	static final Comparator<TeamScore> RANK_ORDER = (t1, t2) -> {
+		int result = Long.compare(t2.points, t1.points);
+		return result != 0 ? result : t1.name.compareTo(t2.name);
+	};
+
+	private final String name;
+	private long points;
+	private int members;
+
+	/**
+	 * 
+	 * @param name
+	 */
+	TeamScore(String name) {
+		this.name = name;
+	}
+
+	private TeamScore(TeamScore team) {
+		this.name = team.name;
+		this.points = team.points;
+		this.members = team.members;
+	}
+
+	void add(long points, int members) {
+		this.points += points;
+		this.members += members;
+	}
+
+	/**
+	 * 
+	 * @return an unshared copy, ie to hand out from the scoreboard
+	 */
+	TeamScore copy() {
+		return new TeamScore(this);
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public long getPoints() {
+		return points;
+	}
+
+	public int getMembers() {
+		return members;
+	}
+
+	@Override
+	public String toString() {
+		return "TeamScore [name=" + name + ", points=" + points + ", members=" + members + "]";
+	}
+}
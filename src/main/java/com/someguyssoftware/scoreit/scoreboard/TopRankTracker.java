@@ -0,0 +1,159 @@
+/*
+ * This file is part of  Score It.
+ * Copyright (c) 2021, Mark Gottschling (gottsch)
+ *
+ * All rights reserved.
+ *
+ * Score It is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Score It is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Protect It.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+package com.someguyssoftware.scoreit.scoreboard;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import net.minecraft.util.Tuple;
+
+/**
+ * Tracks the top-N rankings between polls and reports only what changed since the previous poll.
+ * The scoreboard version is checked first, so polling an unchanged scoreboard costs nothing,
+ * and the cost of a poll is bounded by N, regardless of the number of deposits since the last one.
+ *
+ * @author Mark Gottschling on Oct 17, 2026
+ *
+ */
+public class TopRankTracker {
+	private Scoreboard scoreboard;
+	private long version = -1;
+	private int trackedSize;
+	private List<ScoreEntry> top = Collections.emptyList();
+	private Map<UUID, ScoreEntry> byUuid = new HashMap<>();
+
+	/**
+	 * 
+	 * @param scoreboard the game to track. if it differs from the previous poll, the changes are relative to the previous game.
+	 * @param size the number of top rankings to track. may differ between polls.
+	 * @return the changes since the previous poll, or empty if the scoreboard has not changed
+	 */
+	public Optional<Changes> poll(Scoreboard scoreboard, int size) {
+		// read the version first. a change that lands after is picked up by the next poll
+		long current = scoreboard.getVersion();
+		if (scoreboard == this.scoreboard && current == version && size == trackedSize) {
+			return Optional.empty();
+		}
+		this.scoreboard = scoreboard;
+		version = current;
+		trackedSize = size;
+
+		List<Tuple<Integer, PlayerScore>> scores = scoreboard.getTopScores(size);
+		List<ScoreEntry> nextTop = new ArrayList<>(scores.size());
+		Map<UUID, ScoreEntry> nextByUuid = new HashMap<>(scores.size() * 2);
+		Changes changes = new Changes(byUuid);
+		for (Tuple<Integer, PlayerScore> score : scores) {
+			PlayerScore playerScore = score.getB();
+			ScoreEntry entry = new ScoreEntry(score.getA(), playerScore.getUuid(), playerScore.getName(), playerScore.getPoints());
+			nextTop.add(entry);
+			nextByUuid.put(entry.getUuid(), entry);
+
+			ScoreEntry previous = byUuid.get(entry.getUuid());
+			if (previous == null) {
+				changes.entered.add(entry);
+			}
+			else if (previous.getRank() != entry.getRank() || previous.getPoints() != entry.getPoints()) {
+				changes.changed.add(entry);
+			}
+		}
+		for (ScoreEntry previous : top) {
+			if (!nextByUuid.containsKey(previous.getUuid())) {
+				changes.left.add(previous);
+			}
+		}
+		top = nextTop;
+		byUuid = nextByUuid;
+		return changes.isEmpty() ? Optional.empty() : Optional.of(changes);
+	}
+
+	/**
+	 * Forget the tracked rankings, so that the next poll reports every entry as entered.
+	 */
+	public void clear() {
+		scoreboard = null;
+		version = -1;
+		top = Collections.emptyList();
+		byUuid = new HashMap<>();
+	}
+
+	/**
+	 * 
+	 * @return the top rankings as of the last poll
+	 */
+	public List<ScoreEntry> getTop() {
+		return Collections.unmodifiableList(top);
+	}
+
+	/**
+	 * The differences between two polls.
+	 */
+	public static class Changes {
+		private final List<ScoreEntry> entered = new ArrayList<>();
+		private final List<ScoreEntry> changed = new ArrayList<>();
+		private final List<ScoreEntry> left = new ArrayList<>();
+		private final Map<UUID, ScoreEntry> previous;
+
+		Changes(Map<UUID, ScoreEntry> previous) {
+			this.previous = previous;
+		}
+
+		/**
+		 * 
+		 * @return the entries that are new to the top rankings
+		 */
+		public List<ScoreEntry> getEntered() {
+			return entered;
+		}
+
+		/**
+		 * 
+		 * @return the entries whose rank or points changed
+		 */
+		public List<ScoreEntry> getChanged() {
+			return changed;
+		}
+
+		/**
+		 * 
+		 * @return the previous entries that are no longer part of the top rankings
+		 */
+		public List<ScoreEntry> getLeft() {
+			return left;
+		}
+
+		/**
+		 * 
+		 * @param uuid
+		 * @return the entry as of the previous poll, if it was part of the top rankings
+		 */
+		public Optional<ScoreEntry> getPrevious(UUID uuid) {
+			return Optional.ofNullable(previous.get(uuid));
+		}
+
+		public boolean isEmpty() {
+			return entered.isEmpty() && changed.isEmpty() && left.isEmpty();
+		}
+	}
+}
@@ -0,0 +1,225 @@
+/*
+ * This file is part of  Score It.
+ * Copyright (c) 2021, Mark Gottschling (gottsch)
+ *
+ * All rights reserved.
+ *
+ * Score It is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Score It is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Protect It.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+package com.someguyssoftware.scoreit.scoreboard;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * An open-addressing hash map keyed by the two longs of a UUID.
+ * Keys are stored in primitive arrays, so a lookup hashes the UUID's bits directly without any allocation,
+ * and there is no per-entry object overhead.
+ * Deletion uses backward shifting, so there are no tombstones.
+ *
+ * @author Mark Gottschling on Oct 17, 2026
+ *
+ */
+public class UuidMap<V> {
+	private static final float LOAD_FACTOR = 0.6F;
+
+	private long[] mostBits;
+	private long[] leastBits;
+	private Object[] values;
+	private int mask;
+	private int size;
+	private int threshold;
+
+	/**
+	 *
+	 */
+	public UuidMap() {
+		this(16);
+	}
+
+	/**
+	 *
+	 * @param expected
+	 */
+	public UuidMap(int expected) {
+		allocate(capacityFor(expected));
+	}
+
+	public V get(UUID uuid) {
+		return get(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+	}
+
+	@SuppressWarnings("unchecked")
+	public V get(long most, long least) {
+		int index = find(most, least);
+		return index < 0 ? null : (V) values[index];
+	}
+
+	public boolean containsKey(UUID uuid) {
+		return find(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits()) >= 0;
+	}
+
+	/**
+	 *
+	 * @param uuid
+	 * @param value must not be null
+	 * @return the previous value or null
+	 */
+	@SuppressWarnings("unchecked")
+	public V put(UUID uuid, V value) {
+		long most = uuid.getMostSignificantBits();
+		long least = uuid.getLeastSignificantBits();
+		int index = slot(most, least);
+		while (values[index] != null) {
+			if (mostBits[index] == most && leastBits[index] == least) {
+				V previous = (V) values[index];
+				values[index] = value;
+				return previous;
+			}
+			index = (index + 1) & mask;
+		}
+		mostBits[index] = most;
+		leastBits[index] = least;
+		values[index] = value;
+		if (++size > threshold) {
+			rehash(values.length << 1);
+		}
+		return null;
+	}
+
+	/**
+	 *
+	 * @param uuid
+	 * @return the removed value or null
+	 */
+	@SuppressWarnings("unchecked")
+	public V remove(UUID uuid) {
+		int index = find(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+		if (index < 0) {
+			return null;
+		}
+		V previous = (V) values[index];
+		shiftKeys(index);
+		size--;
+		return previous;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public void clear() {
+		allocate(capacityFor(16));
+		size = 0;
+	}
+
+	@SuppressWarnings("unchecked")
+	public void forEachValue(Consumer<? super V> action) {
+		for (Object value : values) {
+			if (value != null) {
+				action.accept((V) value);
+			}
+		}
+	}
+
+	/**
+	 *
+	 * @return a new list of the values
+	 */
+	public List<V> values() {
+		List<V> list = new ArrayList<>(size);
+		forEachValue(list::add);
+		return list;
+	}
+
+	private int find(long most, long least) {
+		int index = slot(most, least);
+		while (values[index] != null) {
+			if (mostBits[index] == most && leastBits[index] == least) {
+				return index;
+			}
+			index = (index + 1) & mask;
+		}
+		return -1;
+	}
+
+	private int slot(long most, long least) {
+		// player uuids are random (v4) but mix anyway in case of sequential/offline ids
+		long h = (most ^ least) * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32)) & mask;
+	}
+
+	/*
+	 * Close the gap left at index by shifting back any entries of the probe run that can move into it.
+	 */
+	private void shiftKeys(int index) {
+		int last = index;
+		int current = (index + 1) & mask;
+		while (values[current] != null) {
+			int ideal = slot(mostBits[current], leastBits[current]);
+			// move the entry if its ideal slot is not cyclically within (last, current]
+			boolean movable = last <= current ? (ideal <= last || ideal > current) : (ideal <= last && ideal > current);
+			if (movable) {
+				mostBits[last] = mostBits[current];
+				leastBits[last] = leastBits[current];
+				values[last] = values[current];
+				last = current;
+			}
+			current = (current + 1) & mask;
+		}
+		values[last] = null;
+		mostBits[last] = 0L;
+		leastBits[last] = 0L;
+	}
+
+	private void rehash(int capacity) {
+		long[] oldMost = mostBits;
+		long[] oldLeast = leastBits;
+		Object[] oldValues = values;
+		allocate(capacity);
+		for (int i = 0; i < oldValues.length; i++) {
+			if (oldValues[i] != null) {
+				int index = slot(oldMost[i], oldLeast[i]);
+				while (values[index] != null) {
+					index = (index + 1) & mask;
+				}
+				mostBits[index] = oldMost[i];
+				leastBits[index] = oldLeast[i];
+				values[index] = oldValues[i];
+			}
+		}
+	}
+
+	private void allocate(int capacity) {
+		mostBits = new long[capacity];
+		leastBits = new long[capacity];
+		values = new Object[capacity];
+		mask = capacity - 1;
+		threshold = (int) (capacity * LOAD_FACTOR);
+	}
+
+	private static int capacityFor(int expected) {
+		int capacity = 16;
+		while (capacity * LOAD_FACTOR < expected) {
+			capacity <<= 1;
+		}
+		return capacity;
+	}
+}
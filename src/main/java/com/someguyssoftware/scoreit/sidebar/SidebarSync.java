@@ -0,0 +1,146 @@
+/*
+ * This file is part of  Score It.
+ * Copyright (c) 2021, Mark Gottschling (gottsch)
+ *
+ * All rights reserved.
+ *
+ * Score It is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Score It is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Protect It.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+package com.someguyssoftware.scoreit.sidebar;
+
+import java.util.Optional;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.someguyssoftware.scoreit.ScoreIt;
+import com.someguyssoftware.scoreit.config.ScoreItConfig;
+import com.someguyssoftware.scoreit.scoreboard.Games;
+import com.someguyssoftware.scoreit.scoreboard.ScoreEntry;
+import com.someguyssoftware.scoreit.scoreboard.TopRankTracker;
+
+import net.minecraft.scoreboard.ScoreCriteria;
+import net.minecraft.scoreboard.ScoreObjective;
+import net.minecraft.scoreboard.ServerScoreboard;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.text.TranslationTextComponent;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.event.server.FMLServerStoppedEvent;
+import net.minecraftforge.fml.server.ServerLifecycleHooks;
+
+/**
+ * Mirrors the top scores of the default game into a ScoreIt-managed objective in the vanilla scoreboard sidebar.
+ * Deposits never touch the vanilla scoreboard directly. Instead, the top rankings are polled once per update interval
+ * and only the lines that changed are set or reset, so the packets sent to clients scale with rank churn,
+ * not with the number of deposits.
+ * Only used on the server thread.
+ * 
+ * @author Mark Gottschling on Oct 17, 2026
+ *
+ */
+@Mod.EventBusSubscriber(modid = ScoreIt.MODID, bus = Mod.EventBusSubscriber.Bus.FORGE)
+public class SidebarSync {
+	public static Logger LOGGER = LogManager.getLogger(ScoreIt.NAME);
+
+	public static final String OBJECTIVE_NAME = ScoreIt.MODID;
+	private static final String SIDEBAR_SLOT = "sidebar";
+
+	private static final TopRankTracker TRACKER = new TopRankTracker();
+	private static ScoreObjective objective;
+	private static int ticks;
+
+	/**
+	 *
+	 */
+	private SidebarSync() { }
+
+	@SubscribeEvent
+	public static void onServerTick(TickEvent.ServerTickEvent event) {
+		if (event.phase != TickEvent.Phase.END) {
+			return;
+		}
+		MinecraftServer server = ServerLifecycleHooks.getCurrentServer();
+		if (server == null) {
+			return;
+		}
+		if (!ScoreItConfig.SERVER.sidebarEnabled.get()) {
+			if (objective != null) {
+				detach(server.getScoreboard());
+			}
+			return;
+		}
+		if (++ticks >= ScoreItConfig.SERVER.sidebarUpdateInterval.get()) {
+			ticks = 0;
+			update(server.getScoreboard());
+		}
+	}
+
+	@SubscribeEvent
+	public static void onServerStopped(FMLServerStoppedEvent event) {
+		// the objective belongs to the stopped server's scoreboard
+		objective = null;
+		TRACKER.clear();
+	}
+
+	/**
+	 * Apply the changes to the top rankings since the last update.
+	 * @param board
+	 */
+	public static void update(ServerScoreboard board) {
+		if (objective == null || board.getObjective(OBJECTIVE_NAME) != objective) {
+			attach(board);
+		}
+		Optional<TopRankTracker.Changes> changes = TRACKER.poll(Games.getDefault(), ScoreItConfig.SERVER.sidebarSize.get());
+		if (!changes.isPresent()) {
+			return;
+		}
+		// reset first, in case a player that left was renamed and re-entered
+		for (ScoreEntry entry : changes.get().getLeft()) {
+			board.resetPlayerScore(entry.getName(), objective);
+		}
+		for (ScoreEntry entry : changes.get().getEntered()) {
+			board.getOrCreatePlayerScore(entry.getName(), objective).setScore(entry.getPoints());
+		}
+		// the client orders the sidebar by points, so a rank only change sends nothing
+		for (ScoreEntry entry : changes.get().getChanged()) {
+			board.getOrCreatePlayerScore(entry.getName(), objective).setScore(entry.getPoints());
+		}
+	}
+
+	/*
+	 * Replace any objective left over from a previous session, so that it holds no stale lines, and show it in the sidebar.
+	 */
+	private static void attach(ServerScoreboard board) {
+		ScoreObjective existing = board.getObjective(OBJECTIVE_NAME);
+		if (existing != null) {
+			board.removeObjective(existing);
+		}
+		objective = board.addObjective(OBJECTIVE_NAME, ScoreCriteria.DUMMY,
+				new TranslationTextComponent("scoreboard.scoreit.title"), ScoreCriteria.RenderType.INTEGER);
+		board.setDisplayObjective(ServerScoreboard.getDisplaySlotByName(SIDEBAR_SLOT), objective);
+		TRACKER.clear();
+		LOGGER.debug("attached the sidebar objective -> {}", OBJECTIVE_NAME);
+	}
+
+	private static void detach(ServerScoreboard board) {
+		ScoreObjective existing = board.getObjective(OBJECTIVE_NAME);
+		if (existing != null) {
+			board.removeObjective(existing);
+		}
+		objective = null;
+		TRACKER.clear();
+	}
+}
@@ -0,0 +1,201 @@
+/*
+ * This file is part of  Score It.
+ * Copyright (c) 2021, Mark Gottschling (gottsch)
+ *
+ * All rights reserved.
+ *
+ * Score It is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Score It is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Protect It.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+package com.someguyssoftware.scoreit.tileentity;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import com.someguyssoftware.gottschcore.tileentity.AbstractModTileEntity;
+import com.someguyssoftware.scoreit.config.ScoreItConfig;
+import com.someguyssoftware.scoreit.deposit.DepositBatcher;
+import com.someguyssoftware.scoreit.item.PointValueRegistry;
+import com.someguyssoftware.scoreit.scoreboard.Games;
+import com.someguyssoftware.scoreit.scoreboard.Scoreboard;
+
+import net.minecraft.block.BlockState;
+import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.CompoundNBT;
+import net.minecraft.tileentity.ITickableTileEntity;
+import net.minecraft.util.Direction;
+import net.minecraftforge.common.capabilities.Capability;
+import net.minecraftforge.common.util.LazyOptional;
+import net.minecraftforge.items.CapabilityItemHandler;
+import net.minecraftforge.items.IItemHandler;
+import net.minecraftforge.items.ItemStackHandler;
+
+/**
+ * A Dropbox that hoppers and other automation can feed. Items worth points are accepted into a small buffer,
+ * which is drained and scored for the owner in the dropbox's game every few ticks (see dropboxDrainInterval) rather than per item.
+ * Dropboxes drain on staggered ticks so that many of them don't all do their work in the same tick.
+ * 
+ * @author Mark Gottschling on Oct 17, 2026
+ *
+ */
+public class DropboxTileEntity extends AbstractModTileEntity implements ITickableTileEntity {
+	public static final int BUFFER_SIZE = 9;
+
+	private static final String OWNER_KEY = "owner";
+	private static final String OWNER_NAME_KEY = "ownerName";
+	private static final String BUFFER_KEY = "buffer";
+	private static final String GAME_KEY = "game";
+
+	private UUID owner;
+	private String ownerName;
+	// the name of the game deposits are credited to
+	private String game = Games.DEFAULT_GAME;
+
+	private final ItemStackHandler buffer = new ItemStackHandler(BUFFER_SIZE) {
+		@Override
+		public boolean isItemValid(int slot, @Nonnull ItemStack stack) {
+			// nobody to credit, or not worth anything
+			return owner != null && PointValueRegistry.getPoints(stack) > 0;
+		}
+
+		@Nonnull
+		@Override
+		public ItemStack extractItem(int slot, int amount, boolean simulate) {
+			// intake only, hoppers below can't pull deposits back out
+			return ItemStack.EMPTY;
+		}
+
+		@Override
+		protected void onContentsChanged(int slot) {
+			setChanged();
+		}
+	};
+	private final LazyOptional<IItemHandler> bufferCapability = LazyOptional.of(() -> buffer);
+
+	public DropboxTileEntity() {
+		super(ScoreItTileEntities.DROPBOX_TILE_ENTITY_TYPE);
+	}
+
+	@Override
+	public void tick() {
+		if (level == null || level.isClientSide()) {
+			return;
+		}
+		int interval = ScoreItConfig.SERVER.dropboxDrainInterval.get();
+		// stagger by position so that dropboxes placed together don't drain on the same tick
+		if ((level.getGameTime() + (worldPosition.asLong() & 0x7FFFFFFFL)) % interval != 0) {
+			return;
+		}
+		if (owner == null) {
+			return;
+		}
+		// leave the items buffered (and the hoppers backed up) while the game isn't running. a running game is always loaded
+		Optional<Scoreboard> scoreboard = Games.getIfLoaded(game);
+		if (scoreboard.isPresent() && scoreboard.get().isRunning()) {
+			drain(scoreboard.get());
+		}
+	}
+
+	/**
+	 * Move everything in the buffer into the owner's pending batch.
+	 */
+	private void drain(Scoreboard scoreboard) {
+		for (int slot = 0; slot < buffer.getSlots(); slot++) {
+			ItemStack stack = buffer.getStackInSlot(slot);
+			if (stack.isEmpty()) {
+				continue;
+			}
+			// stacks that are no longer worth points (ie after a datapack reload) stay put and drop when the block is broken
+			int pointValue = PointValueRegistry.getPoints(stack);
+			if (pointValue > 0) {
+				DepositBatcher.add(scoreboard, owner, ownerName, stack.getItem(), stack.getCount(),
+						PointValueRegistry.applyMultipliers(scoreboard.getName(), (long) pointValue * stack.getCount()));
+				buffer.setStackInSlot(slot, ItemStack.EMPTY);
+			}
+		}
+	}
+
+	/**
+	 * 
+	 * @return the items still in the buffer, ie to drop when the block is broken
+	 */
+	public IItemHandler getBuffer() {
+		return buffer;
+	}
+
+	public UUID getOwner() {
+		return owner;
+	}
+
+	public void setOwner(UUID owner, String ownerName) {
+		this.owner = owner;
+		this.ownerName = ownerName;
+		setChanged();
+	}
+
+	/**
+	 * 
+	 * @return the name of the game deposits are credited to
+	 */
+	public String getGame() {
+		return game;
+	}
+
+	public void setGame(String game) {
+		this.game = game;
+		setChanged();
+	}
+
+	@Override
+	public void load(BlockState state, CompoundNBT nbt) {
+		super.load(state, nbt);
+		if (nbt.hasUUID(OWNER_KEY)) {
+			owner = nbt.getUUID(OWNER_KEY);
+			ownerName = nbt.getString(OWNER_NAME_KEY);
+		}
+		if (nbt.contains(BUFFER_KEY)) {
+			buffer.deserializeNBT(nbt.getCompound(BUFFER_KEY));
+		}
+		game = nbt.contains(GAME_KEY) ? nbt.getString(GAME_KEY) : Games.DEFAULT_GAME;
+	}
+
+	@Override
+	public CompoundNBT save(CompoundNBT nbt) {
+		super.save(nbt);
+		if (owner != null) {
+			nbt.putUUID(OWNER_KEY, owner);
+			nbt.putString(OWNER_NAME_KEY, ownerName == null ? "" : ownerName);
+		}
+		nbt.put(BUFFER_KEY, buffer.serializeNBT());
+		nbt.putString(GAME_KEY, game);
+		return nbt;
+	}
+
+	@Nonnull
+	@Override
+	public <T> LazyOptional<T> getCapability(@Nonnull Capability<T> capability, @Nullable Direction side) {
+		if (capability == CapabilityItemHandler.ITEM_HANDLER_CAPABILITY) {
+			return bufferCapability.cast();
+		}
+		return super.getCapability(capability, side);
+	}
+
+	@Override
+	protected void invalidateCaps() {
+		super.invalidateCaps();
+		bufferCapability.invalidate();
+	}
+}
@@ -0,0 +1,49 @@
+/*
+ * This file is part of  Score It.
+ * Copyright (c) 2021, Mark Gottschling (gottsch)
+ *
+ * All rights reserved.
+ *
+ * Score It is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Score It is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Protect It.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+package com.someguyssoftware.scoreit.tileentity;
+
+import com.someguyssoftware.scoreit.ScoreIt;
+import com.someguyssoftware.scoreit.block.ScoreItBlocks;
+
+import net.minecraft.tileentity.TileEntityType;
+import net.minecraftforge.event.RegistryEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+/**
+ * 
+ * @author Mark Gottschling on Oct 17, 2026
+ *
+ */
+@Mod.EventBusSubscriber(modid = ScoreIt.MODID, bus = Mod.EventBusSubscriber.Bus.MOD)
+public class ScoreItTileEntities {
+	public static TileEntityType<DropboxTileEntity> DROPBOX_TILE_ENTITY_TYPE;
+
+	@SubscribeEvent
+	public static void registerTileEntities(RegistryEvent.Register<TileEntityType<?>> event) {
+		DROPBOX_TILE_ENTITY_TYPE = TileEntityType.Builder.of(DropboxTileEntity::new, ScoreItBlocks.DROPBOX).build(null);
+		DROPBOX_TILE_ENTITY_TYPE.setRegistryName(ScoreIt.MODID, "dropbox");
+
+		/*
+		 * register tile entities
+		 */
+		event.getRegistry().register(DROPBOX_TILE_ENTITY_TYPE);
+	}
+}
@@ -0,0 +1,154 @@
+/*
+ * This file is part of  Score It.
+ * Copyright (c) 2021, Mark Gottschling (gottsch)
+ *
+ * All rights reserved.
+ *
+ * Score It is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Score It is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Protect It.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+package com.someguyssoftware.scoreit.deposit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.someguyssoftware.scoreit.deposit.DepositQueue.Deposit;
+import com.someguyssoftware.scoreit.scoreboard.PlayerScore;
+import com.someguyssoftware.scoreit.scoreboard.Scoreboard;
+
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.item.Items;
+import net.minecraft.util.registry.Bootstrap;
+
+/**
+ * 
+ * @author Mark Gottschling on Oct 17, 2026
+ *
+ */
+public class DepositQueueTest {
+	private static final UUID PLAYER = new UUID(1L, 2L);
+	private static final long NO_TIME_LIMIT = Long.MAX_VALUE;
+	private static final Runnable NO_SOUND = () -> {};
+
+	private Scoreboard scoreboard;
+
+	@BeforeAll
+	public static void bootstrap() {
+		// registers the vanilla items
+		Bootstrap.bootStrap();
+	}
+
+	@BeforeEach
+	public void setup() {
+		// the queue is static, so start from an empty one
+		DepositQueue.flush();
+		scoreboard = new Scoreboard("test");
+	}
+
+	private void deposit(int points) {
+		deposit(points, null);
+	}
+
+	private void deposit(int points, String team) {
+		DepositQueue.add(new Deposit(scoreboard, PLAYER, "player", team != null, team, points, new ItemStack(Items.DIAMOND), null, 1, NO_SOUND));
+	}
+
+	private int points() {
+		return scoreboard.getPlayer(PLAYER).map(PlayerScore::getPoints).orElse(0);
+	}
+
+	@Test
+	public void countBudget() {
+		for (int i = 0; i < 10; i++) {
+			deposit(1);
+		}
+
+		assertEquals(3, DepositQueue.tick(3, NO_TIME_LIMIT, 100));
+		assertEquals(7, DepositQueue.size());
+		assertEquals(3, points());
+
+		assertEquals(3, DepositQueue.tick(3, NO_TIME_LIMIT, 100));
+		assertEquals(3, DepositQueue.tick(3, NO_TIME_LIMIT, 100));
+		assertEquals(1, DepositQueue.tick(3, NO_TIME_LIMIT, 100));
+		assertEquals(0, DepositQueue.size());
+		assertEquals(10, points());
+		assertEquals(10, scoreboard.getPlayer(PLAYER).get().getItemCount(Items.DIAMOND));
+	}
+
+	@Test
+	public void timeBudgetStillCreditsOnePerTick() {
+		for (int i = 0; i < 5; i++) {
+			deposit(1);
+		}
+
+		assertEquals(1, DepositQueue.tick(100, 0L, 100));
+		assertEquals(4, DepositQueue.size());
+	}
+
+	@Test
+	public void overdueDepositsIgnoreTheBudgets() {
+		for (int i = 0; i < 5; i++) {
+			deposit(1);
+		}
+
+		// one tick old
+		assertEquals(1, DepositQueue.tick(1, NO_TIME_LIMIT, 2));
+		// two ticks old, so every deposit is overdue
+		assertEquals(4, DepositQueue.tick(1, NO_TIME_LIMIT, 2));
+		assertEquals(0, DepositQueue.size());
+		assertEquals(5, points());
+	}
+
+	@Test
+	public void creditedInOrder() {
+		deposit(1, "red");
+		deposit(2, "blue");
+
+		DepositQueue.tick(1, NO_TIME_LIMIT, 100);
+		assertEquals("red", scoreboard.getPlayer(PLAYER).get().getTeam());
+		DepositQueue.tick(1, NO_TIME_LIMIT, 100);
+		assertEquals("blue", scoreboard.getPlayer(PLAYER).get().getTeam());
+		assertEquals(3, points());
+	}
+
+	@Test
+	public void bulkDeposit() {
+		Reference2IntOpenHashMap<Item> itemCounts = new Reference2IntOpenHashMap<>();
+		itemCounts.put(Items.DIAMOND, 3);
+		itemCounts.put(Items.EMERALD, 2);
+		DepositQueue.add(new Deposit(scoreboard, PLAYER, "player", false, null, 50, ItemStack.EMPTY, itemCounts, 2, NO_SOUND));
+
+		assertEquals(1, DepositQueue.tick(1, NO_TIME_LIMIT, 100));
+		assertEquals(50, points());
+		assertEquals(3, scoreboard.getPlayer(PLAYER).get().getItemCount(Items.DIAMOND));
+		assertEquals(2, scoreboard.getPlayer(PLAYER).get().getItemCount(Items.EMERALD));
+	}
+
+	@Test
+	public void flushCreditsEverything() {
+		for (int i = 0; i < 5; i++) {
+			deposit(2);
+		}
+
+		DepositQueue.flush();
+		assertEquals(0, DepositQueue.size());
+		assertEquals(10, points());
+	}
+}
@@ -0,0 +1,86 @@
+/*
+ * This file is part of  Score It.
+ * Copyright (c) 2021, Mark Gottschling (gottsch)
+ *
+ * All rights reserved.
+ *
+ * Score It is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Score It is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Protect It.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+package com.someguyssoftware.scoreit.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.someguyssoftware.scoreit.scoreboard.Scoreboard;
+
+/**
+ * 
+ * @author Mark Gottschling on Oct 17, 2026
+ *
+ */
+public class GameStoreTest {
+	private static final UUID PLAYER = new UUID(1L, 2L);
+
+	@TempDir
+	Path folder;
+
+	private long corruptBases() throws IOException {
+		try (Stream<Path> files = Files.list(folder)) {
+			return files.filter(path -> path.getFileName().toString().startsWith("base.dat.corrupt-")).count();
+		}
+	}
+
+	/*
+	 * A base that can't be read is moved aside, and the game is neither loaded from the deltas nor saved over them.
+	 */
+	@Test
+	public void unreadableBaseIsKept() throws IOException {
+		Files.write(folder.resolve("base.dat"), new byte[] {1, 2, 3});
+		Path delta = Files.createDirectories(folder.resolve(GameStore.DELTAS_FOLDER))
+				.resolve(GameStore.DELTA_PREFIX + 1 + GameStore.DELTA_SUFFIX);
+		Files.write(delta, new byte[] {4});
+
+		GameStore store = new GameStore(folder);
+		Scoreboard scoreboard = new Scoreboard("test");
+		store.load(scoreboard).join();
+		assertTrue(store.isDamaged());
+		assertEquals(0, scoreboard.size());
+		assertFalse(Files.exists(folder.resolve("base.dat")));
+		assertEquals(1, corruptBases());
+
+		scoreboard.addPlayer(PLAYER, "player");
+		scoreboard.addPoints(PLAYER, 1);
+		store.save(scoreboard);
+		store.saveBase(scoreboard).join();
+		GameStore.flush(5);
+		assertFalse(Files.exists(folder.resolve("base.dat")));
+		assertTrue(Files.exists(delta));
+
+		// still damaged when it is loaded again, until the base is restored
+		GameStore reloaded = new GameStore(folder);
+		reloaded.load(new Scoreboard("test")).join();
+		assertTrue(reloaded.isDamaged());
+		assertEquals(1, corruptBases());
+	}
+}
@@ -0,0 +1,124 @@
+/*
+ * This file is part of  Score It.
+ * Copyright (c) 2021, Mark Gottschling (gottsch)
+ *
+ * All rights reserved.
+ *
+ * Score It is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Score It is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Protect It.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+package com.someguyssoftware.scoreit.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.someguyssoftware.scoreit.scoreboard.PlayerScore;
+import com.someguyssoftware.scoreit.scoreboard.Scoreboard;
+
+/**
+ * 
+ * @author Mark Gottschling on Oct 17, 2026
+ *
+ */
+public class WriteAheadLogTest {
+	private static final UUID PLAYER = new UUID(1L, 2L);
+
+	@TempDir
+	Path folder;
+
+	private static int points(Scoreboard scoreboard) {
+		return scoreboard.getPlayer(PLAYER).map(PlayerScore::getPoints).orElse(-1);
+	}
+
+	/*
+	 * Log 1 point, save as segment 1, log 10 points, save as segment 2, then log 100 points.
+	 */
+	private WriteAheadLog logTwoSaves() throws IOException {
+		Scoreboard scoreboard = new Scoreboard("test");
+		WriteAheadLog log = WriteAheadLog.open(folder, 0, scoreboard);
+		scoreboard.setJournal(log);
+		scoreboard.addPlayer(PLAYER, "player");
+		scoreboard.addPoints(PLAYER, 1);
+		// both rotations are made well within one commit interval
+		log.rotate(1);
+		scoreboard.addPoints(PLAYER, 10);
+		log.rotate(2);
+		scoreboard.addPoints(PLAYER, 100);
+		return log;
+	}
+
+	@Test
+	public void replayEveryLog() throws IOException {
+		logTwoSaves().close().join();
+
+		// none of the saves were written, so everything is replayed from the first log
+		Scoreboard restored = new Scoreboard("test");
+		WriteAheadLog log = WriteAheadLog.open(folder, 0, restored);
+		log.close().join();
+
+		assertEquals(111, points(restored));
+		assertEquals(2, log.getSegment());
+	}
+
+	@Test
+	public void twoRotationsInOneCommitInterval() throws IOException {
+		WriteAheadLog written = logTwoSaves();
+		// the save as segment 1 is on disk
+		written.retire(1);
+		written.close().join();
+
+		assertFalse(Files.exists(folder.resolve("wal-0.log")));
+		assertTrue(Files.exists(folder.resolve("wal-1.log")));
+		assertTrue(Files.exists(folder.resolve("wal-2.log")));
+
+		// load the save as segment 1, which has the player and the first point, then replay the logs after it
+		Scoreboard restored = new Scoreboard("test");
+		restored.addPlayer(PLAYER, "player");
+		restored.addPoints(PLAYER, 1);
+		WriteAheadLog log = WriteAheadLog.open(folder, 1, restored);
+		log.close().join();
+
+		assertEquals(111, points(restored));
+	}
+
+	@Test
+	public void tornRecordIsDropped() throws IOException {
+		logTwoSaves().close().join();
+		Path last = folder.resolve("wal-2.log");
+		byte[] bytes = Files.readAllBytes(last);
+		// cut the last record short, as a crash mid-write would
+		Files.write(last, Arrays.copyOf(bytes, bytes.length - 3));
+
+		Scoreboard restored = new Scoreboard("test");
+		WriteAheadLog log = WriteAheadLog.open(folder, 0, restored);
+		restored.setJournal(log);
+		// appended after the last good record
+		restored.addPoints(PLAYER, 1000);
+		log.close().join();
+		assertEquals(1011, points(restored));
+
+		Scoreboard again = new Scoreboard("test");
+		WriteAheadLog.open(folder, 0, again).close().join();
+		assertEquals(1011, points(again));
+	}
+}
@@ -0,0 +1,210 @@
+/*
+ * This file is part of  Score It.
+ * Copyright (c) 2021, Mark Gottschling (gottsch)
+ *
+ * All rights reserved.
+ *
+ * Score It is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Score It is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Protect It.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+package com.someguyssoftware.scoreit.scoreboard;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.item.Items;
+import net.minecraft.nbt.CompoundNBT;
+import net.minecraft.nbt.ListNBT;
+import net.minecraft.nbt.StringNBT;
+import net.minecraft.util.registry.Bootstrap;
+import net.minecraft.util.registry.Registry;
+
+/**
+ * 
+ * @author Mark Gottschling on Oct 17, 2026
+ *
+ */
+public class ItemDictionaryTest {
+
+	@BeforeAll
+	public static void bootstrap() {
+		// registers the vanilla items
+		Bootstrap.bootStrap();
+	}
+
+	private static int id(Item item) {
+		return Registry.ITEM.getId(item);
+	}
+
+	@Test
+	public void saveAndLoad() {
+		ItemDictionary dictionary = new ItemDictionary();
+		assertEquals(0, dictionary.indexOf(id(Items.DIAMOND)));
+		assertEquals(1, dictionary.indexOf(id(Items.EMERALD)));
+		assertEquals(0, dictionary.indexOf(id(Items.DIAMOND)));
+
+		ListNBT names = dictionary.save();
+		assertEquals("minecraft:diamond", names.getString(0));
+		assertEquals("minecraft:emerald", names.getString(1));
+
+		ItemDictionary loaded = ItemDictionary.load(names);
+		assertEquals(2, loaded.size());
+		assertEquals(id(Items.DIAMOND), loaded.getRegistryId(0));
+		assertEquals(id(Items.EMERALD), loaded.getRegistryId(1));
+		assertEquals(-1, loaded.getRegistryId(2));
+	}
+
+	@Test
+	public void unknownItemsKeepTheirIndex() {
+		ListNBT names = new ListNBT();
+		names.add(StringNBT.valueOf("minecraft:diamond"));
+		names.add(StringNBT.valueOf("removedmod:gem"));
+		names.add(StringNBT.valueOf("minecraft:emerald"));
+
+		ItemDictionary loaded = ItemDictionary.load(names);
+		assertEquals(id(Items.DIAMOND), loaded.getRegistryId(0));
+		assertEquals(-1, loaded.getRegistryId(1));
+		assertEquals(id(Items.EMERALD), loaded.getRegistryId(2));
+		// and are saved again unchanged
+		assertEquals(names, loaded.save());
+	}
+
+	@Test
+	public void extendKeepsTheIndexes() {
+		ItemDictionary dictionary = new ItemDictionary();
+		dictionary.indexOf(id(Items.DIAMOND));
+		ItemDictionary extended = dictionary.extend();
+		assertEquals(1, extended.indexOf(id(Items.EMERALD)));
+
+		assertEquals(0, extended.indexOf(id(Items.DIAMOND)));
+		assertEquals(1, dictionary.size());
+		assertTrue(extended.isExtensionOf(dictionary));
+		assertTrue(extended.extend().isExtensionOf(dictionary));
+		assertFalse(dictionary.isExtensionOf(extended));
+		assertFalse(new ItemDictionary().isExtensionOf(dictionary));
+	}
+
+	@Test
+	public void translateDropsUnknownItems() {
+		ListNBT names = new ListNBT();
+		names.add(StringNBT.valueOf("removedmod:gem"));
+		names.add(StringNBT.valueOf("minecraft:emerald"));
+		ItemDictionary source = ItemDictionary.load(names);
+
+		ItemDictionary target = new ItemDictionary();
+		target.indexOf(id(Items.DIAMOND));
+		// (index, count) pairs
+		int[] translated = target.translate(new int[] {0, 5, 1, 7}, source);
+		assertArrayEquals(new int[] {1, 7}, translated);
+		assertEquals(id(Items.EMERALD), target.getRegistryId(1));
+	}
+
+	/*
+	 * A scoreboard saved in the dictionary format (2) loads with the same points and item counts,
+	 * and saves again unchanged without decoding the counts.
+	 */
+	@Test
+	public void scoreboardRoundTrip() {
+		UUID first = new UUID(0L, 1L);
+		UUID second = new UUID(0L, 2L);
+		Scoreboard scoreboard = new Scoreboard("test");
+		scoreboard.addPlayer(first, "first");
+		scoreboard.addPlayer(second, "second");
+		scoreboard.addPoints(first, 10, new ItemStack(Items.DIAMOND, 2));
+		scoreboard.addPoints(first, 5, new ItemStack(Items.EMERALD, 1));
+		scoreboard.addPoints(second, 3, new ItemStack(Items.DIAMOND, 3));
+
+		CompoundNBT saved = scoreboard.save(new CompoundNBT());
+		assertEquals(Scoreboard.FORMAT_VERSION, saved.getInt(Scoreboard.FORMAT_KEY));
+		// each item is named once, not once per player
+		assertEquals(2, saved.getList(Scoreboard.ITEMS_KEY, 8).size());
+
+		Scoreboard loaded = new Scoreboard("test");
+		loaded.load(saved);
+		assertFalse(loaded.isFullSaveRequired());
+		assertEquals(saved, loaded.save(new CompoundNBT()));
+
+		PlayerScore score = loaded.getPlayer(first).get();
+		assertEquals(15, score.getPoints());
+		assertEquals(2, score.getItemCount(Items.DIAMOND));
+		assertEquals(1, score.getItemCount(Items.EMERALD));
+		assertEquals(3, loaded.getPlayer(second).get().getItemCount(Items.DIAMOND));
+		assertEquals(0, loaded.getPlayer(second).get().getItemCount(Items.EMERALD));
+	}
+
+	/*
+	 * A score's saved record is reused until the score changes, so the saves only encode the changed scores.
+	 */
+	@Test
+	public void unchangedScoresAreNotReencoded() {
+		PlayerScore score = new PlayerScore(new UUID(0L, 1L), "first");
+		score.addItemCount(Items.DIAMOND, 2);
+		ItemDictionary dictionary = new ItemDictionary();
+
+		PlayerScore.Saved saved = score.snapshot(dictionary);
+		assertSame(saved, score.snapshot(dictionary));
+		// reading the counts doesn't change them
+		assertEquals(2, score.getItemCount(Items.DIAMOND));
+		assertSame(saved, score.snapshot(dictionary));
+
+		score.addItemCount(Items.EMERALD, 1);
+		PlayerScore.Saved changed = score.snapshot(dictionary);
+		assertNotSame(saved, changed);
+		score.addPoints(1);
+		assertNotSame(changed, score.snapshot(dictionary));
+	}
+
+	/*
+	 * A delta names only the items of its players, and loads on top of the base with the right counts.
+	 */
+	@Test
+	public void deltaRoundTrip() {
+		UUID first = new UUID(0L, 1L);
+		UUID second = new UUID(0L, 2L);
+		Scoreboard scoreboard = new Scoreboard("test");
+		scoreboard.addPlayer(first, "first");
+		scoreboard.addPlayer(second, "second");
+		scoreboard.addPoints(first, 10, new ItemStack(Items.DIAMOND, 2));
+		scoreboard.addPoints(second, 3, new ItemStack(Items.EMERALD, 3));
+		CompoundNBT base = scoreboard.save(new CompoundNBT());
+
+		scoreboard.addPoints(second, 4, new ItemStack(Items.GOLD_INGOT, 4));
+		Optional<CompoundNBT> delta = scoreboard.saveDelta();
+		assertTrue(delta.isPresent());
+		assertEquals(1, delta.get().getList(Scoreboard.REGISTRY_KEY, 10).size());
+		assertEquals(2, delta.get().getList(Scoreboard.ITEMS_KEY, 8).size());
+
+		Scoreboard loaded = new Scoreboard("test");
+		loaded.load(base);
+		loaded.loadDelta(delta.get());
+		assertEquals(2, loaded.getPlayer(first).get().getItemCount(Items.DIAMOND));
+		PlayerScore score = loaded.getPlayer(second).get();
+		assertEquals(7, score.getPoints());
+		assertEquals(3, score.getItemCount(Items.EMERALD));
+		assertEquals(4, score.getItemCount(Items.GOLD_INGOT));
+		// the delta's items were added to the scoreboard's dictionary in the same order
+		assertEquals(scoreboard.save(new CompoundNBT()).getList(Scoreboard.ITEMS_KEY, 8), loaded.save(new CompoundNBT()).getList(Scoreboard.ITEMS_KEY, 8));
+	}
+}
@@ -0,0 +1,64 @@
+/*
+ * This file is part of  Score It.
+ * Copyright (c) 2021, Mark Gottschling (gottsch)
+ *
+ * All rights reserved.
+ *
+ * Score It is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Score It is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Protect It.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+package com.someguyssoftware.scoreit.scoreboard;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * 
+ * @author Mark Gottschling on Oct 17, 2026
+ *
+ */
+public class PlayerScoreTest {
+
+	@Test
+	public void pointsSaturate() {
+		PlayerScore score = new PlayerScore(new UUID(0L, 1L), "first");
+		score.addPoints(Integer.MAX_VALUE);
+		score.addPoints(Integer.MAX_VALUE);
+		assertEquals(Integer.MAX_VALUE, score.getPoints());
+		score.addPoints(-1);
+		assertEquals(Integer.MAX_VALUE - 1, score.getPoints());
+
+		score.setPoints(Integer.MIN_VALUE + 1);
+		score.addPoints(-2);
+		assertEquals(Integer.MIN_VALUE, score.getPoints());
+	}
+
+	/*
+	 * The team total only moves by what a saturated member actually gained.
+	 */
+	@Test
+	public void teamTotalFollowsASaturatedScore() {
+		UUID player = new UUID(0L, 1L);
+		Scoreboard scoreboard = new Scoreboard("test");
+		scoreboard.addPlayer(player, "first");
+		scoreboard.setTeam(player, "red");
+		scoreboard.addPoints(player, Integer.MAX_VALUE);
+		scoreboard.addPoints(player, Integer.MAX_VALUE);
+
+		assertEquals(Integer.MAX_VALUE, scoreboard.getPlayer(player).get().getPoints());
+		assertEquals((long) Integer.MAX_VALUE, scoreboard.getTeam("red").get().getPoints());
+	}
+}
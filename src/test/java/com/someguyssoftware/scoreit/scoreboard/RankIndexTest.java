@@ -0,0 +1,250 @@
+/*
+ * This file is part of  Score It.
+ * Copyright (c) 2021, Mark Gottschling (gottsch)
+ *
+ * All rights reserved.
+ *
+ * Score It is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Score It is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Protect It.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+package com.someguyssoftware.scoreit.scoreboard;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * 
+ * @author Mark Gottschling on Oct 17, 2026
+ *
+ */
+public class RankIndexTest {
+
+	/*
+	 * The reference order: points descending, then uuid ascending.
+	 */
+	private static void sort(List<PlayerScore> scores) {
+		scores.sort((a, b) -> a.getPoints() != b.getPoints() ? Integer.compare(b.getPoints(), a.getPoints()) : a.getUuid().compareTo(b.getUuid()));
+	}
+
+	private static PlayerScore score(Random random, int points) {
+		PlayerScore score = new PlayerScore(new UUID(random.nextLong(), random.nextLong()), "player");
+		score.setPoints(points);
+		return score;
+	}
+
+	private static void assertMatches(List<PlayerScore> expected, RankIndex index) {
+		assertEquals(expected.size(), index.size());
+		for (int i = 0; i < expected.size(); i++) {
+			assertSame(expected.get(i), index.get(i + 1));
+			assertEquals(i + 1, index.rankOf(expected.get(i)));
+		}
+	}
+
+	@Test
+	public void emptyIndex() {
+		RankIndex index = new RankIndex();
+		assertEquals(0, index.size());
+		assertNull(index.get(1));
+		assertEquals(-1, index.rankOf(new PlayerScore(UUID.randomUUID())));
+		assertTrue(index.range(1, 5).isEmpty());
+	}
+
+	@Test
+	public void tiesAreOrderedByUuid() {
+		PlayerScore low = new PlayerScore(new UUID(0, 1));
+		PlayerScore high = new PlayerScore(new UUID(0, 2));
+		PlayerScore negative = new PlayerScore(new UUID(-1, 0));
+		low.setPoints(10);
+		high.setPoints(10);
+		negative.setPoints(10);
+
+		RankIndex index = new RankIndex();
+		index.add(high);
+		index.add(low);
+		index.add(negative);
+
+		// same as UUID.compareTo(), which compares the bits signed
+		assertSame(negative, index.get(1));
+		assertSame(low, index.get(2));
+		assertSame(high, index.get(3));
+	}
+
+	@Test
+	public void outOfBoundsRank() {
+		RankIndex index = new RankIndex();
+		index.add(score(new Random(1), 5));
+		assertNull(index.get(0));
+		assertNull(index.get(2));
+		assertNull(index.get(-1));
+	}
+
+	@Test
+	public void matchesSortedList() {
+		Random random = new Random(20211017L);
+		RankIndex index = new RankIndex();
+		List<PlayerScore> expected = new ArrayList<>();
+		for (int i = 0; i < 2000; i++) {
+			// a small points range so there are plenty of ties
+			PlayerScore score = score(random, random.nextInt(100));
+			index.add(score);
+			expected.add(score);
+		}
+		sort(expected);
+		assertMatches(expected, index);
+	}
+
+	@Test
+	public void removeThenReAddOnPointsChange() {
+		Random random = new Random(42L);
+		RankIndex index = new RankIndex();
+		List<PlayerScore> expected = new ArrayList<>();
+		for (int i = 0; i < 500; i++) {
+			PlayerScore score = score(random, random.nextInt(50));
+			index.add(score);
+			expected.add(score);
+		}
+
+		for (int i = 0; i < 2000; i++) {
+			PlayerScore score = expected.get(random.nextInt(expected.size()));
+			assertTrue(index.remove(score));
+			score.addPoints(random.nextInt(20));
+			index.add(score);
+		}
+		sort(expected);
+		assertMatches(expected, index);
+
+		// removing every other score
+		List<PlayerScore> kept = new ArrayList<>();
+		for (int i = 0; i < expected.size(); i++) {
+			if (i % 2 == 0) {
+				assertTrue(index.remove(expected.get(i)));
+			}
+			else {
+				kept.add(expected.get(i));
+			}
+		}
+		assertMatches(kept, index);
+	}
+
+	@Test
+	public void removeMissingScore() {
+		Random random = new Random(7L);
+		RankIndex index = new RankIndex();
+		PlayerScore score = score(random, 10);
+		index.add(score);
+
+		assertFalse(index.remove(score(random, 10)));
+		assertEquals(1, index.size());
+		assertTrue(index.remove(score));
+		assertFalse(index.remove(score));
+		assertEquals(0, index.size());
+	}
+
+	@Test
+	public void range() {
+		Random random = new Random(99L);
+		RankIndex index = new RankIndex();
+		List<PlayerScore> expected = new ArrayList<>();
+		for (int i = 0; i < 300; i++) {
+			PlayerScore score = score(random, random.nextInt(1000));
+			index.add(score);
+			expected.add(score);
+		}
+		sort(expected);
+
+		assertEquals(expected.subList(0, 5), index.range(1, 5));
+		assertEquals(expected.subList(99, 109), index.range(100, 10));
+		// clamped at both ends
+		assertEquals(expected.subList(0, 3), index.range(-2, 3));
+		assertEquals(expected.subList(295, 300), index.range(296, 10));
+		assertEquals(expected, index.range(1, Integer.MAX_VALUE));
+		assertTrue(index.range(301, 5).isEmpty());
+		assertTrue(index.range(1, 0).isEmpty());
+	}
+
+	@Test
+	public void copyIsNotChangedByLaterUpdates() {
+		Random random = new Random(11L);
+		RankIndex index = new RankIndex();
+		List<PlayerScore> expected = new ArrayList<>();
+		for (int i = 0; i < 300; i++) {
+			PlayerScore score = score(random, random.nextInt(100));
+			index.add(score);
+			expected.add(score);
+		}
+		sort(expected);
+		RankIndex copy = index.copy();
+		List<Integer> points = new ArrayList<>();
+		for (PlayerScore score : expected) {
+			points.add(score.getPoints());
+		}
+
+		// keep changing the index, and the copy in turn, after the copy was taken
+		List<PlayerScore> changed = new ArrayList<>(expected);
+		for (int i = 0; i < 1000; i++) {
+			PlayerScore score = changed.get(random.nextInt(changed.size()));
+			index.remove(score);
+			score.addPoints(1 + random.nextInt(20));
+			index.add(score);
+		}
+		for (int i = 0; i < 50; i++) {
+			PlayerScore score = score(random, random.nextInt(100));
+			index.add(score);
+			changed.add(score);
+			copy.add(score(random, random.nextInt(100)));
+		}
+		sort(changed);
+		assertMatches(changed, index);
+
+		// the copy still has the scores with the points they had when they were indexed
+		List<PlayerScore> copied = new ArrayList<>();
+		List<Integer> copiedPoints = new ArrayList<>();
+		copy.forEach((score, p) -> {
+			copied.add(score);
+			copiedPoints.add(p);
+		});
+		assertEquals(350, copied.size());
+		copied.retainAll(expected);
+		assertEquals(expected, copied);
+		List<Integer> originalPoints = new ArrayList<>();
+		copy.forEach((score, p) -> {
+			if (expected.contains(score)) {
+				originalPoints.add(p);
+			}
+		});
+		assertEquals(points, originalPoints);
+		assertEquals(changed.size(), index.size());
+	}
+
+	@Test
+	public void clear() {
+		Random random = new Random(3L);
+		RankIndex index = new RankIndex();
+		for (int i = 0; i < 10; i++) {
+			index.add(score(random, i));
+		}
+		index.clear();
+		assertEquals(0, index.size());
+		assertNull(index.get(1));
+	}
+}
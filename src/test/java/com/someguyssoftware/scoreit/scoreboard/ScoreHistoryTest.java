@@ -0,0 +1,218 @@
+/*
+ * This file is part of  Score It.
+ * Copyright (c) 2021, Mark Gottschling (gottsch)
+ *
+ * All rights reserved.
+ *
+ * Score It is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Score It is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Protect It.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+package com.someguyssoftware.scoreit.scoreboard;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import net.minecraft.nbt.CompoundNBT;
+
+/**
+ * 
+ * @author Mark Gottschling on Oct 17, 2026
+ *
+ */
+public class ScoreHistoryTest {
+
+	private static long total(ScoreHistory history) {
+		long[] total = new long[1];
+		history.forEach((tick, width, points) -> total[0] += points);
+		return total[0];
+	}
+
+	/*
+	 * The buckets are in time order, aligned to the width and within the capacity.
+	 */
+	private static void assertWellFormed(ScoreHistory history) {
+		assertTrue(history.size() <= history.capacity());
+		assertEquals(0, Long.bitCount(history.getWidth()) - 1, "width is a power of two");
+		for (int i = 0; i < history.size(); i++) {
+			assertEquals(0, Math.floorMod(history.getTick(i), history.getWidth()));
+			if (i > 0) {
+				assertTrue(history.getTick(i) > history.getTick(i - 1));
+			}
+		}
+	}
+
+	@Test
+	public void recordWithinCapacity() {
+		ScoreHistory history = new ScoreHistory(8);
+		history.record(10, 5);
+		history.record(10, 3);
+		history.record(12, 1);
+
+		assertEquals(1, history.getWidth());
+		assertEquals(2, history.size());
+		assertEquals(10, history.getTick(0));
+		assertEquals(8, history.getPoints(0));
+		assertEquals(12, history.getTick(1));
+		assertEquals(1, history.getPoints(1));
+	}
+
+	@Test
+	public void clockGoingBackwardsAddsToTheLastBucket() {
+		ScoreHistory history = new ScoreHistory(8);
+		history.record(20, 1);
+		history.record(15, 2);
+
+		assertEquals(1, history.size());
+		assertEquals(20, history.getTick(0));
+		assertEquals(3, history.getPoints(0));
+	}
+
+	@Test
+	public void downsampleWhenFull() {
+		ScoreHistory history = new ScoreHistory(4);
+		for (int tick = 0; tick < 8; tick++) {
+			history.record(tick, 1);
+		}
+
+		// the first four one-tick buckets were merged into two-tick buckets to make room
+		assertEquals(2, history.getWidth());
+		assertEquals(4, history.size());
+		for (int i = 0; i < 4; i++) {
+			assertEquals(i * 2L, history.getTick(i));
+			assertEquals(2, history.getPoints(i));
+		}
+	}
+
+	@Test
+	public void downsampleRepeatedlyForALongGap() {
+		ScoreHistory history = new ScoreHistory(2);
+		history.record(0, 1);
+		history.record(1, 1);
+		history.record(100, 1);
+		history.record(1000, 1);
+
+		// 1000 only gets its own bucket once 0 and 100 share one, at a width of 128
+		assertEquals(128, history.getWidth());
+		assertEquals(2, history.size());
+		assertEquals(0, history.getTick(0));
+		assertEquals(3, history.getPoints(0));
+		assertEquals(896, history.getTick(1));
+		assertEquals(1, history.getPoints(1));
+	}
+
+	@Test
+	public void downsampleKeepsEveryPoint() {
+		Random random = new Random(20211017L);
+		ScoreHistory history = new ScoreHistory(16);
+		long tick = 0;
+		long total = 0;
+		for (int i = 0; i < 10000; i++) {
+			tick += random.nextInt(50);
+			int points = random.nextInt(100);
+			history.record(tick, points);
+			total += points;
+
+			// the newest points are always in the last bucket
+			long last = history.getTick(history.size() - 1);
+			assertTrue(tick >= last && tick < last + history.getWidth());
+		}
+		assertWellFormed(history);
+		assertEquals(total, total(history));
+	}
+
+	@Test
+	public void copyIsIndependent() {
+		ScoreHistory history = new ScoreHistory(4);
+		history.record(0, 1);
+		history.record(1, 1);
+		ScoreHistory copy = history.copy();
+
+		for (int tick = 2; tick < 10; tick++) {
+			history.record(tick, 1);
+		}
+		assertEquals(1, copy.getWidth());
+		assertEquals(2, copy.size());
+		assertEquals(2, total(copy));
+		assertEquals(10, total(history));
+	}
+
+	@Test
+	public void freezeIsCopyOnWrite() {
+		ScoreHistory history = new ScoreHistory(4);
+		history.record(0, 1);
+		history.record(1, 1);
+		ScoreHistory frozen = history.freeze();
+
+		for (int tick = 2; tick < 10; tick++) {
+			history.record(tick, 1);
+		}
+		assertEquals(1, frozen.getWidth());
+		assertEquals(2, frozen.size());
+		assertEquals(2, total(frozen));
+		assertEquals(10, total(history));
+
+		// and the other way round
+		ScoreHistory again = history.freeze();
+		again.record(100, 5);
+		assertEquals(10, total(history));
+		assertEquals(15, total(again));
+	}
+
+	@Test
+	public void saveAndLoad() {
+		ScoreHistory history = new ScoreHistory(4);
+		for (int tick = 0; tick < 20; tick += 3) {
+			history.record(tick, tick);
+		}
+		ScoreHistory loaded = ScoreHistory.load(history.save(new CompoundNBT()), 4);
+
+		assertEquals(history.getWidth(), loaded.getWidth());
+		assertEquals(history.size(), loaded.size());
+		for (int i = 0; i < history.size(); i++) {
+			assertEquals(history.getTick(i), loaded.getTick(i));
+			assertEquals(history.getPoints(i), loaded.getPoints(i));
+		}
+
+		// a larger capacity applies to the loaded history
+		assertEquals(8, ScoreHistory.load(history.save(new CompoundNBT()), 8).capacity());
+	}
+
+	/*
+	 * A partly filled history is reloaded with the configured capacity, not just the saved buckets,
+	 * so it keeps recording at one tick per bucket after a restart.
+	 */
+	@Test
+	public void loadKeepsTheConfiguredCapacity() {
+		PlayerScore score = new PlayerScore(new UUID(0L, 1L), "first");
+		for (int tick = 0; tick < 3; tick++) {
+			score.recordHistory(tick, 1, 4096);
+		}
+		ItemDictionary dictionary = new ItemDictionary();
+		PlayerScore loaded = PlayerScore.load(score.save(new CompoundNBT(), dictionary), dictionary, 4096).get();
+		ScoreHistory history = loaded.getHistory();
+		assertEquals(3, history.size());
+		assertEquals(4096, history.capacity());
+
+		for (int tick = 3; tick < 100; tick++) {
+			loaded.recordHistory(tick, 1, 4096);
+		}
+		assertEquals(1, history.getWidth());
+		assertEquals(100, history.size());
+		assertEquals(100, total(history));
+	}
+}
@@ -0,0 +1,153 @@
+/*
+ * This file is part of  Score It.
+ * Copyright (c) 2021, Mark Gottschling (gottsch)
+ *
+ * All rights reserved.
+ *
+ * Score It is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Score It is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Protect It.  If not, see <http://www.gnu.org/licenses/lgpl>.
+ */
+package com.someguyssoftware.scoreit.scoreboard;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * 
+ * @author Mark Gottschling on Oct 17, 2026
+ *
+ */
+public class UuidMapTest {
+
+	private static void assertMatches(Map<UUID, Integer> expected, UuidMap<Integer> map) {
+		assertEquals(expected.size(), map.size());
+		for (Map.Entry<UUID, Integer> entry : expected.entrySet()) {
+			assertSame(entry.getValue(), map.get(entry.getKey()));
+		}
+		List<Integer> values = map.values();
+		assertEquals(expected.size(), values.size());
+		assertTrue(values.containsAll(expected.values()));
+	}
+
+	@Test
+	public void putGetReplace() {
+		UuidMap<Integer> map = new UuidMap<>();
+		UUID uuid = UUID.randomUUID();
+		Integer first = Integer.valueOf(1);
+		Integer second = Integer.valueOf(2);
+
+		assertNull(map.put(uuid, first));
+		assertSame(first, map.get(uuid));
+		assertSame(first, map.put(uuid, second));
+		assertSame(second, map.get(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits()));
+		assertEquals(1, map.size());
+		assertTrue(map.containsKey(uuid));
+		assertFalse(map.containsKey(UUID.randomUUID()));
+	}
+
+	@Test
+	public void removeMissingKey() {
+		UuidMap<Integer> map = new UuidMap<>();
+		map.put(UUID.randomUUID(), 1);
+		assertNull(map.remove(UUID.randomUUID()));
+		assertEquals(1, map.size());
+	}
+
+	/*
+	 * Nine sequential ids in a sixteen slot table collide into probe runs, so removals have to shift
+	 * entries back across the run.
+	 */
+	@Test
+	public void removeFromProbeRuns() {
+		UuidMap<Integer> map = new UuidMap<>(8);
+		Map<UUID, Integer> expected = new HashMap<>();
+		for (int i = 0; i < 9; i++) {
+			UUID uuid = new UUID(0L, i);
+			Integer value = i;
+			map.put(uuid, value);
+			expected.put(uuid, value);
+		}
+		// remove the head, the middle and the tail of the runs in turn, checking every lookup after each one
+		int[] order = {0, 4, 8, 1, 7, 2, 6, 3, 5};
+		for (int i : order) {
+			UUID uuid = new UUID(0L, i);
+			assertEquals(Integer.valueOf(i), map.remove(uuid));
+			expected.remove(uuid);
+			assertNull(map.get(uuid));
+			assertMatches(expected, map);
+		}
+		assertTrue(map.isEmpty());
+	}
+
+	/*
+	 * Random operations at the highest load factor the map allows, checked against a HashMap.
+	 */
+	@Test
+	public void matchesHashMap() {
+		Random random = new Random(20211017L);
+		UuidMap<Integer> map = new UuidMap<>();
+		Map<UUID, Integer> expected = new HashMap<>();
+		List<UUID> keys = new ArrayList<>();
+		for (int i = 0; i < 200; i++) {
+			keys.add(new UUID(random.nextLong(), random.nextLong()));
+		}
+
+		for (int i = 0; i < 20000; i++) {
+			UUID uuid = keys.get(random.nextInt(keys.size()));
+			if (random.nextInt(3) == 0) {
+				assertEquals(expected.remove(uuid), map.remove(uuid));
+			}
+			else {
+				Integer value = i;
+				assertEquals(expected.put(uuid, value), map.put(uuid, value));
+			}
+			assertEquals(expected.size(), map.size());
+		}
+		assertMatches(expected, map);
+		for (UUID uuid : keys) {
+			assertEquals(expected.containsKey(uuid), map.containsKey(uuid));
+		}
+	}
+
+	@Test
+	public void growAndClear() {
+		Random random = new Random(5L);
+		UuidMap<Integer> map = new UuidMap<>();
+		Map<UUID, Integer> expected = new HashMap<>();
+		for (int i = 0; i < 10000; i++) {
+			UUID uuid = new UUID(random.nextLong(), random.nextLong());
+			Integer value = i;
+			map.put(uuid, value);
+			expected.put(uuid, value);
+		}
+		assertMatches(expected, map);
+
+		map.clear();
+		assertTrue(map.isEmpty());
+		assertNull(map.get(expected.keySet().iterator().next()));
+		map.put(new UUID(1L, 1L), 1);
+		assertEquals(1, map.size());
+	}
+}